@@ -0,0 +1,22 @@
+package com.example.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// JMH-ийн ердийн аргументуудыг хүлээн авна; хуваарилалтын хурдыг (gc.alloc.rate.norm)
+// үргэлж хэмжиж, харьцуулахад зориулж үр дүнг JSON-оор хадгална.
+public class BenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("bench.result", "target/jmh-result.json"))
+                .build();
+        new Runner(options).run();
+    }
+}
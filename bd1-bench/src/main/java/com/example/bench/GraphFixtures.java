@@ -0,0 +1,111 @@
+package com.example.bench;
+
+import com.example.graph.CsrGraph;
+import com.example.graph.Graph;
+import com.example.graph.Node;
+import com.example.graph.SpeedProfile;
+import com.example.parser.GraphLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Benchmark-уудын граф ба seed-тэй санамсаргүй хүсэлтүүд.
+//   "ub"       - bd1-ийн Улаанбаатарын замын өгөгдөл (snapshot байвал түүнээс)
+//   "grid-N"   - N x N хэмжээтэй синтетик тор, UB-ийн координат дээр
+final class GraphFixtures {
+    static final String UB = "ub";
+    private static final String[] ROAD_TYPES = {"primary", "secondary", "residential", "service"};
+
+    private GraphFixtures() {
+    }
+
+    static String shapefilePath() {
+        return System.getProperty("bench.shapefile", "../bd1/src/main/resources/data/gis_osm_roads_free_1.shp");
+    }
+
+    static Graph load(String name) throws IOException {
+        if (UB.equals(name)) {
+            if (!new File(shapefilePath()).exists()) {
+                throw new IOException("UB өгөгдөл олдсонгүй: " + shapefilePath() + " (-Dbench.shapefile=...)");
+            }
+            return new GraphLoader(shapefilePath()).load();
+        }
+        if (name.startsWith("grid-")) {
+            return grid(Integer.parseInt(name.substring("grid-".length())), 7);
+        }
+        throw new IllegalArgumentException("Үл мэдэгдэх граф: " + name);
+    }
+
+    // Баруун, доошоо хөршүүдтэй тор; ирмэгийн 10% нь нэг чиглэлтэй
+    static Graph grid(int size, long seed) {
+        Random random = new Random(seed);
+        SpeedProfile profile = SpeedProfile.defaults();
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                builder.addNode(y * size + x, 47.85 + y * 0.0009, 106.80 + x * 0.0013);
+            }
+        }
+
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int from = y * size + x;
+                if (x + 1 < size) {
+                    addRoad(builder, profile, random, from, from + 1);
+                }
+                if (y + 1 < size) {
+                    addRoad(builder, profile, random, from, from + size);
+                }
+            }
+        }
+        return Graph.fromCsr(builder.build());
+    }
+
+    private static void addRoad(CsrGraph.Builder builder, SpeedProfile profile, Random random, int from, int to) {
+        String roadType = ROAD_TYPES[random.nextInt(ROAD_TYPES.length)];
+        boolean oneWay = random.nextInt(10) == 0;
+        double distance = Node.haversine(builder.getLatitude(from), builder.getLongitude(from),
+                builder.getLatitude(to), builder.getLongitude(to));
+        double time = profile.travelTime(distance, roadType, null);
+
+        builder.addArc(from, to, distance, time, roadType, oneWay);
+        if (!oneWay) {
+            builder.addArc(to, from, distance, time, roadType, false);
+        }
+    }
+
+    // Графын цэгүүдээс санамсаргүй (эхлэл, төгсгөл) хосууд
+    static long[][] nodePairs(Graph graph, int count, long seed) {
+        List<Node> nodes = new ArrayList<>(graph.getNodes());
+        Random random = new Random(seed);
+        long[][] pairs = new long[count][2];
+        for (long[] pair : pairs) {
+            pair[0] = nodes.get(random.nextInt(nodes.size())).getId();
+            pair[1] = nodes.get(random.nextInt(nodes.size())).getId();
+        }
+        return pairs;
+    }
+
+    // Графын хүрээн доторх санамсаргүй координатууд: {lat, lng}
+    static double[][] points(Graph graph, int count, long seed) {
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        for (Node node : graph.getNodes()) {
+            minLat = Math.min(minLat, node.getLatitude());
+            maxLat = Math.max(maxLat, node.getLatitude());
+            minLon = Math.min(minLon, node.getLongitude());
+            maxLon = Math.max(maxLon, node.getLongitude());
+        }
+
+        Random random = new Random(seed);
+        double[][] points = new double[count][2];
+        for (double[] point : points) {
+            point[0] = minLat + random.nextDouble() * (maxLat - minLat);
+            point[1] = minLon + random.nextDouble() * (maxLon - minLon);
+        }
+        return points;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bench;
+
+import com.example.graph.Graph;
+import com.example.parser.ShapefileParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Snapshot-гүйгээр Shapefile-ийг бүтэн уншина. Нэг удаагийн ажиллагаа тул SingleShotTime.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ParserBenchmark {
+
+    @Param({"1", "4"})
+    public int threads;
+
+    @Benchmark
+    public Graph parseShapefile() throws IOException {
+        return new ShapefileParser(0.0, threads).parseShapefile(GraphFixtures.shapefilePath());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.bench;
+
+import com.example.algorithms.AStar;
+import com.example.algorithms.AlternativeRoutes;
+import com.example.algorithms.BFS;
+import com.example.algorithms.BidirectionalDijkstra;
+import com.example.algorithms.DFS;
+import com.example.algorithms.Dijkstra;
+import com.example.graph.Graph;
+import com.example.graph.Metric;
+import com.example.graph.SpatialIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Seed-тэй ижил хүсэлтүүд дээр алгоритм бүрийг хэмжинэ:
+//   findPath  - зөвхөн хайлт
+//   endToEnd  - API-ийн адил: хоёр цэгийг snap хийж, хайгаад, замын зай/хугацааг дахин тооцно
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class RoutingBenchmark {
+    private static final int QUERY_COUNT = 256;
+    // yen: AlternativeRoutes-ийн хайх замын тоо
+    private static final int ALTERNATIVES = 3;
+
+    @Param({"grid-100", "grid-300", "ub"})
+    public String graph;
+
+    @Param({"bfs", "dfs", "dijkstra", "bidijkstra", "astar", "yen"})
+    public String algorithm;
+
+    @Param({"distance"})
+    public String metric;
+
+    private SpatialIndex index;
+    private long[][] nodePairs;
+    private double[][] startPoints;
+    private double[][] endPoints;
+    private Search search;
+    private Search searchWithStats;
+    private int cursor;
+
+    // long-ийг boxing хийлгүй дуудахын тулд
+    private interface Search {
+        Object run(long startId, long endId);
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Graph loaded = GraphFixtures.load(graph);
+        Metric selected = Metric.parse(metric);
+        index = loaded.getSpatialIndex();
+        nodePairs = GraphFixtures.nodePairs(loaded, QUERY_COUNT, 42);
+        startPoints = GraphFixtures.points(loaded, QUERY_COUNT, 43);
+        endPoints = GraphFixtures.points(loaded, QUERY_COUNT, 44);
+
+        switch (algorithm) {
+            case "bfs": {
+                BFS bfs = new BFS(loaded);
+                search = bfs::findPath;
+                searchWithStats = (s, e) -> bfs.findPathWithStats(s, e, selected);
+                break;
+            }
+            case "dfs": {
+                DFS dfs = new DFS(loaded);
+                search = dfs::findPath;
+                searchWithStats = (s, e) -> dfs.findPathWithStats(s, e, selected);
+                break;
+            }
+            case "dijkstra": {
+                Dijkstra dijkstra = new Dijkstra(loaded);
+                search = (s, e) -> dijkstra.findPath(s, e, selected);
+                searchWithStats = (s, e) -> dijkstra.findPathWithStats(s, e, selected);
+                break;
+            }
+            case "bidijkstra": {
+                BidirectionalDijkstra bidirectional = new BidirectionalDijkstra(loaded);
+                search = (s, e) -> bidirectional.findPath(s, e, selected);
+                searchWithStats = (s, e) -> bidirectional.findPathWithStats(s, e, selected);
+                break;
+            }
+            case "astar": {
+                AStar aStar = new AStar(loaded);
+                search = (s, e) -> aStar.findPath(s, e, selected);
+                searchWithStats = (s, e) -> aStar.findPathWithStats(s, e, selected);
+                break;
+            }
+            case "yen": {
+                AlternativeRoutes alternatives = new AlternativeRoutes(loaded);
+                search = (s, e) -> alternatives.findRoutes(s, e, ALTERNATIVES, selected);
+                searchWithStats = search;
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Үл мэдэгдэх алгоритм: " + algorithm);
+        }
+    }
+
+    @Benchmark
+    public Object findPath() {
+        long[] pair = nodePairs[cursor];
+        cursor = (cursor + 1) % QUERY_COUNT;
+        return search.run(pair[0], pair[1]);
+    }
+
+    @Benchmark
+    public Object endToEnd() {
+        double[] start = startPoints[cursor];
+        double[] end = endPoints[cursor];
+        cursor = (cursor + 1) % QUERY_COUNT;
+        int startId = index.nearest(start[0], start[1]);
+        int endId = index.nearest(end[0], end[1]);
+        return searchWithStats.run(startId, endId);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.bench;
+
+import com.example.graph.Graph;
+import com.example.graph.SpatialIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// PathfindingService.findNearestNode-ийн хийдэг spatial index хайлт
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnappingBenchmark {
+    private static final int POINT_COUNT = 4096;
+
+    @Param({"grid-100", "grid-300", "grid-1000", "ub"})
+    public String graph;
+
+    private SpatialIndex index;
+    private double[][] points;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Graph loaded = GraphFixtures.load(graph);
+        index = loaded.getSpatialIndex();
+        points = GraphFixtures.points(loaded, POINT_COUNT, 11);
+    }
+
+    @Benchmark
+    public int findNearestNode() {
+        double[] point = points[cursor];
+        cursor = (cursor + 1) & (POINT_COUNT - 1);
+        return index.nearest(point[0], point[1]);
+    }
+}
@@ -1,23 +1,43 @@
 package com.example;
 
+import com.example.algorithms.BidirectionalDijkstra;
+import com.example.algorithms.Dijkstra;
+import com.example.algorithms.LandmarkAStar;
+import com.example.algorithms.Landmarks;
 import com.example.api.PathfindingController;
 import com.example.graph.Graph;
-import com.example.parser.ShapefileParser;
+import com.example.graph.GraphSimplifier;
+import com.example.graph.Metric;
+import com.example.graph.Node;
+import com.example.parser.GraphLoader;
 import com.example.service.PathfindingService;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 public class Main {
     public static void main(String[] args) {
         try {
             System.out.println("=== Улаанбаатарын Замын Pathfinding API ===\n");
 
             System.out.println("График үүсгэж байна...");
-            ShapefileParser parser = new ShapefileParser();
             String shapefilePath = "src/main/resources/data/gis_osm_roads_free_1.shp";
-            Graph graph = parser.parseShapefile(shapefilePath);
+            GraphLoader loader = new GraphLoader(shapefilePath);
+            Graph graph = loader.load();
 
             System.out.println("\n✓ График амжилттай үүслээ!");
 
-            PathfindingService service = new PathfindingService(graph);
+            if (args.length > 0 && args[0].equals("bench")) {
+                int pairs = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+                runBenchmark(graph, pairs);
+                if (!graph.getCsr().hasGeometry()) {
+                    runSimplifyBenchmark(graph, pairs);
+                }
+                return;
+            }
+
+            PathfindingService service = new PathfindingService(graph, loader.getSnapshotPath());
 
             PathfindingController controller = new PathfindingController(service);
             controller.start(8080);
@@ -29,4 +49,120 @@ public class Main {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    // Санамсаргүй эхлэл-төгсгөлийн хосууд дээр нэг ба хоёр чиглэлт Dijkstra, ALT-ийг харьцуулна
+    private static void runBenchmark(Graph graph, int pairs) {
+        List<Node> nodes = new ArrayList<>(graph.getNodes());
+        Dijkstra dijkstra = new Dijkstra(graph);
+        BidirectionalDijkstra bidirectional = new BidirectionalDijkstra(graph);
+        Random random = new Random(42);
+
+        long[][] queries = new long[pairs][2];
+        for (long[] query : queries) {
+            query[0] = nodes.get(random.nextInt(nodes.size())).getId();
+            query[1] = nodes.get(random.nextInt(nodes.size())).getId();
+        }
+
+        for (Metric metric : Metric.values()) {
+            LandmarkAStar alt = new LandmarkAStar(graph, Landmarks.build(graph, metric,
+                    Integer.getInteger("alt.landmarks", Landmarks.DEFAULT_COUNT),
+                    Runtime.getRuntime().availableProcessors()));
+
+            // JIT халаалт
+            for (int i = 0; i < Math.min(50, pairs); i++) {
+                dijkstra.findPathWithStats(queries[i][0], queries[i][1], metric);
+                bidirectional.findPathWithStats(queries[i][0], queries[i][1], metric);
+                alt.findPathWithStats(queries[i][0], queries[i][1]);
+            }
+
+            double dijkstraTime = 0;
+            double bidirectionalTime = 0;
+            long dijkstraSettled = 0;
+            long bidirectionalSettled = 0;
+            double altTime = 0;
+            long altSettled = 0;
+            int mismatches = 0;
+            for (long[] query : queries) {
+                Dijkstra.PathResult a = dijkstra.findPathWithStats(query[0], query[1], metric);
+                BidirectionalDijkstra.PathResult b = bidirectional.findPathWithStats(query[0], query[1], metric);
+                dijkstraTime += a.executionTime;
+                bidirectionalTime += b.executionTime;
+                dijkstraSettled += a.settledNodes;
+                bidirectionalSettled += b.settledNodes;
+                LandmarkAStar.PathResult c = alt.findPathWithStats(query[0], query[1]);
+                altTime += c.executionTime;
+                altSettled += c.settledNodes;
+
+                double costA = metric == Metric.TIME ? a.totalTime : a.totalDistance;
+                double costB = metric == Metric.TIME ? b.totalTime : b.totalDistance;
+                double costC = metric == Metric.TIME ? c.totalTime : c.totalDistance;
+                if ((a.path == null) != (b.path == null) || Math.abs(costA - costB) > 1e-6
+                        || (a.path == null) != (c.path == null) || Math.abs(costA - costC) > 1e-6) {
+                    mismatches++;
+                }
+            }
+
+            System.out.println("\n=== Benchmark (" + metric.key() + ", " + pairs + " хос) ===");
+            System.out.println("Dijkstra:               " + String.format("%.3f", dijkstraTime / pairs) + " мс, " +
+                    "шийдсэн цэг " + dijkstraSettled / pairs);
+            System.out.println("Bidirectional Dijkstra: " + String.format("%.3f", bidirectionalTime / pairs) + " мс, " +
+                    "шийдсэн цэг " + bidirectionalSettled / pairs);
+            System.out.println("ALT:                    " + String.format("%.3f", altTime / pairs) + " мс, " +
+                    "шийдсэн цэг " + altSettled / pairs + " (Dijkstra-гийн " +
+                    String.format("%.1f", 100.0 * altSettled / Math.max(dijkstraSettled, 1)) + "%)");
+            System.out.println("Хурдсалт: " + String.format("%.2f", dijkstraTime / Math.max(bidirectionalTime, 1e-9)) +
+                    "x, зөрүүтэй үр дүн: " + mismatches);
+        }
+    }
+
+    // Хураалтын өмнөх, дараах графын Dijkstra-г хоёуланд нь байгаа (хураагдаагүй) цэгүүдийн хосоор харьцуулна
+    private static void runSimplifyBenchmark(Graph graph, int pairs) {
+        Graph simplified = Graph.fromCsr(GraphSimplifier.simplify(graph.getCsr()));
+        List<Node> nodes = new ArrayList<>(simplified.getNodes());
+        Dijkstra before = new Dijkstra(graph);
+        Dijkstra after = new Dijkstra(simplified);
+        Random random = new Random(42);
+
+        long[][] queries = new long[pairs][2];
+        for (long[] query : queries) {
+            query[0] = nodes.get(random.nextInt(nodes.size())).getId();
+            query[1] = nodes.get(random.nextInt(nodes.size())).getId();
+        }
+
+        for (Metric metric : Metric.values()) {
+            for (int i = 0; i < Math.min(50, pairs); i++) {
+                before.findPathWithStats(queries[i][0], queries[i][1], metric);
+                after.findPathWithStats(queries[i][0], queries[i][1], metric);
+            }
+
+            double beforeTime = 0;
+            double afterTime = 0;
+            long beforeSettled = 0;
+            long afterSettled = 0;
+            int mismatches = 0;
+            for (long[] query : queries) {
+                Dijkstra.PathResult a = before.findPathWithStats(query[0], query[1], metric);
+                Dijkstra.PathResult b = after.findPathWithStats(query[0], query[1], metric);
+                beforeTime += a.executionTime;
+                afterTime += b.executionTime;
+                beforeSettled += a.settledNodes;
+                afterSettled += b.settledNodes;
+
+                double costA = metric == Metric.TIME ? a.totalTime : a.totalDistance;
+                double costB = metric == Metric.TIME ? b.totalTime : b.totalDistance;
+                if ((a.path == null) != (b.path == null) || Math.abs(costA - costB) > 1e-6 * Math.max(1, costA)) {
+                    mismatches++;
+                }
+            }
+
+            System.out.println("\n=== Граф хураалт (" + metric.key() + ", " + pairs + " хос) ===");
+            System.out.println("Өмнө:  " + graph.size() + " цэг, " + graph.getCsr().getEdgeCount() + " нум, Dijkstra " +
+                    String.format("%.3f", beforeTime / pairs) + " мс, шийдсэн цэг " + beforeSettled / pairs);
+            System.out.println("Дараа: " + simplified.size() + " цэг, " + simplified.getCsr().getEdgeCount() +
+                    " нум, Dijkstra " + String.format("%.3f", afterTime / pairs) + " мс, шийдсэн цэг " +
+                    afterSettled / pairs);
+            System.out.println("Хурдсалт: " + String.format("%.2f", beforeTime / Math.max(afterTime, 1e-9)) +
+                    "x, зөрүүтэй үр дүн: " + mismatches);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.algorithms;
+
+import com.example.graph.CsrGraph;
+import com.example.graph.Graph;
+import com.example.graph.Metric;
+import com.example.graph.Node;
+
+import java.util.*;
+
+public class AStar {
+    private final Graph graph;
+
+    public AStar(Graph graph) {
+        this.graph = graph;
+    }
+
+    public List<Node> findPath(long startId, long endId) {
+        return findPath(startId, endId, Metric.DISTANCE);
+    }
+
+    public List<Node> findPath(long startId, long endId, Metric metric) {
+        return search(startId, endId, metric).path;
+    }
+
+    private PathResult search(long startId, long endId, Metric metric) {
+        PathResult result = new PathResult();
+        CsrGraph csr = graph.getCsr();
+        if (!csr.contains(startId) || !csr.contains(endId)) {
+            return result;
+        }
+
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        double[] weights = csr.weights(metric);
+        int start = (int) startId;
+        int end = (int) endId;
+        double targetLat = csr.getLatitude(end);
+        double targetLon = csr.getLongitude(end);
+
+        // Ирмэгийн жин нь haversine зай тул шулуун зай хэзээ ч бодит замаас их гарахгүй.
+        // Хугацааны хувьд шулуун зайг графын хамгийн их хурдаар явах хугацаанд шилжүүлнэ.
+        double heuristicScale = metric == Metric.TIME
+                ? (csr.getMaxSpeed() > 0 ? 1.0 / csr.getMaxSpeed() : 0.0)
+                : 1.0;
+        try (SearchContext context = SearchContext.acquire(csr.getNodeCount())) {
+            IndexedHeap heap = context.heap();
+            context.reach(start, 0.0, -1);
+            heap.insertOrDecrease(start, 0.0);
+
+            while (!heap.isEmpty()) {
+                int currentId = heap.poll();
+                context.settle(currentId);
+                result.settledNodes++;
+                SearchContext.checkInterrupted(result.settledNodes, "A*");
+
+                if (currentId == end) {
+                    result.maxQueueSize = heap.peakSize();
+                    long reconstructionStart = System.nanoTime();
+                    result.nodes = context.pathTo(start, end);
+                    result.path = graph.getNodes(result.nodes);
+                    result.reconstructionTime = (System.nanoTime() - reconstructionStart) / 1_000_000.0;
+                    return result;
+                }
+
+                double currentDistance = context.getDistance(currentId);
+                for (int e = offsets[currentId]; e < offsets[currentId + 1]; e++) {
+                    int neighborId = targets[e];
+
+                    if (context.isSettled(neighborId)) {
+                        continue;
+                    }
+                    result.relaxedEdges++;
+
+                    double newDistance = currentDistance + weights[e];
+
+                    if (newDistance < context.getDistance(neighborId)) {
+                        double heuristic = context.getPotential(neighborId);
+                        if (Double.isNaN(heuristic)) {
+                            heuristic = heuristicScale * Node.haversine(
+                                    csr.getLatitude(neighborId), csr.getLongitude(neighborId),
+                                    targetLat, targetLon);
+                            context.setPotential(neighborId, heuristic);
+                        }
+                        context.reach(neighborId, newDistance, currentId);
+                        heap.insertOrDecrease(neighborId, newDistance + heuristic);
+                    }
+                }
+            }
+
+            result.maxQueueSize = heap.peakSize();
+            return result;
+        }
+    }
+
+    public double calculatePathDistance(List<Node> path) {
+        return calculatePathDistance(path, Metric.DISTANCE);
+    }
+
+    // Зэрэгцээ нумуудаас metric-ээр хамгийн хямдыг нь тооцно
+    public double calculatePathDistance(List<Node> path, Metric metric) {
+        return sumPathCost(path, metric, Metric.DISTANCE);
+    }
+
+    public double calculatePathTime(List<Node> path, Metric metric) {
+        return sumPathCost(path, metric, Metric.TIME);
+    }
+
+    private double sumPathCost(List<Node> path, Metric metric, Metric total) {
+        return path == null ? 0.0 : sumPathCost(path.stream().mapToInt(node -> (int) node.getId()).toArray(), metric, total);
+    }
+
+    private double sumPathCost(int[] nodes, Metric metric, Metric total) {
+        if (nodes == null || nodes.length < 2) return 0.0;
+
+        CsrGraph csr = graph.getCsr();
+        double sum = 0.0;
+        for (int i = 0; i < nodes.length - 1; i++) {
+            int edge = csr.findEdge(nodes[i], nodes[i + 1], metric);
+            if (edge >= 0) {
+                sum += csr.getCost(edge, total);
+            }
+        }
+
+        return sum;
+    }
+
+    public PathResult findPathWithStats(long startId, long endId) {
+        return findPathWithStats(startId, endId, Metric.DISTANCE);
+    }
+
+    public PathResult findPathWithStats(long startId, long endId, Metric metric) {
+        long startTime = System.nanoTime();
+
+        PathResult result = search(startId, endId, metric);
+
+        long endTime = System.nanoTime();
+        result.executionTime = (endTime - startTime) / 1_000_000.0;
+        result.algorithmName = "A*";
+        result.metric = metric;
+
+        if (result.nodes != null) {
+            result.pathLength = result.nodes.length;
+            result.totalDistance = sumPathCost(result.nodes, metric, Metric.DISTANCE);
+            result.totalTime = sumPathCost(result.nodes, metric, Metric.TIME);
+        }
+
+        return result;
+    }
+
+    public static class PathResult {
+        public List<Node> path;   // nodes дээрх view
+        public int[] nodes;
+        public double executionTime;
+        public int pathLength;
+        public double totalDistance;
+        public double totalTime; // минут
+        public Metric metric;
+        public int settledNodes;
+        public long relaxedEdges;
+        public int maxQueueSize;       // дарааллын хамгийн их хэмжээ
+        public double reconstructionTime; // мс, executionTime-д багтана
+        public String algorithmName;
+
+        public void printResult() {
+            System.out.println("\n=== " + algorithmName + " үр дүн ===");
+            if (path == null) {
+                System.out.println("Зам олдсонгүй!");
+            } else {
+                System.out.println("Цэгүүдийн тоо: " + pathLength);
+                System.out.println("Нийт зай: " + String.format("%.2f", totalDistance) + " км");
+                System.out.println("Нийт хугацаа: " + String.format("%.1f", totalTime) + " мин");
+                System.out.println("Шийдсэн цэг: " + settledNodes);
+                System.out.println("Гүйцэтгэх хугацаа: " + String.format("%.2f", executionTime) + " мс");
+            }
+        }
+    }
+}
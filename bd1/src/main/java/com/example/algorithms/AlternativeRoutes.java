@@ -0,0 +1,286 @@
+package com.example.algorithms;
+
+import com.example.graph.CsrGraph;
+import com.example.graph.Graph;
+import com.example.graph.Metric;
+import com.example.graph.Node;
+
+import java.util.*;
+
+// Yen-ий k хамгийн богино давталтгүй зам. Өмнөх замын цэг бүрээс (spur) салаалж, root
+// хэсгийн цэгүүд болон ижил root-тэй замуудын дараагийн ирмэгийг хаагаад A* хийнэ. A*-ийн
+// эвристик нь төгсгөлөөс урвуу чиглэлд нэг удаа хийсэн Dijkstra-ийн бодит зай тул spur
+// хайлт бараг зөвхөн шинэ салааны цэгүүдийг л шийднэ.
+// Гүн, хугацаа, нийт шийдсэн цэгийн хязгаарт хүрвэл тэр хүртэл олсноо буцаана.
+public class AlternativeRoutes {
+    public static final int DEFAULT_MAX_DEPTH = 10_000;
+    public static final long DEFAULT_TIME_LIMIT_MS = 2_000;
+    public static final long DEFAULT_MAX_EXPANSIONS = 2_000_000;
+
+    private final Graph graph;
+    private final int maxDepth;
+    private final long timeLimitMs;
+    private final long maxExpansions;
+
+    public AlternativeRoutes(Graph graph) {
+        this(graph, DEFAULT_MAX_DEPTH, DEFAULT_TIME_LIMIT_MS, DEFAULT_MAX_EXPANSIONS);
+    }
+
+    public AlternativeRoutes(Graph graph, int maxDepth, long timeLimitMs, long maxExpansions) {
+        this.graph = graph;
+        this.maxDepth = maxDepth;
+        this.timeLimitMs = timeLimitMs;
+        this.maxExpansions = maxExpansions;
+    }
+
+    public Result findRoutes(long startId, long endId, int k, Metric metric) {
+        long startTime = System.nanoTime();
+        long deadline = startTime + timeLimitMs * 1_000_000L;
+        Result result = new Result();
+        result.metric = metric;
+
+        CsrGraph csr = graph.getCsr();
+        if (k <= 0 || !csr.contains(startId) || !csr.contains(endId)) {
+            return finish(result, startTime);
+        }
+        int start = (int) startId;
+        int end = (int) endId;
+        double[] weights = csr.weights(metric);
+        // Урвуу мод ба spur хайлтын төлөвийг бүх хайлтын турш хоёрхон удаа сангаас авна
+        try (SearchContext toEnd = SearchContext.acquire(csr.getNodeCount());
+             SearchContext context = SearchContext.acquire(csr.getNodeCount())) {
+            reverseTree(csr, weights, toEnd, end, deadline, result);
+            return findRoutes(csr, weights, toEnd, context, start, end, k, deadline, startTime, result);
+        }
+    }
+
+    private Result findRoutes(CsrGraph csr, double[] weights, SearchContext toEnd, SearchContext context,
+                              int start, int end, int k, long deadline, long startTime, Result result) {
+        List<Route> accepted = new ArrayList<>();
+        PriorityQueue<Route> candidates = new PriorityQueue<>(Comparator.comparingDouble(r -> r.cost));
+        Set<Route> seen = new HashSet<>();
+
+        Route first = spurSearch(csr, weights, toEnd, context, start, end, new int[0], 0, new int[0], 0,
+                deadline, result);
+        if (first == null || first.nodes.length > maxDepth) {
+            result.truncated |= first != null;
+            return finish(result, startTime);
+        }
+        accepted.add(first);
+        seen.add(first);
+
+        search:
+        while (accepted.size() < k) {
+            Route previous = accepted.get(accepted.size() - 1);
+            double rootCost = 0.0;
+            for (int i = 0; i < previous.nodes.length - 1; i++) {
+                if (result.truncated) {
+                    break search;
+                }
+                int spur = previous.nodes[i];
+
+                // Ижил root-тэй аль хэдийн олдсон замуудын дараагийн цэг рүү очихыг хориглоно
+                int[] blockedNext = new int[accepted.size()];
+                int blockedCount = 0;
+                for (Route route : accepted) {
+                    if (route.nodes.length > i + 1 && sharesPrefix(route.nodes, previous.nodes, i)) {
+                        blockedNext[blockedCount++] = route.nodes[i + 1];
+                    }
+                }
+
+                Route spurRoute = spurSearch(csr, weights, toEnd, context, spur, end, previous.nodes, i,
+                        blockedNext, blockedCount, deadline, result);
+                if (spurRoute != null) {
+                    int[] nodes = new int[i + spurRoute.nodes.length];
+                    System.arraycopy(previous.nodes, 0, nodes, 0, i);
+                    System.arraycopy(spurRoute.nodes, 0, nodes, i, spurRoute.nodes.length);
+                    Route candidate = new Route(nodes, rootCost + spurRoute.cost);
+                    if (nodes.length > maxDepth) {
+                        result.truncated = true;
+                    } else if (seen.add(candidate)) {
+                        candidates.add(candidate);
+                    }
+                }
+
+                rootCost += arcCost(csr, weights, spur, previous.nodes[i + 1]);
+            }
+
+            if (candidates.isEmpty()) {
+                break;
+            }
+            accepted.add(candidates.poll());
+        }
+
+        result.paths = new ArrayList<>(accepted.size());
+        result.costs = new double[accepted.size()];
+        for (int i = 0; i < accepted.size(); i++) {
+            List<Node> path = new ArrayList<>(accepted.get(i).nodes.length);
+            for (int node : accepted.get(i).nodes) {
+                path.add(graph.getNode(node));
+            }
+            result.paths.add(path);
+            result.costs[i] = accepted.get(i).cost;
+        }
+        return finish(result, startTime);
+    }
+
+    // Бүх цэгээс end хүртэлх бодит зай; зөвхөн шийдэгдсэн цэгийн зай бодит. Spur хайлтын
+    // expansions-д тооцохгүй, харин хугацаа дуусвал зогсож truncated болгоно: тэр хүртэл шийдсэн
+    // цэгүүдээр дамжих замууд зөв хэвээр олдоно.
+    private static void reverseTree(CsrGraph csr, double[] weights, SearchContext context, int end,
+                                    long deadline, Result result) {
+        int[] inOffsets = csr.getInOffsets();
+        int[] inSources = csr.getInSources();
+        int[] inEdges = csr.getInEdges();
+
+        IndexedHeap heap = context.heap();
+        context.reach(end, 0.0, -1);
+        heap.insertOrDecrease(end, 0.0);
+
+        int settledNodes = 0;
+        while (!heap.isEmpty()) {
+            if ((settledNodes & 1023) == 0 && System.nanoTime() > deadline) {
+                result.truncated = true;
+                return;
+            }
+            int currentId = heap.poll();
+            context.settle(currentId);
+            settledNodes++;
+            SearchContext.checkInterrupted(settledNodes, "Alternative routes");
+
+            double currentDistance = context.getDistance(currentId);
+            for (int i = inOffsets[currentId]; i < inOffsets[currentId + 1]; i++) {
+                int neighborId = inSources[i];
+                if (context.isSettled(neighborId)) {
+                    continue;
+                }
+                double newDistance = currentDistance + weights[inEdges[i]];
+                if (newDistance < context.getDistance(neighborId)) {
+                    context.reach(neighborId, newDistance, currentId);
+                    heap.insertOrDecrease(neighborId, newDistance);
+                }
+            }
+        }
+    }
+
+    // root[0..rootLength) цэгүүдийг урьдчилан шийдсэн гэж тэмдэглэж хайлтаас хасна
+    private Route spurSearch(CsrGraph csr, double[] weights, SearchContext toEnd, SearchContext context,
+                             int spur, int end, int[] root, int rootLength, int[] blockedNext,
+                             int blockedCount, long deadline, Result result) {
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+
+        context.reset();
+        IndexedHeap heap = context.heap();
+        for (int i = 0; i < rootLength; i++) {
+            context.settle(root[i]);
+        }
+        context.reach(spur, 0.0, -1);
+        heap.insertOrDecrease(spur, 0.0);
+
+        while (!heap.isEmpty()) {
+            if (result.expansions >= maxExpansions
+                    || ((result.expansions & 1023) == 0 && System.nanoTime() > deadline)) {
+                result.truncated = true;
+                return null;
+            }
+            int currentId = heap.poll();
+            context.settle(currentId);
+            result.expansions++;
+
+            if (currentId == end) {
+                int length = 1;
+                for (int v = end; v != spur; v = context.getParent(v)) {
+                    length++;
+                }
+                int[] nodes = new int[length];
+                for (int v = end, i = length - 1; i >= 0; v = context.getParent(v), i--) {
+                    nodes[i] = v;
+                }
+                return new Route(nodes, context.getDistance(end));
+            }
+
+            double currentDistance = context.getDistance(currentId);
+            for (int e = offsets[currentId]; e < offsets[currentId + 1]; e++) {
+                int neighborId = targets[e];
+                // end-д хүрэхгүй (эсвэл урвуу мод амжиж шийдээгүй) цэгээр явах утгагүй
+                if (context.isSettled(neighborId) || !toEnd.isSettled(neighborId)) {
+                    continue;
+                }
+                if (currentId == spur && contains(blockedNext, blockedCount, neighborId)) {
+                    continue;
+                }
+
+                double newDistance = currentDistance + weights[e];
+                if (newDistance < context.getDistance(neighborId)) {
+                    context.reach(neighborId, newDistance, currentId);
+                    heap.insertOrDecrease(neighborId, newDistance + toEnd.getDistance(neighborId));
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean sharesPrefix(int[] a, int[] b, int length) {
+        for (int i = 0; i <= length; i++) {
+            if (a[i] != b[i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    // Зэрэгцээ нумуудаас хамгийн хямд нь
+    private static double arcCost(CsrGraph csr, double[] weights, int from, int to) {
+        double best = Double.MAX_VALUE;
+        for (int e = csr.firstEdge(from); e < csr.endEdge(from); e++) {
+            if (csr.getTarget(e) == to) {
+                best = Math.min(best, weights[e]);
+            }
+        }
+        return best;
+    }
+
+    private static Result finish(Result result, long startTime) {
+        if (result.paths == null) {
+            result.paths = new ArrayList<>();
+            result.costs = new double[0];
+        }
+        result.executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+        return result;
+    }
+
+    private static final class Route {
+        final int[] nodes;
+        final double cost;
+
+        Route(int[] nodes, double cost) {
+            this.nodes = nodes;
+            this.cost = cost;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Route other && Arrays.equals(nodes, other.nodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(nodes);
+        }
+    }
+
+    public static class Result {
+        public List<List<Node>> paths;
+        public double[] costs;   // metric-ийн нэгжээр, өсөх дарааллаар
+        public Metric metric;
+        public long expansions;
+        public boolean truncated; // хязгаарт хүрч эрт зогссон
+        public double executionTime;
+    }
+}
@@ -1,7 +1,8 @@
 package com.example.algorithms;
 
-import com.example.graph.Edge;
+import com.example.graph.CsrGraph;
 import com.example.graph.Graph;
+import com.example.graph.Metric;
 import com.example.graph.Node;
 
 import java.util.*;
@@ -12,99 +13,133 @@ public class BFS {
         this.graph = graph;
     }
     public List<Node> findPath(long startId, long endId) {
+        return search(startId, endId, Metric.DISTANCE).path;
+    }
+
+    private PathResult search(long startId, long endId, Metric metric) {
+        PathResult result = new PathResult();
+        CsrGraph csr = graph.getCsr();
+        if (!csr.contains(startId) || !csr.contains(endId)) {
+            return result;
+        }
         if (startId == endId) {
-            return Arrays.asList(graph.getNode(startId));
+            result.nodes = new int[] {(int) startId};
+            result.path = graph.getNodes(result.nodes);
+            return result;
         }
-        Queue<Long> queue = new LinkedList<>();
-        Set<Long> visited = new HashSet<>();
-        Map<Long, Long> parent = new HashMap<>();
-
-        queue.offer(startId);
-        visited.add(startId);
-
-        while (!queue.isEmpty()) {
-            long currentId = queue.poll();
 
-            if (currentId == endId) {
-                return reconstructPath(parent, startId, endId);
-            }
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        // Жинг ашиглахгүй ч хаалттай (Infinity) нумыг алгасахын тулд
+        double[] weights = csr.weights(metric);
+        int start = (int) startId;
+        int end = (int) endId;
+
+        // Цэг бүр дараалалд нэг л удаа орох тул n хэмжээтэй массив хангалттай
+        try (SearchContext context = SearchContext.acquire(csr.getNodeCount())) {
+            int[] queue = context.queue();
+            int head = 0;
+            int tail = 0;
+
+            queue[tail++] = start;
+            context.reach(start, 0.0, -1);
+
+            while (head < tail) {
+                result.maxQueueSize = Math.max(result.maxQueueSize, tail - head);
+                int currentId = queue[head++];
+                result.settledNodes++;
+                SearchContext.checkInterrupted(result.settledNodes, "BFS");
+
+                if (currentId == end) {
+                    long reconstructionStart = System.nanoTime();
+                    result.nodes = context.pathTo(start, end);
+                    result.path = graph.getNodes(result.nodes);
+                    result.reconstructionTime = (System.nanoTime() - reconstructionStart) / 1_000_000.0;
+                    return result;
+                }
 
-            List<Edge> edges = graph.getEdges(currentId);
-            for (Edge edge : edges) {
-                long neighborId = edge.getTo().getId();
+                result.relaxedEdges += offsets[currentId + 1] - offsets[currentId];
+                for (int e = offsets[currentId]; e < offsets[currentId + 1]; e++) {
+                    int neighborId = targets[e];
 
-                if (!visited.contains(neighborId)) {
-                    visited.add(neighborId);
-                    parent.put(neighborId, currentId);
-                    queue.offer(neighborId);
+                    if (weights[e] != Double.POSITIVE_INFINITY && !context.isReached(neighborId)) {
+                        context.reach(neighborId, 0.0, currentId);
+                        queue[tail++] = neighborId;
+                    }
                 }
             }
+
+            return result;
         }
+    }
 
-        return null;
+    public double calculatePathDistance(List<Node> path) {
+        return calculatePathDistance(path, Metric.DISTANCE);
     }
 
-    private List<Node> reconstructPath(Map<Long, Long> parent, long startId, long endId) {
-        List<Node> path = new ArrayList<>();
-        long current = endId;
+    // Зэрэгцээ нумуудаас metric-ээр хамгийн хямдыг нь тооцно
+    public double calculatePathDistance(List<Node> path, Metric metric) {
+        return sumPathCost(path, metric, Metric.DISTANCE);
+    }
 
-        while (current != startId) {
-            path.add(graph.getNode(current));
-            current = parent.get(current);
-        }
-        path.add(graph.getNode(startId));
+    public double calculatePathTime(List<Node> path, Metric metric) {
+        return sumPathCost(path, metric, Metric.TIME);
+    }
 
-        Collections.reverse(path);
-        return path;
+    private double sumPathCost(List<Node> path, Metric metric, Metric total) {
+        return path == null ? 0.0 : sumPathCost(path.stream().mapToInt(node -> (int) node.getId()).toArray(), metric, total);
     }
 
-    public double calculatePathDistance(List<Node> path) {
-        if (path == null || path.size() < 2) return 0.0;
-
-        double totalDistance = 0.0;
-        for (int i = 0; i < path.size() - 1; i++) {
-            Node current = path.get(i);
-            Node next = path.get(i + 1);
-
-            // Ирмэгийн жинг олох
-            List<Edge> edges = graph.getEdges(current.getId());
-            for (Edge edge : edges) {
-                if (edge.getTo().getId() == next.getId()) {
-                    totalDistance += edge.getWeight();
-                    break;
-                }
+    private double sumPathCost(int[] nodes, Metric metric, Metric total) {
+        if (nodes == null || nodes.length < 2) return 0.0;
+
+        CsrGraph csr = graph.getCsr();
+        double sum = 0.0;
+        for (int i = 0; i < nodes.length - 1; i++) {
+            int edge = csr.findEdge(nodes[i], nodes[i + 1], metric);
+            if (edge >= 0) {
+                sum += csr.getCost(edge, total);
             }
         }
 
-        return totalDistance;
+        return sum;
     }
 
     public PathResult findPathWithStats(long startId, long endId) {
+        return findPathWithStats(startId, endId, Metric.DISTANCE);
+    }
+
+    public PathResult findPathWithStats(long startId, long endId, Metric metric) {
         long startTime = System.nanoTime();
 
-        List<Node> path = findPath(startId, endId);
+        PathResult result = search(startId, endId, metric);
 
         long endTime = System.nanoTime();
-        double executionTime = (endTime - startTime) / 1_000_000.0; // миллисекунд
-
-        PathResult result = new PathResult();
-        result.path = path;
-        result.executionTime = executionTime;
+        result.executionTime = (endTime - startTime) / 1_000_000.0; // миллисекунд
         result.algorithmName = "BFS";
+        result.metric = metric;
 
-        if (path != null) {
-            result.pathLength = path.size();
-            result.totalDistance = calculatePathDistance(path);
+        if (result.nodes != null) {
+            result.pathLength = result.nodes.length;
+            result.totalDistance = sumPathCost(result.nodes, metric, Metric.DISTANCE);
+            result.totalTime = sumPathCost(result.nodes, metric, Metric.TIME);
         }
 
         return result;
     }
 
     public static class PathResult {
-        public List<Node> path;
+        public List<Node> path;   // nodes дээрх view
+        public int[] nodes;
         public double executionTime; // миллисекунд
         public int pathLength; // цэгүүдийн тоо
         public double totalDistance; // нийт зай (км)
+        public double totalTime; // нийт хугацаа (минут)
+        public Metric metric;
+        public int settledNodes; // дарааллаас гаргасан цэг
+        public long relaxedEdges; // шалгасан ирмэг
+        public int maxQueueSize; // дарааллын хамгийн их хэмжээ
+        public double reconstructionTime; // мс, executionTime-д багтана
         public String algorithmName;
 
         public void printResult() {
@@ -114,6 +149,7 @@ public class BFS {
             } else {
                 System.out.println("Цэгүүдийн тоо: " + pathLength);
                 System.out.println("Нийт зай: " + String.format("%.2f", totalDistance) + " км");
+                System.out.println("Нийт хугацаа: " + String.format("%.1f", totalTime) + " мин");
                 System.out.println("Гүйцэтгэх хугацаа: " + String.format("%.2f", executionTime) + " мс");
 
                 System.out.println("\nЗамын эхний 5 цэг:");
@@ -0,0 +1,227 @@
+package com.example.algorithms;
+
+import com.example.graph.CsrGraph;
+import com.example.graph.Graph;
+import com.example.graph.Metric;
+import com.example.graph.Node;
+
+import java.util.*;
+
+// Эхлэлээс гарах ирмэгээр, төгсгөлөөс орж ирэх ирмэгээр зэрэг хайна. Хоёр фронтын
+// дээд утгын нийлбэр олдсон хамгийн сайн замаас багагүй болмогц зогсоно.
+public class BidirectionalDijkstra {
+    private final Graph graph;
+
+    public BidirectionalDijkstra(Graph graph) {
+        this.graph = graph;
+    }
+
+    public List<Node> findPath(long startId, long endId) {
+        return findPath(startId, endId, Metric.DISTANCE);
+    }
+
+    public List<Node> findPath(long startId, long endId, Metric metric) {
+        return search(startId, endId, metric).path;
+    }
+
+    private PathResult search(long startId, long endId, Metric metric) {
+        PathResult result = new PathResult();
+        CsrGraph csr = graph.getCsr();
+        if (!csr.contains(startId) || !csr.contains(endId)) {
+            return result;
+        }
+
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] inOffsets = csr.getInOffsets();
+        int[] inSources = csr.getInSources();
+        int[] inEdges = csr.getInEdges();
+        double[] weights = csr.weights(metric);
+        int start = (int) startId;
+        int end = (int) endId;
+        int n = csr.getNodeCount();
+
+        try (SearchContext forward = SearchContext.acquire(n);
+             SearchContext backward = SearchContext.acquire(n)) {
+            IndexedHeap forwardHeap = forward.heap();
+            IndexedHeap backwardHeap = backward.heap();
+            forward.reach(start, 0.0, -1);
+            backward.reach(end, 0.0, -1);
+            forwardHeap.insertOrDecrease(start, 0.0);
+            backwardHeap.insertOrDecrease(end, 0.0);
+
+            double best = start == end ? 0.0 : Double.MAX_VALUE;
+            int meet = start == end ? start : -1;
+
+            while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()) {
+                double forwardTop = forwardHeap.peekKey();
+                double backwardTop = backwardHeap.peekKey();
+                if (forwardTop + backwardTop >= best) {
+                    break;
+                }
+
+                // Аль фронт бага байна, түүнийг нэг алхам ахиулна
+                if (forwardTop <= backwardTop) {
+                    int currentId = forwardHeap.poll();
+                    forward.settle(currentId);
+                    result.settledNodes++;
+                    SearchContext.checkInterrupted(result.settledNodes, "Bidirectional Dijkstra");
+
+                    double currentDistance = forward.getDistance(currentId);
+                    for (int e = offsets[currentId]; e < offsets[currentId + 1]; e++) {
+                        int neighborId = targets[e];
+                        if (forward.isSettled(neighborId)) {
+                            continue;
+                        }
+                        result.relaxedEdges++;
+
+                        double newDistance = currentDistance + weights[e];
+                        if (newDistance < forward.getDistance(neighborId)) {
+                            forward.reach(neighborId, newDistance, currentId);
+                            forwardHeap.insertOrDecrease(neighborId, newDistance);
+                        }
+                        if (backward.isReached(neighborId)
+                                && forward.getDistance(neighborId) + backward.getDistance(neighborId) < best) {
+                            best = forward.getDistance(neighborId) + backward.getDistance(neighborId);
+                            meet = neighborId;
+                        }
+                    }
+                } else {
+                    int currentId = backwardHeap.poll();
+                    backward.settle(currentId);
+                    result.settledNodes++;
+                    SearchContext.checkInterrupted(result.settledNodes, "Bidirectional Dijkstra");
+
+                    double currentDistance = backward.getDistance(currentId);
+                    for (int i = inOffsets[currentId]; i < inOffsets[currentId + 1]; i++) {
+                        int neighborId = inSources[i];
+                        if (backward.isSettled(neighborId)) {
+                            continue;
+                        }
+                        result.relaxedEdges++;
+
+                        double newDistance = currentDistance + weights[inEdges[i]];
+                        if (newDistance < backward.getDistance(neighborId)) {
+                            backward.reach(neighborId, newDistance, currentId);
+                            backwardHeap.insertOrDecrease(neighborId, newDistance);
+                        }
+                        if (forward.isReached(neighborId)
+                                && forward.getDistance(neighborId) + backward.getDistance(neighborId) < best) {
+                            best = forward.getDistance(neighborId) + backward.getDistance(neighborId);
+                            meet = neighborId;
+                        }
+                    }
+                }
+            }
+
+            result.maxQueueSize = Math.max(forwardHeap.peakSize(), backwardHeap.peakSize());
+            if (meet >= 0) {
+                long reconstructionStart = System.nanoTime();
+                result.nodes = reconstructPath(forward, backward, start, end, meet);
+                result.path = graph.getNodes(result.nodes);
+                result.reconstructionTime = (System.nanoTime() - reconstructionStart) / 1_000_000.0;
+            }
+            return result;
+        }
+    }
+
+    private int[] reconstructPath(SearchContext forward, SearchContext backward,
+                                  int startId, int endId, int meet) {
+        int[] head = forward.pathTo(startId, meet);
+        int tail = 0;
+        for (int current = meet; current != endId; current = backward.getParent(current)) {
+            tail++;
+        }
+
+        int[] path = Arrays.copyOf(head, head.length + tail);
+        int current = meet;
+        for (int i = head.length; i < path.length; i++) {
+            current = backward.getParent(current);
+            path[i] = current;
+        }
+        return path;
+    }
+
+    public double calculatePathDistance(List<Node> path) {
+        return calculatePathDistance(path, Metric.DISTANCE);
+    }
+
+    // Зэрэгцээ нумуудаас metric-ээр хамгийн хямдыг нь тооцно
+    public double calculatePathDistance(List<Node> path, Metric metric) {
+        return sumPathCost(path, metric, Metric.DISTANCE);
+    }
+
+    public double calculatePathTime(List<Node> path, Metric metric) {
+        return sumPathCost(path, metric, Metric.TIME);
+    }
+
+    private double sumPathCost(List<Node> path, Metric metric, Metric total) {
+        return path == null ? 0.0 : sumPathCost(path.stream().mapToInt(node -> (int) node.getId()).toArray(), metric, total);
+    }
+
+    private double sumPathCost(int[] nodes, Metric metric, Metric total) {
+        if (nodes == null || nodes.length < 2) return 0.0;
+
+        CsrGraph csr = graph.getCsr();
+        double sum = 0.0;
+        for (int i = 0; i < nodes.length - 1; i++) {
+            int edge = csr.findEdge(nodes[i], nodes[i + 1], metric);
+            if (edge >= 0) {
+                sum += csr.getCost(edge, total);
+            }
+        }
+
+        return sum;
+    }
+
+    public PathResult findPathWithStats(long startId, long endId) {
+        return findPathWithStats(startId, endId, Metric.DISTANCE);
+    }
+
+    public PathResult findPathWithStats(long startId, long endId, Metric metric) {
+        long startTime = System.nanoTime();
+
+        PathResult result = search(startId, endId, metric);
+
+        long endTime = System.nanoTime();
+        result.executionTime = (endTime - startTime) / 1_000_000.0;
+        result.algorithmName = "Bidirectional Dijkstra";
+        result.metric = metric;
+
+        if (result.nodes != null) {
+            result.pathLength = result.nodes.length;
+            result.totalDistance = sumPathCost(result.nodes, metric, Metric.DISTANCE);
+            result.totalTime = sumPathCost(result.nodes, metric, Metric.TIME);
+        }
+
+        return result;
+    }
+
+    public static class PathResult {
+        public List<Node> path;   // nodes дээрх view
+        public int[] nodes;
+        public double executionTime;
+        public int pathLength;
+        public double totalDistance;
+        public double totalTime; // минут
+        public Metric metric;
+        public int settledNodes;
+        public long relaxedEdges;
+        public int maxQueueSize;       // хоёр дарааллын томынх нь хамгийн их хэмжээ
+        public double reconstructionTime; // мс, executionTime-д багтана
+        public String algorithmName;
+
+        public void printResult() {
+            System.out.println("\n=== " + algorithmName + " үр дүн ===");
+            if (path == null) {
+                System.out.println("Зам олдсонгүй!");
+            } else {
+                System.out.println("Цэгүүдийн тоо: " + pathLength);
+                System.out.println("Нийт зай: " + String.format("%.2f", totalDistance) + " км");
+                System.out.println("Нийт хугацаа: " + String.format("%.1f", totalTime) + " мин");
+                System.out.println("Шийдсэн цэг: " + settledNodes);
+                System.out.println("Гүйцэтгэх хугацаа: " + String.format("%.2f", executionTime) + " мс");
+            }
+        }
+    }
+}
@@ -0,0 +1,740 @@
+package com.example.algorithms;
+
+import com.example.graph.CsrGraph;
+import com.example.graph.Graph;
+import com.example.graph.Metric;
+import com.example.graph.Node;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Contraction Hierarchies: цэгүүдийг ач холбогдлоор нь эрэмбэлж нэг нэгээр нь "агшааж",
+// хасагдсан цэгээр дамжих богино замыг shortcut ирмэгээр орлуулна. Хайлт нь эхлэл ба
+// төгсгөлөөс зөвхөн дээш чиглэсэн ирмэгээр явдаг тул маш цөөн цэг шийднэ.
+public class ContractionHierarchy {
+    // Ач холбогдлын симуляцид хямд, бодит агшаалтад илүү нарийн witness хайлт
+    private static final int SIMULATION_SETTLE_LIMIT = 60;
+    private static final int CONTRACTION_SETTLE_LIMIT = 500;
+    private static final int NO_EDGE = -1;
+
+    private final Graph graph;
+    private final Metric metric;
+    private final int nodeCount;
+    private final int[] rank;
+
+    // Ирмэг бүр: анхны нум (child1 = -1) эсвэл хоёр ирмэгээс бүтсэн shortcut
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final double[] edgeWeight;
+    private final int[] edgeChild1;
+    private final int[] edgeChild2;
+
+    // upEdges[upOffsets[v]..]: v -> өндөр rank-тай цэг; downEdges[downOffsets[v]..]: өндөр rank-тай цэг -> v
+    private final int[] upOffsets;
+    private final int[] upEdges;
+    private final int[] downOffsets;
+    private final int[] downEdges;
+
+    private final int shortcutCount;
+    private final double preprocessingTime;
+
+    private ContractionHierarchy(Graph graph, Metric metric, Preprocessor pre, double preprocessingTime) {
+        this.graph = graph;
+        this.metric = metric;
+        this.nodeCount = pre.n;
+        this.rank = pre.rank;
+        this.edgeFrom = Arrays.copyOf(pre.edgeFrom, pre.edgeCount);
+        this.edgeTo = Arrays.copyOf(pre.edgeTo, pre.edgeCount);
+        this.edgeWeight = Arrays.copyOf(pre.edgeWeight, pre.edgeCount);
+        this.edgeChild1 = Arrays.copyOf(pre.edgeChild1, pre.edgeCount);
+        this.edgeChild2 = Arrays.copyOf(pre.edgeChild2, pre.edgeCount);
+        this.shortcutCount = pre.shortcutCount;
+        this.preprocessingTime = preprocessingTime;
+
+        this.upOffsets = new int[nodeCount + 1];
+        this.downOffsets = new int[nodeCount + 1];
+        for (int v = 0; v < nodeCount; v++) {
+            upOffsets[v + 1] = upOffsets[v] + pre.finalUp[v].size;
+            downOffsets[v + 1] = downOffsets[v] + pre.finalDown[v].size;
+        }
+        this.upEdges = new int[upOffsets[nodeCount]];
+        this.downEdges = new int[downOffsets[nodeCount]];
+        for (int v = 0; v < nodeCount; v++) {
+            System.arraycopy(pre.finalUp[v].items, 0, upEdges, upOffsets[v], pre.finalUp[v].size);
+            System.arraycopy(pre.finalDown[v].items, 0, downEdges, downOffsets[v], pre.finalDown[v].size);
+        }
+    }
+
+    public static ContractionHierarchy build(Graph graph) {
+        return build(graph, Metric.DISTANCE, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static ContractionHierarchy build(Graph graph, int threads) {
+        return build(graph, Metric.DISTANCE, threads);
+    }
+
+    // Шатлал нь нэг metric-д зориулагдана; metric бүрт тусад нь бэлтгэнэ
+    public static ContractionHierarchy build(Graph graph, Metric metric, int threads) {
+        long startTime = System.nanoTime();
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        Preprocessor pre = new Preprocessor(graph.getCsr(), metric);
+        try {
+            pre.run(pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        double preprocessingTime = (System.nanoTime() - startTime) / 1_000_000.0;
+        ContractionHierarchy ch = new ContractionHierarchy(graph, metric, pre, preprocessingTime);
+        System.out.println("CH (" + metric.key() + ") бэлтгэл дууслаа: " + String.format("%.0f", preprocessingTime) + " мс, " +
+                "shortcut: " + ch.shortcutCount + ", thread: " + Math.max(1, threads));
+        return ch;
+    }
+
+    public List<Node> findPath(long startId, long endId) {
+        return search(startId, endId).path;
+    }
+
+    private PathResult search(long startId, long endId) {
+        PathResult result = new PathResult();
+        if (startId < 0 || endId < 0 || startId >= nodeCount || endId >= nodeCount
+                || graph.getNode(startId) == null || graph.getNode(endId) == null) {
+            return result;
+        }
+        int start = (int) startId;
+        int end = (int) endId;
+        if (start == end) {
+            result.nodes = new int[] {start};
+            result.path = graph.getNodes(result.nodes);
+            return result;
+        }
+
+        // Хоёр чиглэлийн төлөвийг бусад хайлтын адил сангаас авна; эцэг нь энд ирмэгийн дугаар
+        try (SearchContext forward = SearchContext.acquire(nodeCount);
+             SearchContext backward = SearchContext.acquire(nodeCount)) {
+            relax(forward, start, 0.0, NO_EDGE);
+            relax(backward, end, 0.0, NO_EDGE);
+
+            double best = Double.MAX_VALUE;
+            int meet = -1;
+            while (true) {
+                double forwardMin = forward.heap().isEmpty() ? Double.MAX_VALUE : forward.heap().peekKey();
+                double backwardMin = backward.heap().isEmpty() ? Double.MAX_VALUE : backward.heap().peekKey();
+                if (Math.min(forwardMin, backwardMin) >= best) {
+                    break;
+                }
+
+                boolean forwardStep = forwardMin <= backwardMin;
+                SearchContext side = forwardStep ? forward : backward;
+                SearchContext other = forwardStep ? backward : forward;
+                double distance = side.heap().peekKey();
+                int v = side.heap().poll();
+                result.settledNodes++;
+                SearchContext.checkInterrupted(result.settledNodes, "CH");
+
+                if (other.isReached(v) && distance + other.getDistance(v) < best) {
+                    best = distance + other.getDistance(v);
+                    meet = v;
+                }
+
+                if (forwardStep) {
+                    result.relaxedEdges += upOffsets[v + 1] - upOffsets[v];
+                    for (int i = upOffsets[v]; i < upOffsets[v + 1]; i++) {
+                        int e = upEdges[i];
+                        relax(side, edgeTo[e], distance + edgeWeight[e], e);
+                    }
+                } else {
+                    result.relaxedEdges += downOffsets[v + 1] - downOffsets[v];
+                    for (int i = downOffsets[v]; i < downOffsets[v + 1]; i++) {
+                        int e = downEdges[i];
+                        relax(side, edgeFrom[e], distance + edgeWeight[e], e);
+                    }
+                }
+            }
+
+            result.maxQueueSize = Math.max(forward.heap().peakSize(), backward.heap().peakSize());
+            if (meet >= 0) {
+                long reconstructionStart = System.nanoTime();
+                result.nodes = unpackPath(forward, backward, start, meet);
+                result.path = graph.getNodes(result.nodes);
+                result.reconstructionTime = (System.nanoTime() - reconstructionStart) / 1_000_000.0;
+            }
+            return result;
+        }
+    }
+
+    private static void relax(SearchContext side, int v, double distance, int viaEdge) {
+        if (distance < side.getDistance(v)) {
+            side.reach(v, distance, viaEdge);
+            side.heap().insertOrDecrease(v, distance);
+        }
+    }
+
+    private int[] unpackPath(SearchContext forward, SearchContext backward, int start, int meet) {
+        // meet -> start чиглэлд цуглуулсан ирмэгүүдийг эргүүлж, дараа нь meet -> end
+        List<Integer> edges = new ArrayList<>();
+        int v = meet;
+        while (v != start) {
+            int e = forward.getParent(v);
+            edges.add(e);
+            v = edgeFrom[e];
+        }
+        Collections.reverse(edges);
+        v = meet;
+        int e;
+        while ((e = backward.getParent(v)) != NO_EDGE) {
+            edges.add(e);
+            v = edgeTo[e];
+        }
+
+        int[] path = new int[edges.size() + 1];
+        int length = 0;
+        path[length++] = start;
+        int[] stack = new int[16];
+        for (int edge : edges) {
+            int size = 0;
+            stack[size++] = edge;
+            while (size > 0) {
+                int current = stack[--size];
+                if (edgeChild1[current] == NO_EDGE) {
+                    if (length == path.length) {
+                        path = Arrays.copyOf(path, length * 2);
+                    }
+                    path[length++] = edgeTo[current];
+                } else {
+                    if (size + 2 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[size++] = edgeChild2[current];
+                    stack[size++] = edgeChild1[current];
+                }
+            }
+        }
+        return Arrays.copyOf(path, length);
+    }
+
+    public double calculatePathDistance(List<Node> path) {
+        return sumPathCost(path, Metric.DISTANCE);
+    }
+
+    public double calculatePathTime(List<Node> path) {
+        return sumPathCost(path, Metric.TIME);
+    }
+
+    // Зэрэгцээ нумуудаас энэ шатлалын metric-ээр хамгийн хямдыг нь тооцно
+    private double sumPathCost(List<Node> path, Metric total) {
+        return path == null ? 0.0 : sumPathCost(path.stream().mapToInt(node -> (int) node.getId()).toArray(), total);
+    }
+
+    private double sumPathCost(int[] nodes, Metric total) {
+        if (nodes == null || nodes.length < 2) return 0.0;
+
+        CsrGraph csr = graph.getCsr();
+        double sum = 0.0;
+        for (int i = 0; i < nodes.length - 1; i++) {
+            int edge = csr.findEdge(nodes[i], nodes[i + 1], metric);
+            if (edge >= 0) {
+                sum += csr.getCost(edge, total);
+            }
+        }
+
+        return sum;
+    }
+
+    public PathResult findPathWithStats(long startId, long endId) {
+        long startTime = System.nanoTime();
+
+        PathResult result = search(startId, endId);
+
+        long endTime = System.nanoTime();
+        result.executionTime = (endTime - startTime) / 1_000_000.0;
+        result.algorithmName = "CH";
+        result.metric = metric;
+
+        if (result.nodes != null) {
+            result.pathLength = result.nodes.length;
+            result.totalDistance = sumPathCost(result.nodes, Metric.DISTANCE);
+            result.totalTime = sumPathCost(result.nodes, Metric.TIME);
+        }
+
+        return result;
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    public int getShortcutCount() {
+        return shortcutCount;
+    }
+
+    public double getPreprocessingTime() {
+        return preprocessingTime;
+    }
+
+    public int getRank(int node) {
+        return rank[node];
+    }
+
+    public static class PathResult {
+        public List<Node> path;   // nodes дээрх view
+        public int[] nodes;
+        public double executionTime;
+        public int pathLength;
+        public double totalDistance;
+        public double totalTime; // минут
+        public Metric metric;
+        public int settledNodes;
+        public long relaxedEdges;
+        public int maxQueueSize;       // хоёр дарааллын томынх нь хамгийн их хэмжээ
+        public double reconstructionTime; // мс, shortcut задлалт, executionTime-д багтана
+        public String algorithmName;
+
+        public void printResult() {
+            System.out.println("\n=== " + algorithmName + " үр дүн ===");
+            if (path == null) {
+                System.out.println("Зам олдсонгүй!");
+            } else {
+                System.out.println("Цэгүүдийн тоо: " + pathLength);
+                System.out.println("Нийт зай: " + String.format("%.2f", totalDistance) + " км");
+                System.out.println("Нийт хугацаа: " + String.format("%.1f", totalTime) + " мин");
+                System.out.println("Шийдсэн цэг: " + settledNodes);
+                System.out.println("Гүйцэтгэх хугацаа: " + String.format("%.3f", executionTime) + " мс");
+            }
+        }
+    }
+
+    // Хуучирсан бичлэгийг poll хийсний дараа шалгаж алгасдаг энгийн binary heap
+    private static class MinHeap {
+        private double[] keys = new double[64];
+        private int[] values = new int[64];
+        private int size = 0;
+
+        void clear() {
+            size = 0;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double peekKey() {
+            return size == 0 ? Double.MAX_VALUE : keys[0];
+        }
+
+        void add(double key, int value) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) break;
+                keys[i] = keys[parent];
+                values[i] = values[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        int poll() {
+            int result = values[0];
+            size--;
+            if (size > 0) {
+                double key = keys[size];
+                int value = values[size];
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) break;
+                    if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+                    if (keys[child] >= key) break;
+                    keys[i] = keys[child];
+                    values[i] = values[child];
+                    i = child;
+                }
+                keys[i] = key;
+                values[i] = value;
+            }
+            return result;
+        }
+    }
+
+    private static class IntList {
+        int[] items = new int[4];
+        int size = 0;
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == value) {
+                    items[i] = items[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    // Агшаах үед нэмэгдэх shortcut-ууд: (u -> w) = (u -> v) + (v -> w)
+    private static class Shortcuts {
+        int[] inEdges = new int[8];
+        int[] outEdges = new int[8];
+        double[] weights = new double[8];
+        int size = 0;
+
+        void add(int inEdge, int outEdge, double weight) {
+            if (size == inEdges.length) {
+                inEdges = Arrays.copyOf(inEdges, size * 2);
+                outEdges = Arrays.copyOf(outEdges, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            inEdges[size] = inEdge;
+            outEdges[size] = outEdge;
+            weights[size] = weight;
+            size++;
+        }
+    }
+
+    private static class Preprocessor {
+        final int n;
+        final IntList[] out;
+        final IntList[] in;
+        final IntList[] finalUp;
+        final IntList[] finalDown;
+        final boolean[] contracted;
+        final boolean[] inBatch;
+        final int[] rank;
+        final int[] priority;
+        final int[] deletedNeighbors;
+        final int[] level;
+        final boolean[] dirty;
+        final ThreadLocal<WitnessSearch> witness;
+
+        int[] edgeFrom = new int[16];
+        int[] edgeTo = new int[16];
+        double[] edgeWeight = new double[16];
+        int[] edgeChild1 = new int[16];
+        int[] edgeChild2 = new int[16];
+        int edgeCount = 0;
+        int shortcutCount = 0;
+
+        Preprocessor(CsrGraph csr, Metric metric) {
+            this.n = csr.getNodeCount();
+            this.out = new IntList[n];
+            this.in = new IntList[n];
+            this.finalUp = new IntList[n];
+            this.finalDown = new IntList[n];
+            for (int v = 0; v < n; v++) {
+                out[v] = new IntList();
+                in[v] = new IntList();
+                finalUp[v] = new IntList();
+                finalDown[v] = new IntList();
+            }
+            this.contracted = new boolean[n];
+            this.inBatch = new boolean[n];
+            this.rank = new int[n];
+            this.priority = new int[n];
+            this.deletedNeighbors = new int[n];
+            this.level = new int[n];
+            this.dirty = new boolean[n];
+            this.witness = ThreadLocal.withInitial(() -> new WitnessSearch(n));
+
+            // Зэрэгцээ нумуудаас хамгийн хямдыг нь үлдээнэ, гогцоог хасна. Шатлал нь замын
+            // хөдөлгөөнгүй суурь жингээр байгуулагдана.
+            double[] weights = csr.baseWeights(metric);
+            for (int u = 0; u < n; u++) {
+                for (int e = csr.firstEdge(u); e < csr.endEdge(u); e++) {
+                    int v = csr.getTarget(e);
+                    if (v == u) continue;
+                    int existing = findOut(u, v);
+                    if (existing == NO_EDGE) {
+                        addEdge(u, v, weights[e], NO_EDGE, NO_EDGE);
+                    } else if (weights[e] < edgeWeight[existing]) {
+                        edgeWeight[existing] = weights[e];
+                    }
+                }
+            }
+        }
+
+        int findOut(int u, int v) {
+            IntList list = out[u];
+            for (int i = 0; i < list.size; i++) {
+                if (edgeTo[list.items[i]] == v) {
+                    return list.items[i];
+                }
+            }
+            return NO_EDGE;
+        }
+
+        int addEdge(int from, int to, double weight, int child1, int child2) {
+            if (edgeCount == edgeFrom.length) {
+                int capacity = edgeCount * 2;
+                edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+                edgeTo = Arrays.copyOf(edgeTo, capacity);
+                edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+                edgeChild1 = Arrays.copyOf(edgeChild1, capacity);
+                edgeChild2 = Arrays.copyOf(edgeChild2, capacity);
+            }
+            int e = edgeCount++;
+            edgeFrom[e] = from;
+            edgeTo[e] = to;
+            edgeWeight[e] = weight;
+            edgeChild1[e] = child1;
+            edgeChild2[e] = child2;
+            out[from].add(e);
+            in[to].add(e);
+            return e;
+        }
+
+        void run(ForkJoinPool pool) {
+            Arrays.fill(dirty, true);
+            int[] remaining = IntStream.range(0, n).toArray();
+            int remainingCount = n;
+            int nextRank = 0;
+
+            while (remainingCount > 0) {
+                int[] current = Arrays.copyOf(remaining, remainingCount);
+
+                // 1. Өөрчлөгдсөн цэгүүдийн ач холбогдлыг зэрэгцээ тооцох
+                parallel(pool, () -> Arrays.stream(current).parallel()
+                        .filter(v -> dirty[v])
+                        .forEach(v -> {
+                            priority[v] = computePriority(v);
+                            dirty[v] = false;
+                        }));
+
+                // 2. Хөршүүдээсээ бага ач холбогдолтой цэгүүд - хамтдаа агшааж болох бие даасан олонлог
+                int[] batch = Arrays.stream(current).filter(this::isLocalMinimum).toArray();
+                for (int v : batch) {
+                    inBatch[v] = true;
+                }
+
+                // 3. Shortcut-уудыг зэрэгцээ тооцох
+                Shortcuts[] shortcuts = new Shortcuts[batch.length];
+                parallel(pool, () -> IntStream.range(0, batch.length).parallel()
+                        .forEach(i -> shortcuts[i] = findShortcuts(batch[i], null)));
+
+                // 4. Үр дүнг тогтмол дарааллаар хэрэглэх
+                for (int i = 0; i < batch.length; i++) {
+                    contract(batch[i], shortcuts[i]);
+                    rank[batch[i]] = nextRank++;
+                }
+                for (int v : batch) {
+                    inBatch[v] = false;
+                }
+
+                int kept = 0;
+                for (int i = 0; i < remainingCount; i++) {
+                    if (!contracted[remaining[i]]) {
+                        remaining[kept++] = remaining[i];
+                    }
+                }
+                remainingCount = kept;
+            }
+        }
+
+        private static void parallel(ForkJoinPool pool, Runnable task) {
+            try {
+                pool.submit(task).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("CH бэлтгэл тасалдлаа", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("CH бэлтгэлд алдаа гарлаа", e.getCause());
+            }
+        }
+
+        boolean isLocalMinimum(int v) {
+            IntList outs = out[v];
+            for (int i = 0; i < outs.size; i++) {
+                if (!precedes(v, edgeTo[outs.items[i]])) return false;
+            }
+            IntList ins = in[v];
+            for (int i = 0; i < ins.size; i++) {
+                if (!precedes(v, edgeFrom[ins.items[i]])) return false;
+            }
+            return true;
+        }
+
+        boolean precedes(int v, int u) {
+            return priority[v] < priority[u] || (priority[v] == priority[u] && v < u);
+        }
+
+        int computePriority(int v) {
+            int[] count = new int[1];
+            findShortcuts(v, count);
+            int edgeDifference = count[0] - out[v].size - in[v].size;
+            return edgeDifference + deletedNeighbors[v] + level[v];
+        }
+
+        // countOnly != null бол зөвхөн тоолно (ач холбогдлын симуляц)
+        Shortcuts findShortcuts(int v, int[] countOnly) {
+            Shortcuts result = countOnly == null ? new Shortcuts() : null;
+            IntList ins = in[v];
+            IntList outs = out[v];
+            if (ins.size == 0 || outs.size == 0) {
+                return result;
+            }
+
+            double maxOut = 0;
+            for (int j = 0; j < outs.size; j++) {
+                maxOut = Math.max(maxOut, edgeWeight[outs.items[j]]);
+            }
+
+            WitnessSearch search = witness.get();
+            int settleLimit = countOnly != null ? SIMULATION_SETTLE_LIMIT : CONTRACTION_SETTLE_LIMIT;
+            for (int i = 0; i < ins.size; i++) {
+                int inEdge = ins.items[i];
+                int u = edgeFrom[inEdge];
+                search.run(this, u, v, outs, edgeWeight[inEdge] + maxOut, settleLimit);
+
+                for (int j = 0; j < outs.size; j++) {
+                    int outEdge = outs.items[j];
+                    int w = edgeTo[outEdge];
+                    if (w == u) continue;
+                    double via = edgeWeight[inEdge] + edgeWeight[outEdge];
+                    // Тэнцүү урттай witness нь мөн агшиж буй цэгээр дамжвал хоёулаа
+                    // нэг нэгэндээ найдаж зам алдагдах тул shortcut нэмнэ
+                    double witnessDistance = search.distance(w);
+                    if (witnessDistance > via || (witnessDistance == via && !search.batchFree(w))) {
+                        if (countOnly != null) {
+                            countOnly[0]++;
+                        } else {
+                            result.add(inEdge, outEdge, via);
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        void contract(int v, Shortcuts shortcuts) {
+            IntList outs = out[v];
+            IntList ins = in[v];
+            for (int i = 0; i < outs.size; i++) {
+                int e = outs.items[i];
+                finalUp[v].add(e);
+                in[edgeTo[e]].remove(e);
+                touch(v, edgeTo[e]);
+            }
+            for (int i = 0; i < ins.size; i++) {
+                int e = ins.items[i];
+                finalDown[v].add(e);
+                out[edgeFrom[e]].remove(e);
+                touch(v, edgeFrom[e]);
+            }
+            out[v] = new IntList();
+            in[v] = new IntList();
+            contracted[v] = true;
+
+            for (int i = 0; i < shortcuts.size; i++) {
+                int u = edgeFrom[shortcuts.inEdges[i]];
+                int w = edgeTo[shortcuts.outEdges[i]];
+                double weight = shortcuts.weights[i];
+                int existing = findOut(u, w);
+                if (existing != NO_EDGE) {
+                    if (edgeWeight[existing] <= weight) continue;
+                    out[u].remove(existing);
+                    in[w].remove(existing);
+                }
+                addEdge(u, w, weight, shortcuts.inEdges[i], shortcuts.outEdges[i]);
+                shortcutCount++;
+            }
+        }
+
+        void touch(int contractedNode, int neighbor) {
+            deletedNeighbors[neighbor]++;
+            level[neighbor] = Math.max(level[neighbor], level[contractedNode] + 1);
+            dirty[neighbor] = true;
+        }
+    }
+
+    // Агшаах цэгийг тойрсан богино зам (witness) хайх хязгаарлагдмал Dijkstra.
+    // batchFree: тухайн зайд хүрэх хамгийн богино замуудын аль нэг нь агшиж буй бусад цэгийг тойрдог эсэх
+    private static class WitnessSearch {
+        final double[] distance;
+        final boolean[] batchFree;
+        final int[] stamp;
+        final int[] targetStamp;
+        final MinHeap heap = new MinHeap();
+        int generation = 0;
+
+        WitnessSearch(int n) {
+            this.distance = new double[n];
+            this.batchFree = new boolean[n];
+            this.stamp = new int[n];
+            this.targetStamp = new int[n];
+        }
+
+        double distance(int v) {
+            return stamp[v] == generation ? distance[v] : Double.MAX_VALUE;
+        }
+
+        boolean batchFree(int v) {
+            return stamp[v] == generation && batchFree[v];
+        }
+
+        void run(Preprocessor pre, int source, int avoid, IntList targetEdges, double limit, int settleLimit) {
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(stamp, 0);
+                Arrays.fill(targetStamp, 0);
+                generation = 1;
+            }
+            int targetsLeft = 0;
+            for (int i = 0; i < targetEdges.size; i++) {
+                int w = pre.edgeTo[targetEdges.items[i]];
+                if (w != source && targetStamp[w] != generation) {
+                    targetStamp[w] = generation;
+                    targetsLeft++;
+                }
+            }
+            heap.clear();
+            stamp[source] = generation;
+            distance[source] = 0.0;
+            batchFree[source] = true;
+            heap.add(0.0, source);
+
+            int settled = 0;
+            while (!heap.isEmpty() && settled < settleLimit && targetsLeft > 0) {
+                double d = heap.peekKey();
+                int x = heap.poll();
+                if (d > distance[x]) continue;
+                if (d > limit) break;
+                settled++;
+                if (targetStamp[x] == generation) {
+                    targetsLeft--;
+                }
+
+                IntList outs = pre.out[x];
+                for (int i = 0; i < outs.size; i++) {
+                    int e = outs.items[i];
+                    int y = pre.edgeTo[e];
+                    if (y == avoid) continue;
+                    double nd = d + pre.edgeWeight[e];
+                    if (nd > limit) continue;
+                    boolean free = batchFree[x] && !pre.inBatch[y];
+                    double current = distance(y);
+                    if (nd < current) {
+                        stamp[y] = generation;
+                        distance[y] = nd;
+                        batchFree[y] = free;
+                        heap.add(nd, y);
+                    } else if (nd == current && free) {
+                        batchFree[y] = true;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package com.example.algorithms;
 
-import com.example.graph.Edge;
+import com.example.graph.CsrGraph;
 import com.example.graph.Graph;
+import com.example.graph.Metric;
 import com.example.graph.Node;
 
 import java.util.*;
@@ -14,143 +15,151 @@ public class DFS {
     }
 
     public List<Node> findPath(long startId, long endId) {
-        Set<Long> visited = new HashSet<>();
-        List<Node> path = new ArrayList<>();
-
-        if (dfsHelper(startId, endId, visited, path)) {
-            return path;
-        }
-
-        return null;
+        return search(startId, endId, Metric.DISTANCE).path;
     }
 
-    private boolean dfsHelper(long currentId, long endId, Set<Long> visited, List<Node> path) {
-        visited.add(currentId);
-        path.add(graph.getNode(currentId));
-
-        // Зорилтот цэгт хүрсэн эсэхийг шалгах
-        if (currentId == endId) {
-            return true;
+    // Рекурсгүй DFS: stack[d] нь d гүн дэх цэгийн одоо шалгаж буй ирмэг. d гүн дэх цэг нь
+    // stack[d - 1] ирмэгийн төгсгөл тул цэгийг тусад нь хадгалах шаардлагагүй.
+    private PathResult search(long startId, long endId, Metric metric) {
+        PathResult result = new PathResult();
+        CsrGraph csr = graph.getCsr();
+        if (!csr.contains(startId) || !csr.contains(endId)) {
+            return result;
         }
 
-        // Хөршүүдийг шалгах
-        List<Edge> edges = graph.getEdges(currentId);
-        for (Edge edge : edges) {
-            long neighborId = edge.getTo().getId();
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        // Жинг ашиглахгүй ч хаалттай (Infinity) нумыг алгасахын тулд
+        double[] weights = csr.weights(metric);
+        int start = (int) startId;
+        int end = (int) endId;
+
+        try (SearchContext context = SearchContext.acquire(csr.getNodeCount())) {
+            int[] stack = context.queue();
+            context.reach(start, 0.0, -1);
+            result.settledNodes++;
+            if (start == end) {
+                result.nodes = new int[] {start};
+                result.path = graph.getNodes(result.nodes);
+                return result;
+            }
 
-            if (!visited.contains(neighborId)) {
-                if (dfsHelper(neighborId, endId, visited, path)) {
-                    return true;
+            int depth = 0;
+            stack[0] = offsets[start];
+            result.maxQueueSize = 1;
+            while (depth >= 0) {
+                int currentId = depth == 0 ? start : targets[stack[depth - 1]];
+                int e = stack[depth];
+
+                // Энэ замаар очих боломжгүй - буцах
+                if (e == offsets[currentId + 1]) {
+                    depth--;
+                    if (depth >= 0) {
+                        stack[depth]++;
+                    }
+                    continue;
                 }
-            }
-        }
 
-        // Энэ замаар очих боломжгүй - буцах
-        path.remove(path.size() - 1);
-        return false;
-    }
+                result.relaxedEdges++;
+                int neighborId = targets[e];
+                if (weights[e] == Double.POSITIVE_INFINITY || context.isReached(neighborId)) {
+                    stack[depth]++;
+                    continue;
+                }
+                context.reach(neighborId, 0.0, currentId);
+                result.settledNodes++;
+                SearchContext.checkInterrupted(result.settledNodes, "DFS");
+
+                // Зорилтот цэгт хүрсэн эсэхийг шалгах
+                if (neighborId == end) {
+                    long reconstructionStart = System.nanoTime();
+                    int[] path = new int[depth + 2];
+                    path[0] = start;
+                    for (int d = 0; d <= depth; d++) {
+                        path[d + 1] = targets[stack[d]];
+                    }
+                    result.nodes = path;
+                    result.path = graph.getNodes(path);
+                    result.reconstructionTime = (System.nanoTime() - reconstructionStart) / 1_000_000.0;
+                    return result;
+                }
 
-    public List<List<Node>> findAllPaths(long startId, long endId, int maxPaths) {
-        List<List<Node>> allPaths = new ArrayList<>();
-        Set<Long> visited = new HashSet<>();
-        List<Node> currentPath = new ArrayList<>();
+                depth++;
+                stack[depth] = offsets[neighborId];
+                result.maxQueueSize = Math.max(result.maxQueueSize, depth + 1);
+            }
 
-        findAllPathsHelper(startId, endId, visited, currentPath, allPaths, maxPaths);
+            return result;
+        }
+    }
 
-        return allPaths;
+    public double calculatePathDistance(List<Node> path) {
+        return calculatePathDistance(path, Metric.DISTANCE);
     }
 
-    private void findAllPathsHelper(long currentId, long endId, Set<Long> visited,
-                                    List<Node> currentPath, List<List<Node>> allPaths, int maxPaths) {
+    // Зэрэгцээ нумуудаас metric-ээр хамгийн хямдыг нь тооцно
+    public double calculatePathDistance(List<Node> path, Metric metric) {
+        return sumPathCost(path, metric, Metric.DISTANCE);
+    }
 
-        if (allPaths.size() >= maxPaths) {
-            return;
-        }
+    public double calculatePathTime(List<Node> path, Metric metric) {
+        return sumPathCost(path, metric, Metric.TIME);
+    }
 
-        visited.add(currentId);
-        currentPath.add(graph.getNode(currentId));
+    private double sumPathCost(List<Node> path, Metric metric, Metric total) {
+        return path == null ? 0.0 : sumPathCost(path.stream().mapToInt(node -> (int) node.getId()).toArray(), metric, total);
+    }
 
-        if (currentId == endId) {
-            allPaths.add(new ArrayList<>(currentPath));
-        } else {
-            // Хөршүүдийг шалгах
-            List<Edge> edges = graph.getEdges(currentId);
-            for (Edge edge : edges) {
-                long neighborId = edge.getTo().getId();
+    private double sumPathCost(int[] nodes, Metric metric, Metric total) {
+        if (nodes == null || nodes.length < 2) return 0.0;
 
-                if (!visited.contains(neighborId)) {
-                    findAllPathsHelper(neighborId, endId, visited, currentPath, allPaths, maxPaths);
-                }
+        CsrGraph csr = graph.getCsr();
+        double sum = 0.0;
+        for (int i = 0; i < nodes.length - 1; i++) {
+            int edge = csr.findEdge(nodes[i], nodes[i + 1], metric);
+            if (edge >= 0) {
+                sum += csr.getCost(edge, total);
             }
         }
 
-        // Backtrack
-        currentPath.remove(currentPath.size() - 1);
-        visited.remove(currentId);
+        return sum;
     }
 
-    public double calculatePathDistance(List<Node> path) {
-        if (path == null || path.size() < 2) return 0.0;
-
-        double totalDistance = 0.0;
-        for (int i = 0; i < path.size() - 1; i++) {
-            Node current = path.get(i);
-            Node next = path.get(i + 1);
-
-            List<Edge> edges = graph.getEdges(current.getId());
-            for (Edge edge : edges) {
-                if (edge.getTo().getId() == next.getId()) {
-                    totalDistance += edge.getWeight();
-                    break;
-                }
-            }
-        }
-
-        return totalDistance;
+    public PathResult findPathWithStats(long startId, long endId) {
+        return findPathWithStats(startId, endId, Metric.DISTANCE);
     }
 
-    public PathResult findPathWithStats(long startId, long endId) {
+    public PathResult findPathWithStats(long startId, long endId, Metric metric) {
         long startTime = System.nanoTime();
 
-        List<Node> path = findPath(startId, endId);
+        PathResult result = search(startId, endId, metric);
 
         long endTime = System.nanoTime();
-        double executionTime = (endTime - startTime) / 1_000_000.0;
-
-        PathResult result = new PathResult();
-        result.path = path;
-        result.executionTime = executionTime;
+        result.executionTime = (endTime - startTime) / 1_000_000.0;
         result.algorithmName = "DFS";
+        result.metric = metric;
 
-        if (path != null) {
-            result.pathLength = path.size();
-            result.totalDistance = calculatePathDistance(path);
+        if (result.nodes != null) {
+            result.pathLength = result.nodes.length;
+            result.totalDistance = sumPathCost(result.nodes, metric, Metric.DISTANCE);
+            result.totalTime = sumPathCost(result.nodes, metric, Metric.TIME);
         }
 
         return result;
     }
 
-    public AllPathsResult findAllPathsWithStats(long startId, long endId, int maxPaths) {
-        long startTime = System.nanoTime();
-
-        List<List<Node>> allPaths = findAllPaths(startId, endId, maxPaths);
-
-        long endTime = System.nanoTime();
-        double executionTime = (endTime - startTime) / 1_000_000.0;
-
-        AllPathsResult result = new AllPathsResult();
-        result.allPaths = allPaths;
-        result.executionTime = executionTime;
-        result.algorithmName = "DFS (All Paths)";
-
-        return result;
-    }
-
     public static class PathResult {
-        public List<Node> path;
+        public List<Node> path;   // nodes дээрх view
+        public int[] nodes;
         public double executionTime;
         public int pathLength;
         public double totalDistance;
+        public double totalTime; // минут
+        public Metric metric;
+        public int settledNodes; // зочилсон цэг
+        public long relaxedEdges; // шалгасан ирмэг
+        public int maxQueueSize; // stack-ийн хамгийн их гүн
+        public double reconstructionTime; // мс, executionTime-д багтана
         public String algorithmName;
 
         public void printResult() {
@@ -160,28 +169,9 @@ public class DFS {
             } else {
                 System.out.println("Цэгүүдийн тоо: " + pathLength);
                 System.out.println("Нийт зай: " + String.format("%.2f", totalDistance) + " км");
+                System.out.println("Нийт хугацаа: " + String.format("%.1f", totalTime) + " мин");
                 System.out.println("Гүйцэтгэх хугацаа: " + String.format("%.2f", executionTime) + " мс");
             }
         }
     }
-
-    public static class AllPathsResult {
-        public List<List<Node>> allPaths;
-        public double executionTime;
-        public String algorithmName;
-
-        public void printResult() {
-            System.out.println("\n=== " + algorithmName + " үр дүн ===");
-            System.out.println("Олсон замуудын тоо: " + allPaths.size());
-            System.out.println("Гүйцэтгэх хугацаа: " + String.format("%.2f", executionTime) + " мс");
-
-            if (!allPaths.isEmpty()) {
-                System.out.println("\nЭхний 3 зам:");
-                for (int i = 0; i < Math.min(3, allPaths.size()); i++) {
-                    List<Node> path = allPaths.get(i);
-                    System.out.println("  Зам " + (i + 1) + ": " + path.size() + " цэг");
-                }
-            }
-        }
-    }
-}
\ No newline at end of file
+}
@@ -1,7 +1,8 @@
 package com.example.algorithms;
 
-import com.example.graph.Edge;
+import com.example.graph.CsrGraph;
 import com.example.graph.Graph;
+import com.example.graph.Metric;
 import com.example.graph.Node;
 
 import java.util.*;
@@ -14,126 +15,195 @@ public class Dijkstra {
     }
 
     public List<Node> findPath(long startId, long endId) {
-        Map<Long, Double> distances = new HashMap<>();
-        Map<Long, Long> previous = new HashMap<>();
-        Set<Long> visited = new HashSet<>();
-        PriorityQueue<NodeDistance> pq = new PriorityQueue<>(
-                Comparator.comparingDouble(nd -> nd.distance)
-        );
-        distances.put(startId, 0.0);
-        pq.offer(new NodeDistance(startId, 0.0));
-
-        while (!pq.isEmpty()) {
-            NodeDistance current = pq.poll();
-            long currentId = current.nodeId;
-            if (visited.contains(currentId)) {
-                continue;
-            }
-
-            visited.add(currentId);
+        return findPath(startId, endId, Metric.DISTANCE);
+    }
 
-            if (currentId == endId) {
-                return reconstructPath(previous, startId, endId);
-            }
+    public List<Node> findPath(long startId, long endId, Metric metric) {
+        return search(startId, endId, metric).path;
+    }
 
-            List<Edge> edges = graph.getEdges(currentId);
-            for (Edge edge : edges) {
-                long neighborId = edge.getTo().getId();
+    private PathResult search(long startId, long endId, Metric metric) {
+        PathResult result = new PathResult();
+        CsrGraph csr = graph.getCsr();
+        if (!csr.contains(startId) || !csr.contains(endId)) {
+            return result;
+        }
 
-                if (visited.contains(neighborId)) {
-                    continue;
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        double[] weights = csr.weights(metric);
+        int start = (int) startId;
+        int end = (int) endId;
+
+        try (SearchContext context = SearchContext.acquire(csr.getNodeCount())) {
+            IndexedHeap heap = context.heap();
+            context.reach(start, 0.0, -1);
+            heap.insertOrDecrease(start, 0.0);
+
+            while (!heap.isEmpty()) {
+                int currentId = heap.poll();
+                context.settle(currentId);
+                result.settledNodes++;
+                SearchContext.checkInterrupted(result.settledNodes, "Dijkstra");
+
+                if (currentId == end) {
+                    result.maxQueueSize = heap.peakSize();
+                    long reconstructionStart = System.nanoTime();
+                    result.nodes = context.pathTo(start, end);
+                    result.path = graph.getNodes(result.nodes);
+                    result.reconstructionTime = (System.nanoTime() - reconstructionStart) / 1_000_000.0;
+                    return result;
                 }
 
-                double newDistance = distances.getOrDefault(currentId, Double.MAX_VALUE)
-                        + edge.getWeight();
+                double currentDistance = context.getDistance(currentId);
+                for (int e = offsets[currentId]; e < offsets[currentId + 1]; e++) {
+                    int neighborId = targets[e];
+
+                    if (context.isSettled(neighborId)) {
+                        continue;
+                    }
+                    result.relaxedEdges++;
+
+                    double newDistance = currentDistance + weights[e];
 
-                if (newDistance < distances.getOrDefault(neighborId, Double.MAX_VALUE)) {
-                    distances.put(neighborId, newDistance);
-                    previous.put(neighborId, currentId);
-                    pq.offer(new NodeDistance(neighborId, newDistance));
+                    if (newDistance < context.getDistance(neighborId)) {
+                        context.reach(neighborId, newDistance, currentId);
+                        heap.insertOrDecrease(neighborId, newDistance);
+                    }
                 }
             }
-        }
-
 
-        return null;
+            result.maxQueueSize = heap.peakSize();
+            return result;
+        }
     }
 
-    private List<Node> reconstructPath(Map<Long, Long> previous, long startId, long endId) {
-        List<Node> path = new ArrayList<>();
-        long current = endId;
+    // Нэг эхлэлээс олон төгсгөл хүртэлх өртөг; бүх төгсгөл шийдэгдмэгц зогсоно.
+    // Хүрэх боломжгүй төгсгөлд Double.POSITIVE_INFINITY.
+    public double[] findDistances(long startId, long[] targetIds, Metric metric) {
+        double[] result = new double[targetIds.length];
+        Arrays.fill(result, Double.POSITIVE_INFINITY);
+        CsrGraph csr = graph.getCsr();
+        if (!csr.contains(startId)) {
+            return result;
+        }
 
-        while (current != startId) {
-            path.add(graph.getNode(current));
+        int[] pending = Arrays.stream(targetIds)
+                .filter(csr::contains)
+                .mapToInt(id -> (int) id)
+                .sorted()
+                .distinct()
+                .toArray();
+        int remaining = pending.length;
+
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        double[] weights = csr.weights(metric);
+        int start = (int) startId;
+
+        try (SearchContext context = SearchContext.acquire(csr.getNodeCount())) {
+            IndexedHeap heap = context.heap();
+            context.reach(start, 0.0, -1);
+            heap.insertOrDecrease(start, 0.0);
+
+            while (remaining > 0 && !heap.isEmpty()) {
+                int currentId = heap.poll();
+                context.settle(currentId);
+                if (Arrays.binarySearch(pending, currentId) >= 0) {
+                    remaining--;
+                }
 
-            if (!previous.containsKey(current)) {
-                return null;
+                double currentDistance = context.getDistance(currentId);
+                for (int e = offsets[currentId]; e < offsets[currentId + 1]; e++) {
+                    int neighborId = targets[e];
+                    if (context.isSettled(neighborId)) {
+                        continue;
+                    }
+
+                    double newDistance = currentDistance + weights[e];
+                    if (newDistance < context.getDistance(neighborId)) {
+                        context.reach(neighborId, newDistance, currentId);
+                        heap.insertOrDecrease(neighborId, newDistance);
+                    }
+                }
             }
 
-            current = previous.get(current);
+            for (int i = 0; i < targetIds.length; i++) {
+                if (csr.contains(targetIds[i]) && context.isSettled((int) targetIds[i])) {
+                    result[i] = context.getDistance((int) targetIds[i]);
+                }
+            }
+            return result;
         }
-        path.add(graph.getNode(startId));
-
-        Collections.reverse(path);
-        return path;
     }
 
     public double calculatePathDistance(List<Node> path) {
-        if (path == null || path.size() < 2) return 0.0;
-
-        double totalDistance = 0.0;
-        for (int i = 0; i < path.size() - 1; i++) {
-            Node current = path.get(i);
-            Node next = path.get(i + 1);
-
-            List<Edge> edges = graph.getEdges(current.getId());
-            for (Edge edge : edges) {
-                if (edge.getTo().getId() == next.getId()) {
-                    totalDistance += edge.getWeight();
-                    break;
-                }
+        return calculatePathDistance(path, Metric.DISTANCE);
+    }
+
+    // Зэрэгцээ нумуудаас metric-ээр хамгийн хямдыг нь тооцно
+    public double calculatePathDistance(List<Node> path, Metric metric) {
+        return sumPathCost(path, metric, Metric.DISTANCE);
+    }
+
+    public double calculatePathTime(List<Node> path, Metric metric) {
+        return sumPathCost(path, metric, Metric.TIME);
+    }
+
+    private double sumPathCost(List<Node> path, Metric metric, Metric total) {
+        return path == null ? 0.0 : sumPathCost(path.stream().mapToInt(node -> (int) node.getId()).toArray(), metric, total);
+    }
+
+    private double sumPathCost(int[] nodes, Metric metric, Metric total) {
+        if (nodes == null || nodes.length < 2) return 0.0;
+
+        CsrGraph csr = graph.getCsr();
+        double sum = 0.0;
+        for (int i = 0; i < nodes.length - 1; i++) {
+            int edge = csr.findEdge(nodes[i], nodes[i + 1], metric);
+            if (edge >= 0) {
+                sum += csr.getCost(edge, total);
             }
         }
 
-        return totalDistance;
+        return sum;
     }
 
     public PathResult findPathWithStats(long startId, long endId) {
+        return findPathWithStats(startId, endId, Metric.DISTANCE);
+    }
+
+    public PathResult findPathWithStats(long startId, long endId, Metric metric) {
         long startTime = System.nanoTime();
 
-        List<Node> path = findPath(startId, endId);
+        PathResult result = search(startId, endId, metric);
 
         long endTime = System.nanoTime();
-        double executionTime = (endTime - startTime) / 1_000_000.0;
-
-        PathResult result = new PathResult();
-        result.path = path;
-        result.executionTime = executionTime;
+        result.executionTime = (endTime - startTime) / 1_000_000.0;
         result.algorithmName = "Dijkstra";
+        result.metric = metric;
 
-        if (path != null) {
-            result.pathLength = path.size();
-            result.totalDistance = calculatePathDistance(path);
+        if (result.nodes != null) {
+            result.pathLength = result.nodes.length;
+            result.totalDistance = sumPathCost(result.nodes, metric, Metric.DISTANCE);
+            result.totalTime = sumPathCost(result.nodes, metric, Metric.TIME);
         }
 
         return result;
     }
 
-    private static class NodeDistance {
-        long nodeId;
-        double distance;
-
-        NodeDistance(long nodeId, double distance) {
-            this.nodeId = nodeId;
-            this.distance = distance;
-        }
-    }
-
     public static class PathResult {
-        public List<Node> path;
+        public List<Node> path;   // nodes дээрх view
+        public int[] nodes;
         public double executionTime;
         public int pathLength;
         public double totalDistance;
+        public double totalTime; // минут
+        public Metric metric;
+        public int settledNodes;
+        public long relaxedEdges;
+        public int maxQueueSize;       // дарааллын хамгийн их хэмжээ
+        public double reconstructionTime; // мс, executionTime-д багтана
         public String algorithmName;
 
         public void printResult() {
@@ -143,6 +213,8 @@ public class Dijkstra {
             } else {
                 System.out.println("Цэгүүдийн тоо: " + pathLength);
                 System.out.println("Нийт зай: " + String.format("%.2f", totalDistance) + " км");
+                System.out.println("Нийт хугацаа: " + String.format("%.1f", totalTime) + " мин");
+                System.out.println("Шийдсэн цэг: " + settledNodes);
                 System.out.println("Гүйцэтгэх хугацаа: " + String.format("%.2f", executionTime) + " мс");
 
                 System.out.println("\nЗамын эхний 5 цэг:");
@@ -0,0 +1,146 @@
+package com.example.algorithms;
+
+import java.util.Arrays;
+
+// Цэгийн ID-гаар индекслэсэн 4-ary min-heap. Цэг бүр хамгийн ихдээ нэг удаа орох тул
+// decrease-key нь байрлалаа шууд шинэчилнэ; объект үүсгэхгүй.
+public final class IndexedHeap {
+    private static final int ARITY = 4;
+
+    private int[] nodes;
+    private double[] keys;
+    // positions[v] зөвхөн v heap-д байгаа үед хүчинтэй (contains-ээр шалгана)
+    private int[] positions;
+    private int size = 0;
+    // clear()-ээс хойших хамгийн их хэмжээ (дарааллын high-water mark)
+    private int peakSize = 0;
+
+    public IndexedHeap(int nodeCount) {
+        this.nodes = new int[Math.max(16, Math.min(nodeCount, 1024))];
+        this.keys = new double[nodes.length];
+        this.positions = new int[nodeCount];
+    }
+
+    public void clear() {
+        size = 0;
+        peakSize = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int peakSize() {
+        return peakSize;
+    }
+
+    public int capacity() {
+        return positions.length;
+    }
+
+    public boolean contains(int node) {
+        int position = positions[node];
+        return position < size && nodes[position] == node;
+    }
+
+    public double getKey(int node) {
+        return keys[positions[node]];
+    }
+
+    // Шинэ цэг оруулах, эсвэл байгаа цэгийн түлхүүрийг багасгах. Их түлхүүрийг үл тооно.
+    public void insertOrDecrease(int node, double key) {
+        if (contains(node)) {
+            int position = positions[node];
+            if (key < keys[position]) {
+                keys[position] = key;
+                siftUp(position);
+            }
+            return;
+        }
+
+        if (size == nodes.length) {
+            int capacity = Math.min(positions.length, nodes.length * 2);
+            nodes = Arrays.copyOf(nodes, Math.max(capacity, size + 1));
+            keys = Arrays.copyOf(keys, nodes.length);
+        }
+        nodes[size] = node;
+        keys[size] = key;
+        positions[node] = size;
+        siftUp(size++);
+        if (size > peakSize) {
+            peakSize = size;
+        }
+    }
+
+    public int peek() {
+        return nodes[0];
+    }
+
+    public double peekKey() {
+        return keys[0];
+    }
+
+    public int poll() {
+        int top = nodes[0];
+        size--;
+        if (size > 0) {
+            nodes[0] = nodes[size];
+            keys[0] = keys[size];
+            positions[nodes[0]] = 0;
+            siftDown(0);
+        }
+        // contains(top) худал болгохын тулд
+        positions[top] = Integer.MAX_VALUE;
+        return top;
+    }
+
+    private void siftUp(int position) {
+        int node = nodes[position];
+        double key = keys[position];
+        while (position > 0) {
+            int parent = (position - 1) / ARITY;
+            if (keys[parent] <= key) {
+                break;
+            }
+            nodes[position] = nodes[parent];
+            keys[position] = keys[parent];
+            positions[nodes[position]] = position;
+            position = parent;
+        }
+        nodes[position] = node;
+        keys[position] = key;
+        positions[node] = position;
+    }
+
+    private void siftDown(int position) {
+        int node = nodes[position];
+        double key = keys[position];
+        while (true) {
+            int first = position * ARITY + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + ARITY, size);
+            int best = first;
+            for (int child = first + 1; child < last; child++) {
+                if (keys[child] < keys[best]) {
+                    best = child;
+                }
+            }
+            if (keys[best] >= key) {
+                break;
+            }
+            nodes[position] = nodes[best];
+            keys[position] = keys[best];
+            positions[nodes[position]] = position;
+            position = best;
+        }
+        nodes[position] = node;
+        keys[position] = key;
+        positions[node] = position;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.algorithms;
+
+import com.example.graph.CsrGraph;
+import com.example.graph.Graph;
+import com.example.graph.Metric;
+
+import java.util.*;
+
+// Нэг эхлэлээс өртгийн төсвөөр хязгаарласан Dijkstra. Төсвөөс хэтэрсэн цэгийг дараалалд
+// оруулахгүй тул ажил нь зөвхөн хүрсэн талбайтай пропорциональ.
+public class Isochrone {
+    private final Graph graph;
+
+    public Isochrone(Graph graph) {
+        this.graph = graph;
+    }
+
+    public Result compute(long startId, double budget, Metric metric) {
+        long startTime = System.nanoTime();
+        Result result = new Result();
+        result.metric = metric;
+        result.budget = budget;
+
+        CsrGraph csr = graph.getCsr();
+        if (!csr.contains(startId) || !(budget >= 0)) {
+            result.nodes = new int[0];
+            result.costs = new double[0];
+            return result;
+        }
+
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        double[] weights = csr.weights(metric);
+        int start = (int) startId;
+
+        try (SearchContext context = SearchContext.acquire(csr.getNodeCount())) {
+            IndexedHeap heap = context.heap();
+            context.reach(start, 0.0, -1);
+            heap.insertOrDecrease(start, 0.0);
+
+            int[] nodes = new int[64];
+            double[] costs = new double[64];
+            int count = 0;
+
+            while (!heap.isEmpty()) {
+                int currentId = heap.poll();
+                context.settle(currentId);
+                double currentDistance = context.getDistance(currentId);
+
+                if (count == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, count * 2);
+                    costs = Arrays.copyOf(costs, count * 2);
+                }
+                nodes[count] = currentId;
+                costs[count] = currentDistance;
+                count++;
+
+                for (int e = offsets[currentId]; e < offsets[currentId + 1]; e++) {
+                    int neighborId = targets[e];
+                    if (context.isSettled(neighborId)) {
+                        continue;
+                    }
+
+                    double newDistance = currentDistance + weights[e];
+                    if (newDistance <= budget && newDistance < context.getDistance(neighborId)) {
+                        context.reach(neighborId, newDistance, currentId);
+                        heap.insertOrDecrease(neighborId, newDistance);
+                    }
+                }
+            }
+
+            result.nodes = Arrays.copyOf(nodes, count);
+            result.costs = Arrays.copyOf(costs, count);
+            result.executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+            return result;
+        }
+    }
+
+    // Хүрсэн цэгүүдийн гүдгэр бүрхүүл (Andrew monotone chain), [lat, lng] цагийн зүүний эсрэг
+    public List<double[]> convexHull(int[] nodes) {
+        CsrGraph csr = graph.getCsr();
+        Integer[] order = new Integer[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            order[i] = nodes[i];
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(csr::getLongitude)
+                .thenComparingDouble(csr::getLatitude));
+
+        int[] hull = new int[2 * order.length];
+        int k = 0;
+        for (int i = 0; i < order.length; i++) {
+            while (k >= 2 && cross(csr, hull[k - 2], hull[k - 1], order[i]) <= 0) k--;
+            hull[k++] = order[i];
+        }
+        for (int i = order.length - 2, lower = k + 1; i >= 0; i--) {
+            while (k >= lower && cross(csr, hull[k - 2], hull[k - 1], order[i]) <= 0) k--;
+            hull[k++] = order[i];
+        }
+
+        List<double[]> polygon = new ArrayList<>();
+        // Сүүлийн цэг нь эхнийхээ давталт; 3-аас цөөн цэгтэй бол бүгдийг буцаана
+        int size = order.length < 3 ? order.length : k - 1;
+        for (int i = 0; i < size; i++) {
+            int node = order.length < 3 ? order[i] : hull[i];
+            polygon.add(new double[]{csr.getLatitude(node), csr.getLongitude(node)});
+        }
+        return polygon;
+    }
+
+    private static double cross(CsrGraph csr, int o, int a, int b) {
+        double ox = csr.getLongitude(o), oy = csr.getLatitude(o);
+        return (csr.getLongitude(a) - ox) * (csr.getLatitude(b) - oy)
+                - (csr.getLatitude(a) - oy) * (csr.getLongitude(b) - ox);
+    }
+
+    public static class Result {
+        public int[] nodes;     // өртгийн өсөх дарааллаар
+        public double[] costs;  // км эсвэл минут
+        public Metric metric;
+        public double budget;
+        public double executionTime;
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.algorithms;
+
+import com.example.graph.CsrGraph;
+import com.example.graph.Graph;
+import com.example.graph.Metric;
+import com.example.graph.Node;
+
+import java.util.*;
+
+// Тулгуур цэгийн (ALT) эвристиктэй A*. Хүсэлт бүрт эхлэл дээр хамгийн өндөр доод хязгаар
+// өгөх хэдэн тулгуурыг л сонгож, цэг бүрийн эвристикийг тэдгээрээр тооцно.
+public class LandmarkAStar {
+    public static final int ACTIVE_LANDMARKS = 4;
+
+    private final Graph graph;
+    private final Landmarks landmarks;
+    private final Metric metric;
+
+    public LandmarkAStar(Graph graph, Landmarks landmarks) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.metric = landmarks.getMetric();
+    }
+
+    public List<Node> findPath(long startId, long endId) {
+        return search(startId, endId).path;
+    }
+
+    private PathResult search(long startId, long endId) {
+        PathResult result = new PathResult();
+        CsrGraph csr = graph.getCsr();
+        if (!csr.contains(startId) || !csr.contains(endId)) {
+            return result;
+        }
+
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        double[] weights = csr.weights(metric);
+        int start = (int) startId;
+        int end = (int) endId;
+
+        // Эхлэлээс төгсгөл хүртэлх доод хязгаараар эрэмбэлж шилдэг тулгууруудыг авна
+        int count = landmarks.getCount();
+        Integer[] order = new Integer[count];
+        double[] startBounds = new double[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+            startBounds[i] = landmarks.lowerBound(start, i, landmarks.forward(end, i), landmarks.backward(end, i));
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(startBounds[b], startBounds[a]));
+        int activeCount = Math.min(ACTIVE_LANDMARKS, count);
+        int[] active = new int[activeCount];
+        float[] landmarkToTarget = new float[activeCount];
+        float[] targetToLandmark = new float[activeCount];
+        for (int j = 0; j < activeCount; j++) {
+            active[j] = order[j];
+            landmarkToTarget[j] = landmarks.forward(end, active[j]);
+            targetToLandmark[j] = landmarks.backward(end, active[j]);
+        }
+
+        try (SearchContext context = SearchContext.acquire(csr.getNodeCount())) {
+            IndexedHeap heap = context.heap();
+            context.reach(start, 0.0, -1);
+            heap.insertOrDecrease(start, 0.0);
+
+            while (!heap.isEmpty()) {
+                int currentId = heap.poll();
+                context.settle(currentId);
+                result.settledNodes++;
+                SearchContext.checkInterrupted(result.settledNodes, "ALT");
+
+                if (currentId == end) {
+                    result.maxQueueSize = heap.peakSize();
+                    long reconstructionStart = System.nanoTime();
+                    result.nodes = context.pathTo(start, end);
+                    result.path = graph.getNodes(result.nodes);
+                    result.reconstructionTime = (System.nanoTime() - reconstructionStart) / 1_000_000.0;
+                    return result;
+                }
+
+                double currentDistance = context.getDistance(currentId);
+                for (int e = offsets[currentId]; e < offsets[currentId + 1]; e++) {
+                    int neighborId = targets[e];
+
+                    if (context.isSettled(neighborId)) {
+                        continue;
+                    }
+                    result.relaxedEdges++;
+
+                    double newDistance = currentDistance + weights[e];
+
+                    if (newDistance < context.getDistance(neighborId)) {
+                        double heuristic = context.getPotential(neighborId);
+                        if (Double.isNaN(heuristic)) {
+                            heuristic = 0.0;
+                            for (int j = 0; j < activeCount; j++) {
+                                heuristic = Math.max(heuristic, landmarks.lowerBound(neighborId, active[j],
+                                        landmarkToTarget[j], targetToLandmark[j]));
+                            }
+                            context.setPotential(neighborId, heuristic);
+                        }
+                        // Төгсгөлд хүрэхгүй нь тулгуураар батлагдсан цэг
+                        if (heuristic == Double.POSITIVE_INFINITY) {
+                            continue;
+                        }
+                        context.reach(neighborId, newDistance, currentId);
+                        heap.insertOrDecrease(neighborId, newDistance + heuristic);
+                    }
+                }
+            }
+
+            result.maxQueueSize = heap.peakSize();
+            return result;
+        }
+    }
+
+    public double calculatePathDistance(List<Node> path) {
+        return sumPathCost(path, Metric.DISTANCE);
+    }
+
+    public double calculatePathTime(List<Node> path) {
+        return sumPathCost(path, Metric.TIME);
+    }
+
+    // Зэрэгцээ нумуудаас тулгуурын metric-ээр хамгийн хямдыг нь тооцно
+    private double sumPathCost(List<Node> path, Metric total) {
+        return path == null ? 0.0 : sumPathCost(path.stream().mapToInt(node -> (int) node.getId()).toArray(), total);
+    }
+
+    private double sumPathCost(int[] nodes, Metric total) {
+        if (nodes == null || nodes.length < 2) return 0.0;
+
+        CsrGraph csr = graph.getCsr();
+        double sum = 0.0;
+        for (int i = 0; i < nodes.length - 1; i++) {
+            int edge = csr.findEdge(nodes[i], nodes[i + 1], metric);
+            if (edge >= 0) {
+                sum += csr.getCost(edge, total);
+            }
+        }
+
+        return sum;
+    }
+
+    public PathResult findPathWithStats(long startId, long endId) {
+        long startTime = System.nanoTime();
+
+        PathResult result = search(startId, endId);
+
+        long endTime = System.nanoTime();
+        result.executionTime = (endTime - startTime) / 1_000_000.0;
+        result.algorithmName = "ALT";
+        result.metric = metric;
+
+        if (result.nodes != null) {
+            result.pathLength = result.nodes.length;
+            result.totalDistance = sumPathCost(result.nodes, Metric.DISTANCE);
+            result.totalTime = sumPathCost(result.nodes, Metric.TIME);
+        }
+
+        return result;
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    public static class PathResult {
+        public List<Node> path;   // nodes дээрх view
+        public int[] nodes;
+        public double executionTime;
+        public int pathLength;
+        public double totalDistance;
+        public double totalTime; // минут
+        public Metric metric;
+        public int settledNodes;
+        public long relaxedEdges;
+        public int maxQueueSize;       // дарааллын хамгийн их хэмжээ
+        public double reconstructionTime; // мс, executionTime-д багтана
+        public String algorithmName;
+
+        public void printResult() {
+            System.out.println("\n=== " + algorithmName + " үр дүн ===");
+            if (path == null) {
+                System.out.println("Зам олдсонгүй!");
+            } else {
+                System.out.println("Цэгүүдийн тоо: " + pathLength);
+                System.out.println("Нийт зай: " + String.format("%.2f", totalDistance) + " км");
+                System.out.println("Нийт хугацаа: " + String.format("%.1f", totalTime) + " мин");
+                System.out.println("Шийдсэн цэг: " + settledNodes);
+                System.out.println("Гүйцэтгэх хугацаа: " + String.format("%.2f", executionTime) + " мс");
+            }
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.algorithms;
+
+import com.example.graph.CsrGraph;
+import com.example.graph.Graph;
+import com.example.graph.Metric;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32C;
+
+// ALT (A*, Landmarks, Triangle inequality)-ийн урьдчилсан тооцоо: хэдэн тулгуур цэгээс бүх
+// цэг хүртэлх (forward) ба бүх цэгээс тулгуур хүртэлх (backward) суурь жингийн зай.
+// Гурвалжны тэнцэл бишээр d(v, t) >= d(L, t) - d(L, v) ба d(v, t) >= d(v, L) - d(t, L).
+// Зайнууд float, цэг бүрийн k утга дараалан (v * k + i) байрлана: нэг цэгийн үнэлгээ нэг
+// cache line-аас уншигдана. Замын хөдөлгөөн зөвхөн зайг ихэсгэдэг тул доод хязгаар хүчинтэй үлдэнэ.
+public final class Landmarks {
+    public static final int DEFAULT_COUNT = 16;
+    private static final int MAGIC = 0x55424c4d; // "UBLM"
+    private static final int VERSION = 1;
+
+    private final Metric metric;
+    private final int nodeCount;
+    // Хүссэн тоо; жижиг графт сонгогдсон тулгуур цөөн байж болно
+    private final int requestedCount;
+    private final int[] landmarks;
+    private final float[] forward;
+    private final float[] backward;
+    // float-д шилжүүлэхэд гарах бөөрөнхийлөлтийн алдааг нөхөх хасалт
+    private final double slack;
+    private final long fingerprint;
+    private double preprocessingTime;
+
+    private Landmarks(Metric metric, int nodeCount, int requestedCount, int[] landmarks,
+                      float[] forward, float[] backward, long fingerprint) {
+        this.metric = metric;
+        this.nodeCount = nodeCount;
+        this.requestedCount = requestedCount;
+        this.landmarks = landmarks;
+        this.forward = forward;
+        this.backward = backward;
+        this.fingerprint = fingerprint;
+        float max = 0f;
+        for (float d : forward) {
+            if (d != Float.POSITIVE_INFINITY && d > max) max = d;
+        }
+        for (float d : backward) {
+            if (d != Float.POSITIVE_INFINITY && d > max) max = d;
+        }
+        this.slack = 2.0 * Math.ulp(max);
+    }
+
+    // Хамгийн алсыг сонгох (farthest): дараагийн тулгуур нь сонгогдсон тулгууруудаас замаар
+    // хамгийн хол, хүрэх боломжтой цэг. Forward модыг сонголтын явцад дараалан, backward
+    // модыг тулгуур бүрт зэрэгцээ тооцно.
+    public static Landmarks build(Graph graph, Metric metric, int count, int threads) {
+        long startTime = System.nanoTime();
+        CsrGraph csr = graph.getCsr();
+        int n = csr.getNodeCount();
+        double[] weights = csr.baseWeights(metric);
+        int k = Math.max(1, Math.min(count, csr.getPresentNodeCount()));
+
+        // Графын төвд хамгийн ойрын цэгээс эхэлбэл гол бүрэлдэхүүнд орох магадлал өндөр
+        double latSum = 0, lonSum = 0;
+        for (int v = 0; v < n; v++) {
+            if (csr.contains(v)) {
+                latSum += csr.getLatitude(v);
+                lonSum += csr.getLongitude(v);
+            }
+        }
+        int present = Math.max(1, csr.getPresentNodeCount());
+        int seed = graph.getSpatialIndex().nearest(latSum / present, lonSum / present);
+
+        int[] chosen = new int[k];
+        float[] forward = new float[n * k];
+        double[] minDistance = new double[n];
+        Arrays.fill(minDistance, Double.POSITIVE_INFINITY);
+
+        double[] tree = new double[n];
+        int selected = 0;
+        int next = -1;
+        if (seed >= 0) {
+            shortestTree(csr, weights, seed, false, tree);
+            next = farthest(tree, -1);
+        }
+        while (selected < k && next >= 0) {
+            chosen[selected] = next;
+            shortestTree(csr, weights, next, false, tree);
+            for (int v = 0; v < n; v++) {
+                forward[v * k + selected] = (float) tree[v];
+                minDistance[v] = Math.min(minDistance[v], tree[v]);
+            }
+            selected++;
+            next = farthest(minDistance, 0);
+        }
+        if (selected < k) {
+            // Хүрэх шинэ цэг үлдээгүй (жижиг граф)
+            forward = compact(forward, n, k, selected);
+            chosen = Arrays.copyOf(chosen, selected);
+        }
+
+        int landmarkCount = selected;
+        int[] landmarkIds = chosen;
+        float[] backward = new float[n * landmarkCount];
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            Future<?>[] futures = new Future<?>[landmarkCount];
+            for (int i = 0; i < landmarkCount; i++) {
+                int index = i;
+                futures[i] = executor.submit(() -> {
+                    double[] distances = new double[n];
+                    shortestTree(csr, weights, landmarkIds[index], true, distances);
+                    for (int v = 0; v < n; v++) {
+                        backward[v * landmarkCount + index] = (float) distances[v];
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("ALT бэлтгэл тасалдлаа", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("ALT бэлтгэлд алдаа: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        Landmarks result = new Landmarks(metric, n, count, landmarkIds, forward, backward, fingerprint(csr, metric));
+        result.preprocessingTime = (System.nanoTime() - startTime) / 1_000_000.0;
+        System.out.println("ALT (" + metric.key() + ") бэлтгэл дууслаа: " + landmarkCount + " тулгуур, " +
+                String.format("%.1f", result.preprocessingTime) + " мс");
+        return result;
+    }
+
+    // k0 баганатай хүснэгтийн эхний k баганыг үлдээнэ
+    private static float[] compact(float[] table, int n, int k0, int k) {
+        float[] result = new float[n * k];
+        for (int v = 0; v < n; v++) {
+            System.arraycopy(table, v * k0, result, v * k, k);
+        }
+        return result;
+    }
+
+    // minimum-аас их, төгсгөлөг хамгийн их утгатай цэг; байхгүй бол -1
+    private static int farthest(double[] distances, double minimum) {
+        int best = -1;
+        for (int v = 0; v < distances.length; v++) {
+            double d = distances[v];
+            if (d != Double.POSITIVE_INFINITY && d > minimum && (best < 0 || d > distances[best])) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    // reverse бол орж ирэх ирмэгээр (v-ээс source хүртэлх зай); хүрэхгүй цэгт +Inf
+    private static void shortestTree(CsrGraph csr, double[] weights, int source, boolean reverse, double[] out) {
+        int n = csr.getNodeCount();
+        int[] offsets = reverse ? csr.getInOffsets() : csr.getOffsets();
+        int[] neighbors = reverse ? csr.getInSources() : csr.getTargets();
+        int[] edges = reverse ? csr.getInEdges() : null;
+
+        try (SearchContext context = SearchContext.acquire(n)) {
+            IndexedHeap heap = context.heap();
+            context.reach(source, 0.0, -1);
+            heap.insertOrDecrease(source, 0.0);
+            while (!heap.isEmpty()) {
+                int currentId = heap.poll();
+                context.settle(currentId);
+                double currentDistance = context.getDistance(currentId);
+                for (int i = offsets[currentId]; i < offsets[currentId + 1]; i++) {
+                    int neighborId = neighbors[i];
+                    if (context.isSettled(neighborId)) {
+                        continue;
+                    }
+                    double newDistance = currentDistance + weights[reverse ? edges[i] : i];
+                    if (newDistance < context.getDistance(neighborId)) {
+                        context.reach(neighborId, newDistance, currentId);
+                        heap.insertOrDecrease(neighborId, newDistance);
+                    }
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                out[v] = context.isSettled(v) ? context.getDistance(v) : Double.POSITIVE_INFINITY;
+            }
+        }
+    }
+
+    // Графын бүтэц ба суурь жин өөрчлөгдвөл хадгалсан файл хүчингүй болно
+    private static long fingerprint(CsrGraph csr, Metric metric) {
+        long hash = csr.getNodeCount();
+        hash = hash * 31 + csr.getEdgeCount();
+        hash = hash * 31 + Arrays.hashCode(csr.getOffsets());
+        hash = hash * 31 + Arrays.hashCode(csr.getTargets());
+        hash = hash * 31 + Arrays.hashCode(csr.baseWeights(metric));
+        return hash;
+    }
+
+    // i-р тулгуурын хувьд v -> t зайн доод хязгаар; хүрэх боломжгүй бол +Inf
+    double lowerBound(int v, int i, float fromLandmarkToTarget, float fromTargetToLandmark) {
+        int index = v * landmarks.length + i;
+        double bound = 0.0;
+        float fromLandmark = forward[index];
+        if (fromLandmark != Float.POSITIVE_INFINITY) {
+            // L -> v хүрдэг ч L -> t хүрэхгүй бол v -> t ч хүрэхгүй
+            if (fromLandmarkToTarget == Float.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+            bound = (double) fromLandmarkToTarget - fromLandmark;
+        }
+        float toLandmark = backward[index];
+        if (fromTargetToLandmark != Float.POSITIVE_INFINITY) {
+            if (toLandmark == Float.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+            bound = Math.max(bound, (double) toLandmark - fromTargetToLandmark);
+        }
+        return Math.max(0.0, bound - slack);
+    }
+
+    float forward(int v, int i) {
+        return forward[v * landmarks.length + i];
+    }
+
+    float backward(int v, int i) {
+        return backward[v * landmarks.length + i];
+    }
+
+    public boolean matches(CsrGraph csr) {
+        return csr.getNodeCount() == nodeCount && fingerprint == fingerprint(csr, metric);
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    public int getCount() {
+        return landmarks.length;
+    }
+
+    public int getRequestedCount() {
+        return requestedCount;
+    }
+
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    public double getPreprocessingTime() {
+        return preprocessingTime;
+    }
+
+    // Snapshot-ийн хажууд: <snapshot>.<metric>.alt
+    public static Path pathFor(Path snapshotPath, Metric metric) {
+        return snapshotPath.resolveSibling(snapshotPath.getFileName() + "." + metric.key() + ".alt");
+    }
+
+    // Бүтэц (little-endian): magic, version, metric, nodeCount, fingerprint, requested, k, landmarks[k],
+    // forward[n*k], backward[n*k], CRC32C
+    public void write(Path target) throws IOException {
+        int k = landmarks.length;
+        long size = 4 + 4 + 4 + 4 + 8 + 4 + 4 + 4L * k + 8L * nodeCount * k + 8;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("ALT файл хэт том байна: " + size + " байт");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(metric.ordinal());
+        buffer.putInt(nodeCount);
+        buffer.putLong(fingerprint);
+        buffer.putInt(requestedCount);
+        buffer.putInt(k);
+        buffer.asIntBuffer().put(landmarks);
+        buffer.position(buffer.position() + 4 * k);
+        buffer.asFloatBuffer().put(forward);
+        buffer.position(buffer.position() + 4 * forward.length);
+        buffer.asFloatBuffer().put(backward);
+        buffer.position(buffer.position() + 4 * backward.length);
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+        buffer.flip();
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Файл байхгүй, өөр графынх эсвэл эвдэрсэн бол null
+    public static Landmarks read(Path file, CsrGraph csr, Metric metric) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        long size = Files.size(file);
+        if (size < 40 || size > Integer.MAX_VALUE) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, (int) size - 8);
+        if (crc.getValue() != buffer.getLong((int) size - 8)) {
+            System.err.println("ALT файлын checksum таарсангүй: " + file);
+            return null;
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != metric.ordinal()) {
+            return null;
+        }
+        int n = buffer.getInt();
+        long fingerprint = buffer.getLong();
+        int requested = buffer.getInt();
+        int k = buffer.getInt();
+        if (n != csr.getNodeCount() || fingerprint != fingerprint(csr, metric)
+                || k < 1 || size != 40 + 4L * k + 8L * n * k) {
+            return null;
+        }
+        int[] landmarks = new int[k];
+        buffer.asIntBuffer().get(landmarks);
+        buffer.position(buffer.position() + 4 * k);
+        float[] forward = new float[n * k];
+        buffer.asFloatBuffer().get(forward);
+        buffer.position(buffer.position() + 4 * forward.length);
+        float[] backward = new float[n * k];
+        buffer.asFloatBuffer().get(backward);
+        return new Landmarks(metric, n, requested, landmarks, forward, backward, fingerprint);
+    }
+}
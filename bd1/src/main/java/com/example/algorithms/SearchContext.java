@@ -0,0 +1,137 @@
+package com.example.algorithms;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+
+// Дахин ашиглагдах хайлтын төлөв: цэгийн ID-гаар индекслэсэн зай, эцэг, generation тэмдэг,
+// heap ба дараалал. reset() нь generation-ийг ахиулж O(1)-д цэвэрлэнэ.
+// acquire()-аар санаас авч, close()-оор (try-with-resources) буцаана. Нэг төлөв цэг тутамд ~40 байт.
+public final class SearchContext implements AutoCloseable {
+    // Сул төлөвүүдийг цөмийн тооны 2 дахин хүртэл хадгална (хоёр чиглэлт хайлт 2-ыг авна);
+    // илүүг нь хаяна. Ингэснээр санах ой thread-ийн тоогоор биш, зэрэг хайлтын тоогоор хязгаарлагдана.
+    private static final ArrayBlockingQueue<SearchContext> POOL =
+            new ArrayBlockingQueue<>(2 * Runtime.getRuntime().availableProcessors());
+
+    private final double[] distances;
+    private final int[] parents;
+    private final int[] reached;
+    private final int[] settled;
+    // Зөвхөн A*/ALT хэрэглэх тул анх setPotential дуудахад үүсгэнэ
+    private double[] potentials;
+    private int[] potentialStamps;
+    private final int[] queue;
+    private final IndexedHeap heap;
+    private int generation = 0;
+
+    private SearchContext(int nodeCount) {
+        this.distances = new double[nodeCount];
+        this.parents = new int[nodeCount];
+        this.reached = new int[nodeCount];
+        this.settled = new int[nodeCount];
+        this.queue = new int[nodeCount];
+        this.heap = new IndexedHeap(nodeCount);
+    }
+
+    // Сангаас цэвэр төлөв авна; сан хоосон эсвэл граф томорсон бол шинээр үүсгэнэ
+    public static SearchContext acquire(int nodeCount) {
+        SearchContext context = POOL.poll();
+        if (context == null || context.distances.length < nodeCount) {
+            context = new SearchContext(nodeCount);
+        }
+        context.reset();
+        return context;
+    }
+
+    // Сан дүүрсэн бол төлөвийг GC-д үлдээнэ
+    @Override
+    public void close() {
+        POOL.offer(this);
+    }
+
+    // Гаднаас (харьцуулалтын хугацаа хэтэрсэн) тасалсан эсэхийг 4096 цэг тутамд шалгана
+    static void checkInterrupted(int settledNodes, String algorithm) {
+        if ((settledNodes & 0xFFF) == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException(algorithm + " тасалдлаа");
+        }
+    }
+
+    public void reset() {
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(reached, 0);
+            Arrays.fill(settled, 0);
+            if (potentialStamps != null) {
+                Arrays.fill(potentialStamps, 0);
+            }
+            generation = 1;
+        }
+        heap.clear();
+    }
+
+    public boolean isReached(int node) {
+        return reached[node] == generation;
+    }
+
+    // Хүрээгүй цэгийн хувьд Double.MAX_VALUE
+    public double getDistance(int node) {
+        return reached[node] == generation ? distances[node] : Double.MAX_VALUE;
+    }
+
+    public int getParent(int node) {
+        return reached[node] == generation ? parents[node] : -1;
+    }
+
+    // start-аас node хүртэлх цэгүүд; эцэг нь цэгийн ID байх хайлтуудад
+    public int[] pathTo(int start, int node) {
+        int length = 1;
+        for (int v = node; v != start; v = parents[v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int v = node;
+        for (int i = length - 1; i > 0; i--) {
+            path[i] = v;
+            v = parents[v];
+        }
+        path[0] = start;
+        return path;
+    }
+
+    public void reach(int node, double distance, int parent) {
+        reached[node] = generation;
+        distances[node] = distance;
+        parents[node] = parent;
+    }
+
+    public boolean isSettled(int node) {
+        return settled[node] == generation;
+    }
+
+    public void settle(int node) {
+        settled[node] = generation;
+    }
+
+    // A*-ийн эвристик мэтийн цэг бүрт нэг удаа тооцох утга; тооцоогүй бол NaN
+    public double getPotential(int node) {
+        return potentialStamps != null && potentialStamps[node] == generation ? potentials[node] : Double.NaN;
+    }
+
+    public void setPotential(int node, double value) {
+        if (potentialStamps == null) {
+            potentials = new double[distances.length];
+            potentialStamps = new int[distances.length];
+        }
+        potentialStamps[node] = generation;
+        potentials[node] = value;
+    }
+
+    public IndexedHeap heap() {
+        return heap;
+    }
+
+    // BFS-ийн дараалал: n хэмжээтэй, агуулга нь хүчингүй байж болно
+    public int[] queue() {
+        return queue;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.api;
+
+import java.util.List;
+
+// k өөр маршрут, өртгийн өсөх дарааллаар; truncated бол хязгаарт хүрч эрт зогссон
+public class AlternativesResponse {
+    private boolean success;
+    private String message;
+    private String metric;
+    private List<PathResponse> routes;
+    private boolean truncated;
+    private long expansions;
+    private double executionTime;
+
+    public AlternativesResponse() {
+    }
+
+    public AlternativesResponse(boolean success, String message) {
+        this.success = success;
+        this.message = message;
+    }
+
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public String getMetric() { return metric; }
+    public void setMetric(String metric) { this.metric = metric; }
+
+    public List<PathResponse> getRoutes() { return routes; }
+    public void setRoutes(List<PathResponse> routes) { this.routes = routes; }
+
+    public boolean isTruncated() { return truncated; }
+    public void setTruncated(boolean truncated) { this.truncated = truncated; }
+
+    public long getExpansions() { return expansions; }
+    public void setExpansions(long expansions) { this.expansions = expansions; }
+
+    public double getExecutionTime() { return executionTime; }
+    public void setExecutionTime(double executionTime) { this.executionTime = executionTime; }
+}
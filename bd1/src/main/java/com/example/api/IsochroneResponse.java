@@ -0,0 +1,76 @@
+package com.example.api;
+
+import java.util.List;
+
+// Төсвийн дотор хүрэх цэгүүд, хүсвэл тэдгээрийн гүдгэр бүрхүүл ([lat, lng] жагсаалт)
+public class IsochroneResponse {
+    private boolean success;
+    private String message;
+    private String metric;
+    private double budget;
+    private long origin;
+    private int nodeCount;
+    private List<ReachedNode> nodes;
+    // nodes нь MAX_ISOCHRONE_NODES-оор таслагдсан эсэх; nodeCount нь нийт хүрсэн тоо
+    private boolean truncated;
+    private List<double[]> polygon;
+    private double executionTime;
+
+    public IsochroneResponse() {
+    }
+
+    public IsochroneResponse(boolean success, String message) {
+        this.success = success;
+        this.message = message;
+    }
+
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public String getMetric() { return metric; }
+    public void setMetric(String metric) { this.metric = metric; }
+
+    public double getBudget() { return budget; }
+    public void setBudget(double budget) { this.budget = budget; }
+
+    public long getOrigin() { return origin; }
+    public void setOrigin(long origin) { this.origin = origin; }
+
+    public int getNodeCount() { return nodeCount; }
+    public void setNodeCount(int nodeCount) { this.nodeCount = nodeCount; }
+
+    public List<ReachedNode> getNodes() { return nodes; }
+    public void setNodes(List<ReachedNode> nodes) { this.nodes = nodes; }
+
+    public boolean isTruncated() { return truncated; }
+    public void setTruncated(boolean truncated) { this.truncated = truncated; }
+
+    public List<double[]> getPolygon() { return polygon; }
+    public void setPolygon(List<double[]> polygon) { this.polygon = polygon; }
+
+    public double getExecutionTime() { return executionTime; }
+    public void setExecutionTime(double executionTime) { this.executionTime = executionTime; }
+
+
+    public static class ReachedNode {
+        private long id;
+        private double lat;
+        private double lng;
+        private double cost;
+
+        public ReachedNode(long id, double lat, double lng, double cost) {
+            this.id = id;
+            this.lat = lat;
+            this.lng = lng;
+            this.cost = cost;
+        }
+
+        public long getId() { return id; }
+        public double getLat() { return lat; }
+        public double getLng() { return lng; }
+        public double getCost() { return cost; }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.api;
+
+// Эхлэл × төгсгөлийн өртгийн матриц. Замын геометр агуулахгүй; хүрэх боломжгүй нүд -1.
+public class MatrixResponse {
+    private boolean success;
+    private String message;
+    private String metric;
+    private long[] sources;
+    private long[] targets;
+    private double[][] costs;
+    private double executionTime;
+
+    public MatrixResponse() {
+    }
+
+    public MatrixResponse(boolean success, String message) {
+        this.success = success;
+        this.message = message;
+    }
+
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public String getMetric() { return metric; }
+    public void setMetric(String metric) { this.metric = metric; }
+
+    public long[] getSources() { return sources; }
+    public void setSources(long[] sources) { this.sources = sources; }
+
+    public long[] getTargets() { return targets; }
+    public void setTargets(long[] targets) { this.targets = targets; }
+
+    public double[][] getCosts() { return costs; }
+    public void setCosts(double[][] costs) { this.costs = costs; }
+
+    public double getExecutionTime() { return executionTime; }
+    public void setExecutionTime(double executionTime) { this.executionTime = executionTime; }
+}
@@ -12,7 +12,16 @@ public class PathResponse {
     private List<PathNode> path;
     private int pathLength;
     private double totalDistance;
+    private double totalTime;
+    private String metric;
     private double executionTime;
+    private int settledNodes;
+    // Зөвхөн /api/path/compare-д: үе шатны хугацаа (мс), Dijkstra-аас зөрүү, хугацаа хэтэрсэн эсэх
+    private Double snapTime;
+    private Double reconstructionTime;
+    private Double responseTime;
+    private Double costDelta;
+    private Boolean timedOut;
 
     public PathResponse() {
     }
@@ -61,9 +70,33 @@ public class PathResponse {
     public double getTotalDistance() { return totalDistance; }
     public void setTotalDistance(double totalDistance) { this.totalDistance = totalDistance; }
 
+    public double getTotalTime() { return totalTime; }
+    public void setTotalTime(double totalTime) { this.totalTime = totalTime; }
+
+    public String getMetric() { return metric; }
+    public void setMetric(String metric) { this.metric = metric; }
+
     public double getExecutionTime() { return executionTime; }
     public void setExecutionTime(double executionTime) { this.executionTime = executionTime; }
 
+    public int getSettledNodes() { return settledNodes; }
+    public void setSettledNodes(int settledNodes) { this.settledNodes = settledNodes; }
+
+    public Double getSnapTime() { return snapTime; }
+    public void setSnapTime(Double snapTime) { this.snapTime = snapTime; }
+
+    public Double getReconstructionTime() { return reconstructionTime; }
+    public void setReconstructionTime(Double reconstructionTime) { this.reconstructionTime = reconstructionTime; }
+
+    public Double getResponseTime() { return responseTime; }
+    public void setResponseTime(Double responseTime) { this.responseTime = responseTime; }
+
+    public Double getCostDelta() { return costDelta; }
+    public void setCostDelta(Double costDelta) { this.costDelta = costDelta; }
+
+    public Boolean getTimedOut() { return timedOut; }
+    public void setTimedOut(Boolean timedOut) { this.timedOut = timedOut; }
+
 
     public static class PathNode {
         private long id;
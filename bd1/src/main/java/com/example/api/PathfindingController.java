@@ -1,17 +1,33 @@
 package com.example.api;
 
-import com.example.graph.Node;
+import com.example.algorithms.ContractionHierarchy;
+import com.example.graph.Components;
+import com.example.graph.CsrGraph;
+import com.example.graph.Metric;
+import com.example.graph.Tile;
+import com.example.graph.TrafficOverlay;
 import com.example.service.PathfindingService;
 import com.google.gson.Gson;
 import io.javalin.Javalin;
 import io.javalin.http.Context;
-import java.util.Collection;
+import io.javalin.http.Handler;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 
 public class PathfindingController {
+    private static final int DEFAULT_NODE_PAGE = 5_000;
+    private static final int MAX_NODE_PAGE = 50_000;
+
     private final PathfindingService service;
     private final Gson gson;
 
@@ -36,10 +52,25 @@ public class PathfindingController {
         app.get("/api/health", this::health);
         app.get("/api/graph/stats", this::graphStats);
         app.get("/api/graph/nodes", this::getAllNodes);
-        app.post("/api/path/bfs", this::findPathBFS);
-        app.post("/api/path/dfs", this::findPathDFS);
-        app.post("/api/path/dijkstra", this::findPathDijkstra);
+        app.post("/api/path/bfs", route("bfs"));
+        app.post("/api/path/dfs", route("dfs"));
+        app.post("/api/path/dijkstra", route("dijkstra"));
+        app.post("/api/path/bidirectional", route("bidijkstra"));
+        app.post("/api/path/astar", route("astar"));
+        app.post("/api/path/alt", route("alt"));
+        app.post("/api/path/ch", route("ch"));
+        app.post("/api/path", this::findPath);
         app.post("/api/path/compare", this::compareAlgorithms);
+        app.post("/api/path/alternatives", this::findAlternatives);
+        app.post("/api/path/batch", this::routeBatch);
+        app.post("/api/matrix", this::distanceMatrix);
+        app.post("/api/isochrone", this::isochrone);
+        app.get("/api/cache/stats", this::cacheStats);
+        app.get("/api/traffic", ctx -> ctx.json(service.getTraffic()));
+        app.post("/api/traffic", this::updateTraffic);
+        app.delete("/api/traffic", ctx -> ctx.json(service.updateTraffic(Map.of(), true)));
+        app.get("/metrics", this::metrics);
+        app.get("/tiles/{z}/{x}/{y}.mvt", this::vectorTile);
 
         System.out.println("\n✓ Server эхэллээ: http://localhost:" + port);
         System.out.println("✓ API documentation: http://localhost:" + port + "/api/health");
@@ -59,64 +90,286 @@ public class PathfindingController {
     }
 
     private void graphStats(Context ctx) {
-        ctx.json(Map.of(
-                "nodes", service.getGraph().size(),
-                "message", "График бэлэн"
-        ));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodes", service.getGraph().size());
+        stats.put("message", "График бэлэн");
+        stats.put("chReady", service.isContractionHierarchyReady());
+        if (service.isContractionHierarchyReady()) {
+            ContractionHierarchy ch = service.getContractionHierarchy();
+            stats.put("chShortcuts", ch.getShortcutCount());
+            stats.put("chPreprocessingTime", ch.getPreprocessingTime());
+        }
+        stats.put("chTimeReady", service.isContractionHierarchyReady(Metric.TIME));
+
+        Components components = service.getGraph().getComponents();
+        Map<String, Object> connectivity = new LinkedHashMap<>();
+        connectivity.put("sccCount", components.getSccCount());
+        connectivity.put("largestScc", components.getLargestSccSize());
+        connectivity.put("singletonScc", components.getSingletonSccCount());
+        connectivity.put("wccCount", components.getWccCount());
+        connectivity.put("largestWcc", components.getLargestWccSize());
+        connectivity.put("computeTime", components.getComputeTime());
+        stats.put("components", connectivity);
+        ctx.json(stats);
     }
 
+    // ?bbox=minLng,minLat,maxLng,maxLat эсвэл ?z=&x=&y= хавтангаар шүүнэ; өгөөгүй бол бүх граф.
+    // Нэг хуудсанд хамгийн ихдээ limit цэг, үлдсэнийг nextCursor-оор авна. Хариуг жагсаалт
+    // үүсгэлгүй шууд бичдэг тул хүсэлт бүрийн санах ой графын хэмжээнээс үл хамаарна.
     private void getAllNodes(Context ctx) {
-        Collection<Node> allNodes = service.getGraph().getNodes();
+        double minLat = -90, minLng = -180, maxLat = 90, maxLng = 180;
+        int cursor;
+        int limit;
+        try {
+            String bbox = ctx.queryParam("bbox");
+            if (bbox != null) {
+                String[] parts = bbox.split(",");
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException("bbox нь minLng,minLat,maxLng,maxLat байх ёстой");
+                }
+                minLng = Double.parseDouble(parts[0].trim());
+                minLat = Double.parseDouble(parts[1].trim());
+                maxLng = Double.parseDouble(parts[2].trim());
+                maxLat = Double.parseDouble(parts[3].trim());
+            } else if (ctx.queryParam("z") != null) {
+                Tile tile = new Tile(Integer.parseInt(ctx.queryParam("z")),
+                        Integer.parseInt(ctx.queryParam("x")), Integer.parseInt(ctx.queryParam("y")));
+                minLat = tile.getMinLat();
+                minLng = tile.getMinLon();
+                maxLat = tile.getMaxLat();
+                maxLng = tile.getMaxLon();
+            }
+            String cursorParam = ctx.queryParam("cursor");
+            cursor = cursorParam == null ? 0 : Integer.parseInt(cursorParam);
+            String limitParam = ctx.queryParam("limit");
+            limit = limitParam == null ? DEFAULT_NODE_PAGE : Integer.parseInt(limitParam);
+            if (cursor < 0 || limit <= 0 || limit > MAX_NODE_PAGE) {
+                throw new IllegalArgumentException("cursor эсвэл limit буруу (limit <= " + MAX_NODE_PAGE + ")");
+            }
+        } catch (Exception e) {
+            ctx.status(400).json(Map.of("success", false, "message", "Алдаа: " + e.getMessage()));
+            return;
+        }
 
-        List<SimpleNode> simpleNodes = allNodes.stream()
-                .map(node -> new SimpleNode(node.getId(), node.getLatitude(), node.getLongitude()))
-                .collect(Collectors.toList());
+        ctx.contentType("application/json");
+        CsrGraph csr = service.getGraph().getCsr();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(ctx.outputStream(), StandardCharsets.UTF_8))) {
+            writer.write("{\"success\":true,\"nodes\":[");
+            int[] count = {0};
+            int next = service.scanNodes(minLat, minLng, maxLat, maxLng, cursor, limit, v -> {
+                try {
+                    if (count[0]++ > 0) writer.write(',');
+                    writer.write("{\"id\":" + v
+                            + ",\"lat\":" + csr.getLatitude(v)
+                            + ",\"lng\":" + csr.getLongitude(v) + "}");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.write("],\"count\":" + count[0]
+                    + ",\"nextCursor\":" + (next < 0 ? "null" : "\"" + next + "\"") + "}");
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Цэгүүдийг бичих үед холболт тасарлаа: " + e.getMessage());
+        }
+    }
 
-        Map<String, Object> response = Map.of(
-                "success", true,
-                "totalNodes", simpleNodes.size(),
-                "nodes", simpleNodes
-        );
+    // Нэг маршрутын endpoint-ууд; хариу кэшээс ирсэн бол X-Cache: HIT.
+    // ?format=polyline|polyline6|coords|binary (эсвэл Accept: application/octet-stream) бол
+    // PathNode жагсаалтгүйгээр шууд урсгалд бичнэ.
+    private Handler route(String algorithm) {
+        return ctx -> {
+            try {
+                PathRequest request = gson.fromJson(ctx.body(), PathRequest.class);
+                String format = routeFormat(ctx, request);
+                if (!format.equals("json")) {
+                    writeRoute(ctx, service.findRouteGeometry(
+                            algorithm,
+                            request.startLat, request.startLng,
+                            request.endLat, request.endLng,
+                            metric(ctx, request)
+                    ), format);
+                    return;
+                }
+                PathfindingService.CachedRoute route = service.findPathCached(
+                        algorithm,
+                        request.startLat, request.startLng,
+                        request.endLat, request.endLng,
+                        metric(ctx, request)
+                );
+                ctx.header("X-Cache", route.hit() ? "HIT" : "MISS");
+                ctx.contentType("application/json").result(route.json());
+            } catch (Exception e) {
+                ctx.status(400).json(new PathResponse(false, "Алдаа: " + e.getMessage()));
+            }
+        };
+    }
 
-        ctx.json(response);
+    private static String routeFormat(Context ctx, PathRequest request) {
+        String format = request.format != null ? request.format : ctx.queryParam("format");
+        if (format == null) {
+            String accept = ctx.header("Accept");
+            if (accept != null && accept.contains(RouteEncoder.BINARY_CONTENT_TYPE)) {
+                return "binary";
+            }
+        }
+        return RouteEncoder.parseFormat(format);
     }
 
-    private void findPathBFS(Context ctx) {
+    private static void writeRoute(Context ctx, PathfindingService.RouteGeometry route, String format)
+            throws IOException {
+        ctx.header("X-Cache", "BYPASS");
+        if (format.equals("binary")) {
+            ctx.contentType(RouteEncoder.BINARY_CONTENT_TYPE);
+            ctx.header("X-Route-Success", Boolean.toString(route.success()));
+            try (BufferedOutputStream out = new BufferedOutputStream(ctx.outputStream())) {
+                RouteEncoder.writeBinary(route, out);
+            }
+            return;
+        }
+        ctx.contentType("application/json");
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(ctx.outputStream(), StandardCharsets.UTF_8))) {
+            RouteEncoder.writeJson(route, format, writer);
+        }
+    }
+
+    // Алгоритмыг body-ийн algorithm эсвэл ?algorithm=-оор сонгоно (анхдагч dijkstra)
+    private void findPath(Context ctx) {
         try {
             PathRequest request = gson.fromJson(ctx.body(), PathRequest.class);
-            PathResponse response = service.findPathBFS(
-                    request.startLat, request.startLng,
-                    request.endLat, request.endLng
-            );
-            ctx.json(response);
+            String algorithm = request.algorithm != null ? request.algorithm : ctx.queryParam("algorithm");
+            route(algorithm == null ? "dijkstra" : algorithm.toLowerCase()).handle(ctx);
         } catch (Exception e) {
             ctx.status(400).json(new PathResponse(false, "Алдаа: " + e.getMessage()));
         }
     }
 
-    private void findPathDFS(Context ctx) {
+    private void distanceMatrix(Context ctx) {
         try {
-            PathRequest request = gson.fromJson(ctx.body(), PathRequest.class);
-            PathResponse response = service.findPathDFS(
-                    request.startLat, request.startLng,
-                    request.endLat, request.endLng
-            );
-            ctx.json(response);
+            MatrixRequest request = gson.fromJson(ctx.body(), MatrixRequest.class);
+            Metric metric = Metric.parse(request.metric != null ? request.metric : ctx.queryParam("metric"));
+            ctx.json(service.distanceMatrix(request.sources, request.targets, metric));
         } catch (Exception e) {
-            ctx.status(400).json(new PathResponse(false, "Алдаа: " + e.getMessage()));
+            ctx.status(400).json(new MatrixResponse(false, "Алдаа: " + e.getMessage()));
+        }
+    }
+
+    private void isochrone(Context ctx) {
+        try {
+            IsochroneRequest request = gson.fromJson(ctx.body(), IsochroneRequest.class);
+            Metric metric = Metric.parse(request.metric != null ? request.metric : ctx.queryParam("metric"));
+            ctx.json(service.isochrone(request.lat, request.lng, request.budget, metric, request.polygon,
+                    request.nodes));
+        } catch (Exception e) {
+            ctx.status(400).json(new IsochroneResponse(false, "Алдаа: " + e.getMessage()));
         }
     }
 
-    private void findPathDijkstra(Context ctx) {
+    private void vectorTile(Context ctx) {
+        try {
+            byte[] tile = service.getTile(Integer.parseInt(ctx.pathParam("z")),
+                    Integer.parseInt(ctx.pathParam("x")), Integer.parseInt(ctx.pathParam("y")));
+            ctx.header("Cache-Control", "public, max-age=3600");
+            ctx.contentType("application/vnd.mapbox-vector-tile").result(tile);
+        } catch (Exception e) {
+            ctx.status(400).json(Map.of("success", false, "message", "Алдаа: " + e.getMessage()));
+        }
+    }
+
+    private void cacheStats(Context ctx) {
+        ctx.json(service.getRouteCache().getStats());
+    }
+
+    // Нэг хүсэлтийн бүх өөрчлөлт нэг хувилбар болж атомаар хэрэгжинэ
+    private void updateTraffic(Context ctx) {
+        try {
+            TrafficRequest request = gson.fromJson(ctx.body(), TrafficRequest.class);
+            Map<Integer, Double> multipliers = new HashMap<>();
+            if (request.updates != null) {
+                for (TrafficUpdate update : request.updates) {
+                    double multiplier = update.closed ? TrafficOverlay.CLOSED
+                            : (update.multiplier != null ? update.multiplier : 1.0);
+                    if (update.edge != null) {
+                        multipliers.put(update.edge, multiplier);
+                    } else if (update.from != null && update.to != null) {
+                        int[] arcs = service.findArcs(update.from, update.to);
+                        if (arcs.length == 0) {
+                            throw new IllegalArgumentException("Нум олдсонгүй: " + update.from + " -> " + update.to);
+                        }
+                        for (int arc : arcs) {
+                            multipliers.put(arc, multiplier);
+                        }
+                    } else {
+                        throw new IllegalArgumentException("edge эсвэл from/to өгөөгүй");
+                    }
+                }
+            }
+            ctx.json(service.updateTraffic(multipliers, request.reset));
+        } catch (Exception e) {
+            ctx.status(400).json(new TrafficResponse(false, "Алдаа: " + e.getMessage()));
+        }
+    }
+
+    // Prometheus scrape
+    private void metrics(Context ctx) throws IOException {
+        ctx.contentType("text/plain; version=0.0.4; charset=utf-8");
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(ctx.outputStream(), StandardCharsets.UTF_8))) {
+            service.writeMetrics(writer);
+        }
+    }
+
+    // ?k= өөр маршрутын тоо (анхдагч 3)
+    private void findAlternatives(Context ctx) {
         try {
             PathRequest request = gson.fromJson(ctx.body(), PathRequest.class);
-            PathResponse response = service.findPathDijkstra(
+            String k = ctx.queryParam("k");
+            AlternativesResponse response = service.findAlternatives(
                     request.startLat, request.startLng,
-                    request.endLat, request.endLng
+                    request.endLat, request.endLng,
+                    k == null ? 3 : Integer.parseInt(k),
+                    metric(ctx, request)
             );
             ctx.json(response);
+        } catch (Exception e) {
+            ctx.status(400).json(new AlternativesResponse(false, "Алдаа: " + e.getMessage()));
+        }
+    }
+
+    // Мөр бүр {"index":i,"result":{...}}; дуусах дарааллаар (NDJSON)
+    private void routeBatch(Context ctx) {
+        BatchRequest request;
+        try {
+            request = gson.fromJson(ctx.body(), BatchRequest.class);
         } catch (Exception e) {
             ctx.status(400).json(new PathResponse(false, "Алдаа: " + e.getMessage()));
+            return;
+        }
+
+        ctx.contentType("application/x-ndjson");
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(ctx.outputStream(), StandardCharsets.UTF_8))) {
+            try {
+                service.routeBatch(
+                        request.algorithm == null ? "dijkstra" : request.algorithm,
+                        request.pairs,
+                        Metric.parse(request.metric != null ? request.metric : ctx.queryParam("metric")),
+                        (json, index) -> {
+                            try {
+                                writer.write("{\"index\":" + index + ",\"result\":" + json + "}\n");
+                                writer.flush();
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+            } catch (IllegalArgumentException e) {
+                // Шалгалт хайлт эхлэхээс өмнө хийгддэг тул хариу хараахан илгээгдээгүй
+                ctx.status(400);
+                writer.write(gson.toJson(new PathResponse(false, "Алдаа: " + e.getMessage())) + "\n");
+            } catch (IllegalStateException e) {
+                writer.write(gson.toJson(new PathResponse(false, "Алдаа: " + e.getMessage())) + "\n");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Batch хариуг бичих үед холболт тасарлаа: " + e.getMessage());
         }
     }
 
@@ -125,7 +378,8 @@ public class PathfindingController {
             PathRequest request = gson.fromJson(ctx.body(), PathRequest.class);
             Map<String, PathResponse> results = service.compareAlgorithms(
                     request.startLat, request.startLng,
-                    request.endLat, request.endLng
+                    request.endLat, request.endLng,
+                    metric(ctx, request)
             );
             ctx.json(results);
         } catch (Exception e) {
@@ -133,26 +387,60 @@ public class PathfindingController {
         }
     }
 
+    // metric-ийг body-оос, эсвэл ?metric=time|distance query-оос авна
+    private static Metric metric(Context ctx, PathRequest request) {
+        String value = request.metric != null ? request.metric : ctx.queryParam("metric");
+        return Metric.parse(value);
+    }
+
     private static class PathRequest {
         double startLat;
         double startLng;
         double endLat;
         double endLng;
+        String metric;
+        String algorithm;
+        String format;
     }
 
-    private static class SimpleNode {
-        private long id;
-        private double lat;
-        private double lng;
+    // pairs нь [startLat, startLng, endLat, endLng] жагсаалт
+    private static class BatchRequest {
+        String algorithm;
+        String metric;
+        List<double[]> pairs;
+    }
 
-        public SimpleNode(long id, double lat, double lng) {
-            this.id = id;
-            this.lat = lat;
-            this.lng = lng;
-        }
+    // sources/targets нь [lat, lng] хосууд; targets өгөөгүй бол sources × sources
+    private static class MatrixRequest {
+        List<double[]> sources;
+        List<double[]> targets;
+        String metric;
+    }
+
+    // reset=true бол өмнөх бүх өөрчлөлтийг арилгаад updates-ийг хэрэглэнэ
+    private static class TrafficRequest {
+        boolean reset;
+        List<TrafficUpdate> updates;
+    }
+
+    // edge нь CSR нумын индекс (вектор хавтангийн feature id), эсвэл from/to цэгүүдийн бүх нум.
+    // multiplier нь хугацааны коэффициент (1 = хэвийн), closed=true бол зам хаалттай.
+    private static class TrafficUpdate {
+        Integer edge;
+        Long from;
+        Long to;
+        Double multiplier;
+        boolean closed;
+    }
 
-        public long getId() { return id; }
-        public double getLat() { return lat; }
-        public double getLng() { return lng; }
+    // budget: км эсвэл минут (metric-ээс хамаарна)
+    private static class IsochroneRequest {
+        double lat;
+        double lng;
+        double budget;
+        String metric;
+        boolean polygon;
+        // Зөвхөн polygon хэрэгтэй бол false
+        boolean nodes = true;
     }
 }
@@ -0,0 +1,143 @@
+package com.example.api;
+
+import com.example.service.PathfindingService.RouteGeometry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Locale;
+
+// Маршрутыг PathNode жагсаалтгүйгээр координатын массиваас шууд урсгалд бичнэ.
+//   polyline / polyline6: Google encoded polyline (1e5 / 1e6 нарийвчлал) JSON дотор
+//   coords: хавтгай [lat, lng, lat, lng, ...] массив JSON дотор
+//   binary (little-endian): int32 pointCount, float64 totalDistance, float64 totalTime,
+//           float64 executionTime, int32 settledNodes, дараа нь pointCount x (float32 lat, float32 lng)
+public final class RouteEncoder {
+    public static final String BINARY_CONTENT_TYPE = "application/octet-stream";
+
+    private RouteEncoder() {
+    }
+
+    // format-ийг шалгаж жижиг үсгээр буцаана; буруу бол IllegalArgumentException
+    public static String parseFormat(String format) {
+        String value = format == null ? "json" : format.toLowerCase(Locale.ROOT);
+        return switch (value) {
+            case "json", "polyline", "polyline6", "coords", "binary" -> value;
+            default -> throw new IllegalArgumentException("Тодорхойгүй format: " + format);
+        };
+    }
+
+    public static void writeJson(RouteGeometry route, String format, Writer out) throws IOException {
+        out.write("{\"success\":" + route.success());
+        out.write(",\"message\":");
+        writeString(out, route.message());
+        out.write(",\"algorithm\":");
+        writeString(out, route.algorithm());
+        out.write(",\"metric\":");
+        writeString(out, route.metric());
+        out.write(",\"pathLength\":" + route.pointCount());
+        out.write(",\"totalDistance\":");
+        writeNumber(out, route.totalDistance());
+        out.write(",\"totalTime\":");
+        writeNumber(out, route.totalTime());
+        out.write(",\"executionTime\":");
+        writeNumber(out, route.executionTime());
+        out.write(",\"settledNodes\":" + route.settledNodes());
+        out.write(",\"format\":\"" + format + "\"");
+        if (format.equals("coords")) {
+            out.write(",\"coordinates\":[");
+            double[] coordinates = route.coordinates();
+            for (int i = 0; i < 2 * route.pointCount(); i++) {
+                if (i > 0) out.write(',');
+                out.write(Double.toString(coordinates[i]));
+            }
+            out.write(']');
+        } else {
+            out.write(",\"polyline\":\"");
+            writePolyline(route.coordinates(), route.pointCount(), format.equals("polyline6") ? 1e6 : 1e5, out);
+            out.write('"');
+        }
+        out.write('}');
+    }
+
+    // Polyline-ийн тэмдэгтүүдээс ('?'..'~') JSON-д зөвхөн '\\'-ийг escape хийнэ
+    static void writePolyline(double[] coordinates, int pointCount, double scale, Writer out) throws IOException {
+        long previousLat = 0;
+        long previousLng = 0;
+        for (int i = 0; i < pointCount; i++) {
+            long lat = Math.round(coordinates[2 * i] * scale);
+            long lng = Math.round(coordinates[2 * i + 1] * scale);
+            writeSigned(lat - previousLat, out);
+            writeSigned(lng - previousLng, out);
+            previousLat = lat;
+            previousLng = lng;
+        }
+    }
+
+    private static void writeSigned(long delta, Writer out) throws IOException {
+        long value = delta < 0 ? ~(delta << 1) : delta << 1;
+        while (value >= 0x20) {
+            writePolylineChar((int) ((0x20 | (value & 0x1f)) + 63), out);
+            value >>= 5;
+        }
+        writePolylineChar((int) (value + 63), out);
+    }
+
+    private static void writePolylineChar(int c, Writer out) throws IOException {
+        if (c == '\\') {
+            out.write("\\\\");
+        } else {
+            out.write(c);
+        }
+    }
+
+    public static void writeBinary(RouteGeometry route, OutputStream out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(route.pointCount());
+        buffer.putDouble(route.totalDistance());
+        buffer.putDouble(route.totalTime());
+        buffer.putDouble(route.executionTime());
+        buffer.putInt(route.settledNodes());
+
+        double[] coordinates = route.coordinates();
+        for (int i = 0; i < 2 * route.pointCount(); i++) {
+            if (!buffer.hasRemaining()) {
+                out.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            buffer.putFloat((float) coordinates[i]);
+        }
+        out.write(buffer.array(), 0, buffer.position());
+    }
+
+    // JSON-д Infinity, NaN байхгүй тул null
+    private static void writeNumber(Writer out, double value) throws IOException {
+        out.write(Double.isFinite(value) ? Double.toString(value) : "null");
+    }
+
+    private static void writeString(Writer out, String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+}
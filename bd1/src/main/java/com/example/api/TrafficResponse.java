@@ -0,0 +1,37 @@
+package com.example.api;
+
+// Замын хөдөлгөөний давхаргын одоогийн хувилбар
+public class TrafficResponse {
+    private boolean success;
+    private String message;
+    private long version;
+    private int overriddenEdges;
+    private int closedEdges;
+    private double executionTime;
+
+    public TrafficResponse() {
+    }
+
+    public TrafficResponse(boolean success, String message) {
+        this.success = success;
+        this.message = message;
+    }
+
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public int getOverriddenEdges() { return overriddenEdges; }
+    public void setOverriddenEdges(int overriddenEdges) { this.overriddenEdges = overriddenEdges; }
+
+    public int getClosedEdges() { return closedEdges; }
+    public void setClosedEdges(int closedEdges) { this.closedEdges = closedEdges; }
+
+    public double getExecutionTime() { return executionTime; }
+    public void setExecutionTime(double executionTime) { this.executionTime = executionTime; }
+}
@@ -0,0 +1,246 @@
+package com.example.graph;
+
+import java.util.Arrays;
+
+// Графын холбоост бүрэлдэхүүнүүд: хүчтэй (SCC, давталтгүй Tarjan) ба сул (WCC, union-find).
+// Tarjan бүрэлдэхүүнийг түүнээс хүрэх бүх бүрэлдэхүүний дараа дуусгадаг тул дугаар нь
+// урвуу топологийн дараалалтай: s -> t хүрдэг бол scc(t) <= scc(s).
+public final class Components {
+    private final int[] scc;
+    private final int[] sccSizes;
+    private final int largestScc;
+    private final int[] wcc;
+    private final int[] wccSizes;
+    private final int largestWcc;
+    private final double computeTime;
+
+    private Components(int[] scc, int[] sccSizes, int[] wcc, int[] wccSizes, double computeTime) {
+        this.scc = scc;
+        this.sccSizes = sccSizes;
+        this.wcc = wcc;
+        this.wccSizes = wccSizes;
+        this.largestScc = argMax(sccSizes);
+        this.largestWcc = argMax(wccSizes);
+        this.computeTime = computeTime;
+    }
+
+    public static Components compute(CsrGraph csr) {
+        long startTime = System.nanoTime();
+        int n = csr.getNodeCount();
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+
+        // Tarjan: дуудлагын стекийг (цэг, дараагийн нум) хос массиваар орлуулна
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] scc = new int[n];
+        Arrays.fill(index, -1);
+        Arrays.fill(scc, -1);
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];
+        int[] callNode = new int[n];
+        int[] callEdge = new int[n];
+        int[] sccSizes = new int[Math.max(1, n)];
+        int sp = 0;
+        int counter = 0;
+        int sccCount = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (!csr.contains(root) || index[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callNode[0] = root;
+            callEdge[0] = offsets[root];
+            index[root] = low[root] = counter++;
+            stack[sp++] = root;
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                int v = callNode[depth];
+                if (callEdge[depth] < offsets[v + 1]) {
+                    int w = targets[callEdge[depth]++];
+                    if (index[w] < 0) {
+                        index[w] = low[w] = counter++;
+                        stack[sp++] = w;
+                        onStack[w] = true;
+                        depth++;
+                        callNode[depth] = w;
+                        callEdge[depth] = offsets[w];
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack[--sp];
+                        onStack[w] = false;
+                        scc[w] = sccCount;
+                        sccSizes[sccCount]++;
+                    } while (w != v);
+                    sccCount++;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callNode[depth];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+
+        // Union-find (замыг хагасалж богиносгоно), дараа нь дугаарыг нягтруулна
+        int[] parent = new int[n];
+        for (int v = 0; v < n; v++) {
+            parent[v] = v;
+        }
+        for (int v = 0; v < n; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int a = find(parent, v);
+                int b = find(parent, targets[e]);
+                if (a != b) {
+                    parent[Math.max(a, b)] = Math.min(a, b);
+                }
+            }
+        }
+        int[] wcc = new int[n];
+        int[] label = new int[n];
+        Arrays.fill(label, -1);
+        int wccCount = 0;
+        for (int v = 0; v < n; v++) {
+            if (!csr.contains(v)) {
+                wcc[v] = -1;
+                continue;
+            }
+            int r = find(parent, v);
+            if (label[r] < 0) {
+                label[r] = wccCount++;
+            }
+            wcc[v] = label[r];
+        }
+        int[] wccSizes = new int[wccCount];
+        for (int v = 0; v < n; v++) {
+            if (wcc[v] >= 0) wccSizes[wcc[v]]++;
+        }
+
+        double computeTime = (System.nanoTime() - startTime) / 1_000_000.0;
+        return new Components(scc, Arrays.copyOf(sccSizes, sccCount), wcc, wccSizes, computeTime);
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    private static int argMax(int[] sizes) {
+        int best = -1;
+        for (int i = 0; i < sizes.length; i++) {
+            if (best < 0 || sizes[i] > sizes[best]) best = i;
+        }
+        return best;
+    }
+
+    // false бол t нь s-ээс хүрэгдэхгүй нь баталгаатай; true бол хүрэх боломжтой (заавал биш).
+    // Замын хөдөлгөөний хаалт зөвхөн нум хасдаг тул хариу хүчинтэй хэвээр.
+    public boolean mayReach(long startId, long endId) {
+        if (startId < 0 || startId >= scc.length || endId < 0 || endId >= scc.length) {
+            return false;
+        }
+        int s = (int) startId;
+        int t = (int) endId;
+        if (scc[s] < 0 || scc[t] < 0) {
+            return false;
+        }
+        return wcc[s] == wcc[t] && scc[t] <= scc[s];
+    }
+
+    public boolean isInLargestScc(int node) {
+        return node >= 0 && node < scc.length && scc[node] >= 0 && scc[node] == largestScc;
+    }
+
+    public int getScc(int node) {
+        return scc[node];
+    }
+
+    public int getWcc(int node) {
+        return wcc[node];
+    }
+
+    public int getWccSize(int node) {
+        return wcc[node] < 0 ? 0 : wccSizes[wcc[node]];
+    }
+
+    public int getSccCount() {
+        return sccSizes.length;
+    }
+
+    public int getWccCount() {
+        return wccSizes.length;
+    }
+
+    public int getLargestSccSize() {
+        return largestScc < 0 ? 0 : sccSizes[largestScc];
+    }
+
+    public int getLargestWccSize() {
+        return largestWcc < 0 ? 0 : wccSizes[largestWcc];
+    }
+
+    // Ганц цэгтэй SCC: ихэвчлэн нэг чиглэлт мухар замын цэгүүд
+    public int getSingletonSccCount() {
+        int count = 0;
+        for (int size : sccSizes) {
+            if (size == 1) count++;
+        }
+        return count;
+    }
+
+    // minSize-аас цөөн цэгтэй WCC-ийн тоо
+    public int countSmallWcc(int minSize) {
+        int count = 0;
+        for (int size : wccSizes) {
+            if (size < minSize) count++;
+        }
+        return count;
+    }
+
+    public double getComputeTime() {
+        return computeTime;
+    }
+
+    // minSize-аас цөөн цэгтэй сул бүрэлдэхүүнүүдийг (тусгаарлагдсан хэсгүүд) хасна. Цэгийн
+    // ID-ууд өөрчлөгдөхгүй, хасагдсан цэгүүд present биш болно.
+    public CsrGraph prune(CsrGraph csr, int minSize) {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        int n = csr.getNodeCount();
+        for (int v = 0; v < n; v++) {
+            if (csr.contains(v) && getWccSize(v) >= minSize) {
+                builder.addNode(v, csr.getLatitude(v), csr.getLongitude(v));
+            }
+        }
+        double[] weights = csr.getWeights();
+        double[] travelTimes = csr.getTravelTimes();
+        for (int v = 0; v < n; v++) {
+            if (!csr.contains(v) || getWccSize(v) < minSize) {
+                continue;
+            }
+            // Нэг WCC-д байгаа тул хөршүүд нь мөн үлдэнэ
+            for (int e = csr.firstEdge(v); e < csr.endEdge(v); e++) {
+                builder.addArc(v, csr.getTarget(e), weights[e], travelTimes[e],
+                        csr.getRoadType(e), csr.isOneWay(e));
+            }
+        }
+        return builder.build();
+    }
+
+    public void printStats() {
+        System.out.println("Холбоост бүрэлдэхүүн: SCC " + getSccCount() + " (хамгийн том " + getLargestSccSize()
+                + ", ганц цэгтэй " + getSingletonSccCount() + "), WCC " + getWccCount()
+                + " (хамгийн том " + getLargestWccSize() + "), " + String.format("%.1f", computeTime) + " мс");
+    }
+}
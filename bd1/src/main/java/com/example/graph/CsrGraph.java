@@ -0,0 +1,522 @@
+package com.example.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compressed Sparse Row: цэг бүрийн гарах ирмэгүүд offsets[id]..offsets[id+1] мужид
+// дараалан хадгалагдана. Цэгийн ID нь массивын индекс болно.
+public class CsrGraph {
+    // Geometry-ийн координатыг 1e-7 градусын бүхэл тоогоор (OSM-ийн нарийвчлал) хадгална
+    static final double GEOMETRY_SCALE = 1e7;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final double[] travelTimes;
+    private final byte[] roadClasses;
+    private final BitSet oneWay;
+    private final String[] roadTypes;
+    private final int presentNodeCount;
+    private final double maxSpeed;
+    private volatile ReverseIndex reverse;
+    // Хайлт бүр эхэндээ нэг удаа уншина; шинэчлэл нь хайлтыг хэзээ ч түгжихгүй
+    private volatile TrafficOverlay traffic;
+    // Хураасан (degree-2) нумын завсрын цэгүүд: нум e-ийн цэгүүд geometryOffsets[e]..[e+1],
+    // цэг бүр geometry-д (lat, lon) хос. Хураагаагүй граф бол null.
+    private final int[] geometryOffsets;
+    private final int[] geometry;
+
+    CsrGraph(double[] latitudes, double[] longitudes, int[] offsets, int[] targets, double[] weights,
+             double[] travelTimes, byte[] roadClasses, BitSet oneWay, String[] roadTypes) {
+        this(latitudes, longitudes, offsets, targets, weights, travelTimes, roadClasses, oneWay, roadTypes,
+                null, null);
+    }
+
+    CsrGraph(double[] latitudes, double[] longitudes, int[] offsets, int[] targets, double[] weights,
+             double[] travelTimes, byte[] roadClasses, BitSet oneWay, String[] roadTypes,
+             int[] geometryOffsets, int[] geometry) {
+        this.geometryOffsets = geometryOffsets;
+        this.geometry = geometry;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.travelTimes = travelTimes;
+        this.roadClasses = roadClasses;
+        this.oneWay = oneWay;
+        this.roadTypes = roadTypes;
+
+        int present = 0;
+        for (double lat : latitudes) {
+            if (!Double.isNaN(lat)) present++;
+        }
+        this.presentNodeCount = present;
+
+        // A*-ийн хугацааны эвристикт хэрэгтэй хамгийн их хурд (км/мин)
+        double fastest = 0.0;
+        for (int e = 0; e < weights.length; e++) {
+            if (travelTimes[e] > 0) {
+                fastest = Math.max(fastest, weights[e] / travelTimes[e]);
+            }
+        }
+        this.maxSpeed = fastest;
+        this.traffic = TrafficOverlay.none(0, weights, travelTimes);
+    }
+
+    // ID-ийн муж (0..n-1). Цоорхой ID байвал present биш цэгүүд орно.
+    public int getNodeCount() {
+        return latitudes.length;
+    }
+
+    public int getPresentNodeCount() {
+        return presentNodeCount;
+    }
+
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    public boolean contains(long id) {
+        return id >= 0 && id < latitudes.length && !Double.isNaN(latitudes[(int) id]);
+    }
+
+    public double getLatitude(int node) {
+        return latitudes[node];
+    }
+
+    public double getLongitude(int node) {
+        return longitudes[node];
+    }
+
+    public int firstEdge(int node) {
+        return offsets[node];
+    }
+
+    public int endEdge(int node) {
+        return offsets[node + 1];
+    }
+
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    public double getWeight(int edge) {
+        return weights[edge];
+    }
+
+    // Минутаар
+    public double getTravelTime(int edge) {
+        return travelTimes[edge];
+    }
+
+    // Замын хөдөлгөөнийг тооцсон өртөг
+    public double getCost(int edge, Metric metric) {
+        return traffic.weights(metric)[edge];
+    }
+
+    // км/мин; ирмэггүй бол 0
+    public double getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    public int getRoadClass(int edge) {
+        return roadClasses[edge];
+    }
+
+    public String getRoadType(int edge) {
+        return roadTypes[roadClasses[edge]];
+    }
+
+    public boolean isOneWay(int edge) {
+        return oneWay.get(edge);
+    }
+
+    public String[] getRoadTypes() {
+        return roadTypes.clone();
+    }
+
+    // Хайлтын дотоод давталтад зориулсан шууд массивууд - өөрчилж болохгүй
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    public int[] getTargets() {
+        return targets;
+    }
+
+    public double[] getWeights() {
+        return weights;
+    }
+
+    public double[] getTravelTimes() {
+        return travelTimes;
+    }
+
+    // Замын хөдөлгөөнийг тооцсон жин; хайлтын эхэнд нэг удаа аваад тэр хувилбараараа дуусгана
+    public double[] weights(Metric metric) {
+        return traffic.weights(metric);
+    }
+
+    // Замын хөдөлгөөнгүй суурь жин (CH бэлтгэл гэх мэт)
+    public double[] baseWeights(Metric metric) {
+        return metric == Metric.TIME ? travelTimes : weights;
+    }
+
+    public TrafficOverlay getTraffic() {
+        return traffic;
+    }
+
+    // Шинэчлэгчид хоорондоо дараалж, уншигчид хуучин эсвэл шинэ хувилбарын аль нэгийг бүтнээр нь харна
+    public synchronized TrafficOverlay updateTraffic(Map<Integer, Double> multipliers, boolean reset) {
+        traffic = traffic.apply(multipliers, reset, weights, travelTimes);
+        return traffic;
+    }
+
+    public boolean hasGeometry() {
+        return geometryOffsets != null;
+    }
+
+    // Нумын эхлэл, төгсгөлөөс бусад завсрын цэгийн тоо
+    public int getGeometrySize(int edge) {
+        return geometryOffsets == null ? 0 : geometryOffsets[edge + 1] - geometryOffsets[edge];
+    }
+
+    public double getGeometryLatitude(int edge, int index) {
+        return geometry[2 * (geometryOffsets[edge] + index)] / GEOMETRY_SCALE;
+    }
+
+    public double getGeometryLongitude(int edge, int index) {
+        return geometry[2 * (geometryOffsets[edge] + index) + 1] / GEOMETRY_SCALE;
+    }
+
+    int[] geometryOffsets() {
+        return geometryOffsets;
+    }
+
+    int[] geometry() {
+        return geometry;
+    }
+
+    // Snapshot бичихэд хэрэглэх дотоод массивууд
+    double[] latitudes() {
+        return latitudes;
+    }
+
+    double[] longitudes() {
+        return longitudes;
+    }
+
+    byte[] roadClasses() {
+        return roadClasses;
+    }
+
+    BitSet oneWayBits() {
+        return oneWay;
+    }
+
+    public int findEdge(int from, int to) {
+        for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+            if (targets[e] == to) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    // Массивуудын эзлэх heap-ийн ойролцоо хэмжээ (байт); урвуу индекс байгуулагдсан бол түүнийг ч оруулна
+    public long estimateBytes() {
+        long n = latitudes.length;
+        long m = targets.length;
+        long bytes = 16 * n + 4 * (n + 1) + 4 * m + 16 * m + m + m / 8;
+        if (geometryOffsets != null) {
+            bytes += 4L * geometryOffsets.length + 4L * geometry.length;
+        }
+        ReverseIndex index = reverse;
+        if (index != null) {
+            bytes += 4 * (n + 1) + 8 * m;
+        }
+        return bytes;
+    }
+
+    // Орж ирэх ирмэгүүд: getInEdges()[getInOffsets()[v]..getInOffsets()[v+1]] нь v руу орох
+    // нумуудын индекс (жин, хугацааг шууд массиваас авна), getInSources() нь тэдгээрийн эх цэг.
+    // Нэг чиглэлтэй замыг ухраж хайхад хэрэгтэй тул анх хэрэглэх үед нь нэг удаа байгуулна.
+    public int[] getInOffsets() {
+        return reverse().offsets;
+    }
+
+    public int[] getInSources() {
+        return reverse().sources;
+    }
+
+    public int[] getInEdges() {
+        return reverse().edges;
+    }
+
+    private ReverseIndex reverse() {
+        ReverseIndex index = reverse;
+        if (index == null) {
+            synchronized (this) {
+                if (reverse == null) {
+                    reverse = new ReverseIndex(offsets, targets);
+                }
+                index = reverse;
+            }
+        }
+        return index;
+    }
+
+    private static final class ReverseIndex {
+        final int[] offsets;
+        final int[] sources;
+        final int[] edges;
+
+        ReverseIndex(int[] forwardOffsets, int[] forwardTargets) {
+            int n = forwardOffsets.length - 1;
+            int m = forwardTargets.length;
+            offsets = new int[n + 1];
+            for (int e = 0; e < m; e++) {
+                offsets[forwardTargets[e] + 1]++;
+            }
+            for (int v = 0; v < n; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+
+            int[] cursor = Arrays.copyOf(offsets, n);
+            sources = new int[m];
+            edges = new int[m];
+            for (int u = 0; u < n; u++) {
+                for (int e = forwardOffsets[u]; e < forwardOffsets[u + 1]; e++) {
+                    int slot = cursor[forwardTargets[e]]++;
+                    sources[slot] = u;
+                    edges[slot] = e;
+                }
+            }
+        }
+    }
+
+    // Зэрэгцээ нумуудаас metric-ээр хамгийн хямдыг нь сонгоно
+    public int findEdge(int from, int to, Metric metric) {
+        double[] costs = weights(metric);
+        int best = -1;
+        for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+            if (targets[e] == to && (best < 0 || costs[e] < costs[best])) {
+                best = e;
+            }
+        }
+        return best;
+    }
+
+    public static class Builder {
+        private double[] latitudes = new double[16];
+        private double[] longitudes = new double[16];
+        private int nodeCount = 0;
+
+        private int[] edgeFrom = new int[16];
+        private int[] edgeTo = new int[16];
+        private double[] edgeWeight = new double[16];
+        private double[] edgeTime = new double[16];
+        private byte[] edgeClass = new byte[16];
+        private final BitSet edgeOneWay = new BitSet();
+        private int edgeCount = 0;
+        // Нум бүрийн завсрын цэгүүд points-д; edgeGeometry[i] нь эхлэл (-1 бол байхгүй)
+        private int[] edgeGeometry;
+        private int[] edgeGeometrySize;
+        private int[] points;
+        private int pointCount = 0;
+
+        private final List<String> roadTypes = new ArrayList<>();
+        private final Map<String, Byte> roadTypeCodes = new HashMap<>();
+        private byte nullRoadTypeCode = -1;
+
+        public Builder() {
+            Arrays.fill(latitudes, Double.NaN);
+            Arrays.fill(longitudes, Double.NaN);
+        }
+
+        public Builder addNode(int id, double lat, double lon) {
+            if (id < 0) {
+                throw new IllegalArgumentException("Цэгийн ID сөрөг байж болохгүй: " + id);
+            }
+            ensureNodeCapacity(id + 1);
+            latitudes[id] = lat;
+            longitudes[id] = lon;
+            nodeCount = Math.max(nodeCount, id + 1);
+            return this;
+        }
+
+        // Хугацааг өгөөгүй бол замын төрлийн үндсэн хурдаар тооцно
+        public Builder addArc(int from, int to, double weight, String roadType, boolean oneWay) {
+            return addArc(from, to, weight, SpeedProfile.defaults().travelTime(weight, roadType, null),
+                    roadType, oneWay);
+        }
+
+        // Зөвхөн нэг чиглэлтэй нум нэмнэ; хоёр талын замд урвуу нумыг тусад нь нэмнэ.
+        public Builder addArc(int from, int to, double weight, double travelTime, String roadType, boolean oneWay) {
+            return addArc(from, to, weight, travelTime, roadType, oneWay, null, 0);
+        }
+
+        // geometry: завсрын цэгүүд (lat, lon) хосоор, 1e-7 градусаар; count нь цэгийн тоо
+        public Builder addArc(int from, int to, double weight, double travelTime, String roadType, boolean oneWay,
+                              int[] geometry, int count) {
+            if (from >= nodeCount || to >= nodeCount
+                    || Double.isNaN(latitudes[from]) || Double.isNaN(latitudes[to])) {
+                throw new IllegalArgumentException("Ирмэгийн цэг бүртгэгдээгүй: " + from + " -> " + to);
+            }
+            if (edgeCount == edgeFrom.length) {
+                int capacity = edgeFrom.length * 2;
+                edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+                edgeTo = Arrays.copyOf(edgeTo, capacity);
+                edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+                edgeTime = Arrays.copyOf(edgeTime, capacity);
+                edgeClass = Arrays.copyOf(edgeClass, capacity);
+                if (edgeGeometry != null) {
+                    edgeGeometry = Arrays.copyOf(edgeGeometry, capacity);
+                    edgeGeometrySize = Arrays.copyOf(edgeGeometrySize, capacity);
+                }
+            }
+            if (count > 0) {
+                if (edgeGeometry == null) {
+                    edgeGeometry = new int[edgeFrom.length];
+                    edgeGeometrySize = new int[edgeFrom.length];
+                    points = new int[Math.max(16, 2 * count)];
+                }
+                if (2 * (pointCount + count) > points.length) {
+                    points = Arrays.copyOf(points, Math.max(points.length * 2, 2 * (pointCount + count)));
+                }
+                System.arraycopy(geometry, 0, points, 2 * pointCount, 2 * count);
+                edgeGeometry[edgeCount] = pointCount;
+                edgeGeometrySize[edgeCount] = count;
+                pointCount += count;
+            }
+            edgeFrom[edgeCount] = from;
+            edgeTo[edgeCount] = to;
+            edgeWeight[edgeCount] = weight;
+            edgeTime[edgeCount] = travelTime;
+            edgeClass[edgeCount] = roadTypeCode(roadType);
+            if (oneWay) {
+                edgeOneWay.set(edgeCount);
+            }
+            edgeCount++;
+            return this;
+        }
+
+        public int getNodeCount() {
+            return nodeCount;
+        }
+
+        public int getEdgeCount() {
+            return edgeCount;
+        }
+
+        public double getLatitude(int id) {
+            return latitudes[id];
+        }
+
+        public double getLongitude(int id) {
+            return longitudes[id];
+        }
+
+        private byte roadTypeCode(String roadType) {
+            if (roadType == null) {
+                if (nullRoadTypeCode < 0) {
+                    nullRoadTypeCode = registerRoadType(null);
+                }
+                return nullRoadTypeCode;
+            }
+            Byte code = roadTypeCodes.get(roadType);
+            if (code == null) {
+                code = registerRoadType(roadType);
+                roadTypeCodes.put(roadType, code);
+            }
+            return code;
+        }
+
+        private byte registerRoadType(String roadType) {
+            if (roadTypes.size() > Byte.MAX_VALUE) {
+                throw new IllegalStateException("Замын төрөл хэт олон байна: " + roadTypes.size());
+            }
+            roadTypes.add(roadType);
+            return (byte) (roadTypes.size() - 1);
+        }
+
+        private void ensureNodeCapacity(int required) {
+            if (required <= latitudes.length) return;
+            int capacity = Math.max(required, latitudes.length * 2);
+            int old = latitudes.length;
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            Arrays.fill(latitudes, old, capacity, Double.NaN);
+            Arrays.fill(longitudes, old, capacity, Double.NaN);
+        }
+
+        public CsrGraph build() {
+            int n = nodeCount;
+            int m = edgeCount;
+
+            // Counting sort: эх цэгээр нь бүлэглэнэ, нэмсэн дараалал хадгалагдана
+            int[] offsets = new int[n + 1];
+            for (int i = 0; i < m; i++) {
+                offsets[edgeFrom[i] + 1]++;
+            }
+            for (int v = 0; v < n; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+
+            int[] cursor = Arrays.copyOf(offsets, n);
+            int[] targets = new int[m];
+            double[] weights = new double[m];
+            double[] times = new double[m];
+            byte[] classes = new byte[m];
+            BitSet oneWay = new BitSet(m);
+            for (int i = 0; i < m; i++) {
+                int slot = cursor[edgeFrom[i]]++;
+                targets[slot] = edgeTo[i];
+                weights[slot] = edgeWeight[i];
+                times[slot] = edgeTime[i];
+                classes[slot] = edgeClass[i];
+                if (edgeOneWay.get(i)) {
+                    oneWay.set(slot);
+                }
+            }
+
+            // Завсрын цэгүүдийг нумын шинэ дарааллаар нь нягт массивт хуулна
+            int[] geometryOffsets = null;
+            int[] geometry = null;
+            if (edgeGeometry != null) {
+                int[] slotOf = new int[m];
+                int[] position = Arrays.copyOf(offsets, n);
+                for (int i = 0; i < m; i++) {
+                    slotOf[i] = position[edgeFrom[i]]++;
+                }
+                geometryOffsets = new int[m + 1];
+                for (int i = 0; i < m; i++) {
+                    geometryOffsets[slotOf[i] + 1] = edgeGeometrySize[i];
+                }
+                for (int e = 0; e < m; e++) {
+                    geometryOffsets[e + 1] += geometryOffsets[e];
+                }
+                geometry = new int[2 * pointCount];
+                for (int i = 0; i < m; i++) {
+                    System.arraycopy(points, 2 * edgeGeometry[i], geometry,
+                            2 * geometryOffsets[slotOf[i]], 2 * edgeGeometrySize[i]);
+                }
+            }
+
+            return new CsrGraph(
+                    Arrays.copyOf(latitudes, n),
+                    Arrays.copyOf(longitudes, n),
+                    offsets, targets, weights, times, classes, oneWay,
+                    roadTypes.toArray(new String[0]),
+                    geometryOffsets, geometry
+            );
+        }
+    }
+}
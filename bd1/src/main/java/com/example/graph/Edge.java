@@ -5,13 +5,19 @@ public class Edge {
     private final Node from;
     private final Node to;
     private final double weight;
+    private final double travelTime;
     private final String roadType;
     private final boolean oneWay;
 
     public Edge(Node from, Node to, double weight, String roadType, boolean oneWay) {
+        this(from, to, weight, SpeedProfile.defaults().travelTime(weight, roadType, null), roadType, oneWay);
+    }
+
+    public Edge(Node from, Node to, double weight, double travelTime, String roadType, boolean oneWay) {
         this.from = from;
         this.to = to;
         this.weight = weight;
+        this.travelTime = travelTime;
         this.roadType = roadType;
         this.oneWay = oneWay;
     }
@@ -28,6 +34,11 @@ public class Edge {
         return weight;
     }
 
+    // Минутаар
+    public double getTravelTime() {
+        return travelTime;
+    }
+
     public String getRoadType() {
         return roadType;
     }
@@ -4,21 +4,37 @@ import java.util.*;
 
 
 public class Graph {
-    // Adjacency List: цэг -> түүнээс гарах ирмэгүүд
-    private final Map<Long, Node> nodes;
-    private final Map<Long, List<Edge>> adjacencyList;
+    // Adjacency List: цэг -> түүнээс гарах ирмэгүүд (зөвхөн график угсрах үед)
+    private Map<Long, Node> nodes;
+    private Map<Long, List<Edge>> adjacencyList;
+
+    // compact() хийсний дараа бүх өгөгдөл CSR массивуудад шилжинэ. Node/Edge объектуудыг
+    // хадгалахгүй: getNode, getNodes, getEdges нь тэдгээрийг дуудах үед CSR-ээс үүсгэнэ.
+    private volatile CsrGraph csr;
+    private volatile SpatialIndex spatialIndex;
+    private volatile Components components;
 
     public Graph() {
         this.nodes = new HashMap<>();
         this.adjacencyList = new HashMap<>();
     }
 
+    private Graph(CsrGraph csr) {
+        attach(csr);
+    }
+
+    public static Graph fromCsr(CsrGraph csr) {
+        return new Graph(csr);
+    }
+
     public void addNode(Node node) {
+        ensureMutable();
         nodes.put(node.getId(), node);
         adjacencyList.putIfAbsent(node.getId(), new ArrayList<>());
     }
 
     public void addEdge(Edge edge) {
+        ensureMutable();
         long fromId = edge.getFrom().getId();
         long toId = edge.getTo().getId();
 
@@ -32,6 +48,7 @@ public class Graph {
                     edge.getTo(),
                     edge.getFrom(),
                     edge.getWeight(),
+                    edge.getTravelTime(),
                     edge.getRoadType(),
                     false
             );
@@ -39,35 +56,201 @@ public class Graph {
         }
     }
 
+    // Угсарсан графыг өөрчлөгдөхгүй CSR хэлбэрт шилжүүлж, Map-уудыг чөлөөлнө.
+    public synchronized CsrGraph compact() {
+        if (csr != null) {
+            return csr;
+        }
+
+        List<Long> ids = new ArrayList<>(nodes.keySet());
+        Collections.sort(ids);
+
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        for (long id : ids) {
+            if (id < 0 || id > Integer.MAX_VALUE - 1) {
+                throw new IllegalStateException("CSR-д тохиромжгүй цэгийн ID: " + id);
+            }
+            Node node = nodes.get(id);
+            builder.addNode((int) id, node.getLatitude(), node.getLongitude());
+        }
+        for (long id : ids) {
+            for (Edge edge : adjacencyList.get(id)) {
+                builder.addArc((int) id, (int) edge.getTo().getId(),
+                        edge.getWeight(), edge.getTravelTime(), edge.getRoadType(), edge.isOneWay());
+            }
+        }
+
+        attach(builder.build());
+        return csr;
+    }
+
+    public CsrGraph getCsr() {
+        CsrGraph current = csr;
+        return current != null ? current : compact();
+    }
+
+    public SpatialIndex getSpatialIndex() {
+        SpatialIndex index = spatialIndex;
+        if (index == null) {
+            synchronized (this) {
+                if (spatialIndex == null) {
+                    spatialIndex = SpatialIndex.build(getCsr());
+                }
+                index = spatialIndex;
+            }
+        }
+        return index;
+    }
+
+    public Components getComponents() {
+        Components result = components;
+        if (result == null) {
+            synchronized (this) {
+                if (components == null) {
+                    components = Components.compute(getCsr());
+                }
+                result = components;
+            }
+        }
+        return result;
+    }
+
+    public boolean isCompact() {
+        return csr != null;
+    }
+
+    private void attach(CsrGraph compacted) {
+        this.nodes = null;
+        this.adjacencyList = null;
+        this.csr = compacted;
+    }
+
+    private void ensureMutable() {
+        if (csr != null) {
+            throw new IllegalStateException("График CSR хэлбэрт шилжсэн тул өөрчлөх боломжгүй");
+        }
+    }
+
     public Node getNode(long id) {
-        return nodes.get(id);
+        if (csr == null) {
+            return nodes.get(id);
+        }
+        return csr.contains(id) ? new Node(id, csr.getLatitude((int) id), csr.getLongitude((int) id)) : null;
     }
 
+    // CSR хэлбэрт өөрчлөгдөхгүй view; Node-уудыг давтах явцад үүсгэнэ
     public Collection<Node> getNodes() {
-        return nodes.values();
+        CsrGraph current = csr;
+        if (current == null) {
+            return nodes.values();
+        }
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Node> iterator() {
+                return new Iterator<>() {
+                    private int next = advance(0);
+
+                    private int advance(int id) {
+                        while (id < current.getNodeCount() && !current.contains(id)) {
+                            id++;
+                        }
+                        return id;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < current.getNodeCount();
+                    }
+
+                    @Override
+                    public Node next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int id = next;
+                        next = advance(id + 1);
+                        return new Node(id, current.getLatitude(id), current.getLongitude(id));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return current.getPresentNodeCount();
+            }
+        };
+    }
+
+    // Цэгийн ID-уудын дараалал дээрх өөрчлөгдөхгүй view; Node-ийг get(i) дуудахад л үүсгэнэ
+    public List<Node> getNodes(int[] ids) {
+        return new AbstractList<>() {
+            @Override
+            public Node get(int index) {
+                return getNode(ids[index]);
+            }
+
+            @Override
+            public int size() {
+                return ids.length;
+            }
+        };
     }
 
     public List<Edge> getEdges(long nodeId) {
-        return adjacencyList.getOrDefault(nodeId, new ArrayList<>());
+        if (csr == null) {
+            return adjacencyList.getOrDefault(nodeId, new ArrayList<>());
+        }
+        if (!csr.contains(nodeId)) {
+            return new ArrayList<>();
+        }
+
+        // Өөрчлөгдөхгүй view: Edge-ийг get(i) дуудахад л үүсгэнэ
+        CsrGraph current = csr;
+        Node from = getNode(nodeId);
+        int first = current.firstEdge((int) nodeId);
+        int count = current.endEdge((int) nodeId) - first;
+        return new AbstractList<>() {
+            @Override
+            public Edge get(int index) {
+                Objects.checkIndex(index, count);
+                int e = first + index;
+                return new Edge(from, getNode(current.getTarget(e)), current.getWeight(e),
+                        current.getTravelTime(e), current.getRoadType(e), current.isOneWay(e));
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
     }
 
     public void printStats() {
         System.out.println("=== Графын мэдээлэл ===");
-        System.out.println("Цэгүүдийн тоо: " + nodes.size());
-
-        int totalEdges = 0;
-        for (List<Edge> edges : adjacencyList.values()) {
-            totalEdges += edges.size();
-        }
-        System.out.println("Ирмэгүүдийн тоо: " + totalEdges);
+        System.out.println("Цэгүүдийн тоо: " + size());
 
         Map<String, Integer> roadTypeCounts = new HashMap<>();
-        for (List<Edge> edges : adjacencyList.values()) {
-            for (Edge edge : edges) {
-                String type = edge.getRoadType();
-                roadTypeCounts.put(type, roadTypeCounts.getOrDefault(type, 0) + 1);
+        int totalEdges = 0;
+        if (csr == null) {
+            for (List<Edge> edges : adjacencyList.values()) {
+                totalEdges += edges.size();
+                for (Edge edge : edges) {
+                    String type = edge.getRoadType();
+                    roadTypeCounts.put(type, roadTypeCounts.getOrDefault(type, 0) + 1);
+                }
+            }
+        } else {
+            totalEdges = csr.getEdgeCount();
+            String[] types = csr.getRoadTypes();
+            int[] counts = new int[types.length];
+            for (int e = 0; e < totalEdges; e++) {
+                counts[csr.getRoadClass(e)]++;
+            }
+            for (int i = 0; i < types.length; i++) {
+                roadTypeCounts.put(types[i], counts[i]);
             }
         }
+        System.out.println("Ирмэгүүдийн тоо: " + totalEdges);
 
         System.out.println("\nЗамын төрлүүд:");
         roadTypeCounts.forEach((type, count) ->
@@ -75,6 +258,11 @@ public class Graph {
     }
 
     public boolean hasEdge(long fromId, long toId) {
+        if (csr != null) {
+            return csr.contains(fromId) && csr.contains(toId)
+                    && csr.findEdge((int) fromId, (int) toId) >= 0;
+        }
+
         List<Edge> edges = adjacencyList.get(fromId);
         if (edges == null) return false;
 
@@ -86,7 +274,18 @@ public class Graph {
         return false;
     }
 
+    // CSR массивууд ба spatial index; Node объект хадгалахгүй
+    public long estimateHeapBytes() {
+        CsrGraph current = getCsr();
+        long bytes = current.estimateBytes();
+        SpatialIndex index = spatialIndex;
+        if (index != null) {
+            bytes += index.estimateBytes();
+        }
+        return bytes;
+    }
+
     public int size() {
-        return nodes.size();
+        return csr == null ? nodes.size() : csr.getPresentNodeCount();
     }
-}
\ No newline at end of file
+}
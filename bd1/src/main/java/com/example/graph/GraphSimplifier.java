@@ -0,0 +1,164 @@
+package com.example.graph;
+
+import java.util.Arrays;
+
+// Зөвхөн хэлбэр заасан (degree-2) цэгүүдийн гинжийг нэг жинтэй нум болгож хураана. Хураасан
+// цэгүүдийн координат нумын geometry-д үлдэх тул замыг бүтэн зурах боломжтой. Цэгийн ID
+// өөрчлөгдөхгүй, хураасан цэгүүд present биш болно.
+// Хураах нөхцөл: хоёр талын замд яг хоёр өөр хөрш, хоёр чиглэлд нэг нэг нум; нэг чиглэлтэд
+// нэг орох, нэг гарах нум. Бүх нум ижил ангилал, ижил нэг чиглэлийн тэмдэгтэй байна.
+public final class GraphSimplifier {
+
+    private GraphSimplifier() {
+    }
+
+    public static CsrGraph simplify(CsrGraph csr) {
+        long startTime = System.nanoTime();
+        int n = csr.getNodeCount();
+        int[] offsets = csr.getOffsets();
+
+        boolean[] contractible = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            contractible[v] = csr.contains(v) && isShapePoint(csr, v);
+        }
+
+        // Хадгалах цэгүүдээс гинжүүдийг гүйж хүрсэн завсрын цэгүүдийг тэмдэглэнэ. Хүрэгдээгүй
+        // хураах цэг нь бүхэлдээ завсрын цэгээс тогтсон тойрог тул нэг цэгийг нь хадгална.
+        Chain chain = new Chain();
+        boolean[] visited = new boolean[n];
+        for (int u = 0; u < n; u++) {
+            if (!csr.contains(u) || contractible[u]) continue;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                walk(csr, contractible, u, e, chain, visited);
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            if (contractible[v] && !visited[v]) {
+                contractible[v] = false;
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    walk(csr, contractible, v, e, chain, visited);
+                }
+            }
+        }
+
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        for (int v = 0; v < n; v++) {
+            if (csr.contains(v) && !contractible[v]) {
+                builder.addNode(v, csr.getLatitude(v), csr.getLongitude(v));
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            if (!csr.contains(u) || contractible[u]) continue;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int end = walk(csr, contractible, u, e, chain, null);
+                builder.addArc(u, end, chain.weight, chain.travelTime, csr.getRoadType(e), csr.isOneWay(e),
+                        chain.points, chain.count);
+            }
+        }
+        CsrGraph simplified = builder.build();
+
+        System.out.println("Граф хураалт: цэг " + csr.getPresentNodeCount() + " -> "
+                + simplified.getPresentNodeCount() + ", нум " + csr.getEdgeCount() + " -> "
+                + simplified.getEdgeCount() + " (" + String.format("%.1f", (System.nanoTime() - startTime) / 1_000_000.0)
+                + " мс)");
+        return simplified;
+    }
+
+    // u-ийн нум e-ээс эхлээд хураах цэгүүдийг дайран хадгалах цэг хүртэл явна; төгсгөлийг буцаана.
+    // Жин, хугацаа, завсрын цэгүүдийг chain-д хуримтлуулна.
+    private static int walk(CsrGraph csr, boolean[] contractible, int u, int e, Chain chain, boolean[] visited) {
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        double[] weights = csr.getWeights();
+        double[] travelTimes = csr.getTravelTimes();
+
+        chain.reset();
+        int prev = u;
+        int edge = e;
+        int current = targets[e];
+        chain.add(csr, edge, weights[edge], travelTimes[edge]);
+        while (contractible[current]) {
+            if (visited != null) {
+                visited[current] = true;
+            }
+            chain.addPoint(csr.getLatitude(current), csr.getLongitude(current));
+            // Хоёр талын замд ирсэн хөрш рүү буцахгүй
+            int first = offsets[current];
+            edge = offsets[current + 1] - first == 1 || targets[first] != prev ? first : first + 1;
+            chain.add(csr, edge, weights[edge], travelTimes[edge]);
+            prev = current;
+            current = targets[edge];
+        }
+        return current;
+    }
+
+    private static boolean isShapePoint(CsrGraph csr, int v) {
+        int[] inOffsets = csr.getInOffsets();
+        int[] inSources = csr.getInSources();
+        int[] inEdges = csr.getInEdges();
+        int outStart = csr.firstEdge(v);
+        int outCount = csr.endEdge(v) - outStart;
+        int inStart = inOffsets[v];
+        int inCount = inOffsets[v + 1] - inStart;
+
+        if (outCount == 1 && inCount == 1) {
+            int out = outStart;
+            int in = inEdges[inStart];
+            int a = inSources[inStart];
+            int b = csr.getTarget(out);
+            return a != b && a != v && b != v
+                    && csr.getRoadClass(in) == csr.getRoadClass(out) && csr.isOneWay(in) == csr.isOneWay(out);
+        }
+        if (outCount == 2 && inCount == 2) {
+            int a = csr.getTarget(outStart);
+            int b = csr.getTarget(outStart + 1);
+            int c = inSources[inStart];
+            int d = inSources[inStart + 1];
+            if (a == b || a == v || b == v || !((a == c && b == d) || (a == d && b == c))) {
+                return false;
+            }
+            int roadClass = csr.getRoadClass(outStart);
+            boolean oneWay = csr.isOneWay(outStart);
+            int[] arcs = {outStart, outStart + 1, inEdges[inStart], inEdges[inStart + 1]};
+            for (int arc : arcs) {
+                if (csr.getRoadClass(arc) != roadClass || csr.isOneWay(arc) != oneWay) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // Гинжийн хуримтлуулагч; нум бүрт дахин ашиглана
+    private static final class Chain {
+        double weight;
+        double travelTime;
+        int[] points = new int[32];
+        int count;
+
+        void reset() {
+            weight = 0;
+            travelTime = 0;
+            count = 0;
+        }
+
+        // Нумын өөрийн geometry (аль хэдийн хураасан граф байж болно)
+        void add(CsrGraph csr, int edge, double edgeWeight, double edgeTime) {
+            weight += edgeWeight;
+            travelTime += edgeTime;
+            for (int i = 0; i < csr.getGeometrySize(edge); i++) {
+                addPoint(csr.getGeometryLatitude(edge, i), csr.getGeometryLongitude(edge, i));
+            }
+        }
+
+        void addPoint(double lat, double lon) {
+            if (2 * count + 2 > points.length) {
+                points = Arrays.copyOf(points, points.length * 2);
+            }
+            points[2 * count] = (int) Math.round(lat * CsrGraph.GEOMETRY_SCALE);
+            points[2 * count + 1] = (int) Math.round(lon * CsrGraph.GEOMETRY_SCALE);
+            count++;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.example.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.CRC32C;
+
+// CSR графын хоёртын snapshot. Бүтэц (little-endian):
+//   header: magic, version, sourceLength, sourceModified, buildTag,
+//           nodeCount, edgeCount, roadTypes[]
+//   body:   latitudes, longitudes, offsets, targets, weights, travelTimes, roadClasses, oneWay,
+//           geometryPoints (-1 бол geometry-гүй), geometryOffsets[m+1], geometry[2*points]
+//   footer: CRC32C (өмнөх бүх байт)
+public final class GraphSnapshot {
+    private static final int MAGIC = 0x55424752; // "UBGR"
+    public static final int VERSION = 3;
+
+    private GraphSnapshot() {
+    }
+
+    // Snapshot-ийг үүсгэсэн эх файлын мэдээлэл; таарахгүй бол snapshot хуучирсан гэж үзнэ.
+    // length < 0 бол эх файл тодорхойгүй тул зөвхөн buildTag-ийг шалгана.
+    public record Source(long length, long lastModified, String buildTag) {
+        boolean matches(long otherLength, long otherModified) {
+            return length < 0 || (length == otherLength && lastModified == otherModified);
+        }
+    }
+
+    public static void write(CsrGraph csr, Source source, Path target) throws IOException {
+        byte[][] roadTypes = encodeRoadTypes(csr.getRoadTypes());
+        byte[] buildTag = source.buildTag().getBytes(StandardCharsets.UTF_8);
+        long[] oneWay = csr.oneWayBits().toLongArray();
+        int n = csr.getNodeCount();
+        int m = csr.getEdgeCount();
+        int[] geometryOffsets = csr.geometryOffsets();
+        int[] geometry = csr.geometry();
+
+        // Бичих талд mmap ашиглахгүй: map хийсэн файлыг Windows дээр солих боломжгүй.
+        // Тогтмол хэмжээтэй буферээр хэсэгчлэн бичих тул файлын хэмжээ 2GB-аар хязгаарлагдахгүй.
+        // Эхлээд түр файлд бичээд дараа нь атомаар солино
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Writer out = new Writer(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putLong(source.length());
+            out.putLong(source.lastModified());
+            out.putInt(buildTag.length);
+            out.putBytes(buildTag);
+            out.putInt(n);
+            out.putInt(m);
+            out.putInt(roadTypes.length);
+            for (byte[] type : roadTypes) {
+                out.putInt(type == null ? -1 : type.length);
+                if (type != null) {
+                    out.putBytes(type);
+                }
+            }
+
+            out.putDoubles(csr.latitudes());
+            out.putDoubles(csr.longitudes());
+            out.putInts(csr.getOffsets());
+            out.putInts(csr.getTargets());
+            out.putDoubles(csr.getWeights());
+            out.putDoubles(csr.getTravelTimes());
+            out.putBytes(csr.roadClasses());
+            out.putInt(oneWay.length);
+            for (long word : oneWay) {
+                out.putLong(word);
+            }
+            if (geometryOffsets == null) {
+                out.putInt(-1);
+            } else {
+                out.putInt(geometry.length / 2);
+                out.putInts(geometryOffsets);
+                out.putInts(geometry);
+            }
+            out.finish();
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Snapshot байхгүй, хуучирсан эсвэл эвдэрсэн бол null буцаана.
+    // Файлыг цонх цонхоор map хийж массивууд руу нэг удаа хуулна: CsrGraph болон хайлтууд
+    // int[]/double[] дээр ажилладаг (хамгийн халуун давталтууд, traffic-ийн жингийн хуулбар)
+    // тул buffer-ийн view хадгалахгүй.
+    public static CsrGraph read(Path file, Source expected) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 32) {
+                return null;
+            }
+
+            // Толгойг энгийн read-ээр шалгана - хуучирсан файлыг map хийвэл дахин бичих боломжгүй болдог
+            ByteBuffer header = ByteBuffer.allocate(28).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // дүүртэл уншина
+            }
+            header.flip();
+            if (header.remaining() < 28 || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                return null;
+            }
+            long sourceLength = header.getLong();
+            long sourceModified = header.getLong();
+            if (expected != null && !expected.matches(sourceLength, sourceModified)) {
+                return null;
+            }
+
+            Reader in = new Reader(channel, size);
+            in.seek(24);
+            String buildTag = new String(in.getBytes(in.getInt()), StandardCharsets.UTF_8);
+            if (expected != null && !buildTag.equals(expected.buildTag())) {
+                return null;
+            }
+
+            long body = in.position();
+            long checksum = in.checksum(size - 8);
+            in.seek(size - 8);
+            if (checksum != in.getLong()) {
+                System.err.println("Snapshot-ийн checksum таарсангүй: " + file);
+                return null;
+            }
+            in.seek(body);
+
+            int n = in.getInt();
+            int m = in.getInt();
+            String[] roadTypes = new String[in.getInt()];
+            for (int i = 0; i < roadTypes.length; i++) {
+                int length = in.getInt();
+                roadTypes[i] = length < 0 ? null : new String(in.getBytes(length), StandardCharsets.UTF_8);
+            }
+
+            double[] latitudes = in.getDoubles(n);
+            double[] longitudes = in.getDoubles(n);
+            int[] offsets = in.getInts(n + 1);
+            int[] targets = in.getInts(m);
+            double[] weights = in.getDoubles(m);
+            double[] travelTimes = in.getDoubles(m);
+            byte[] roadClasses = in.getBytes(m);
+            long[] oneWay = new long[in.getInt()];
+            for (int i = 0; i < oneWay.length; i++) {
+                oneWay[i] = in.getLong();
+            }
+            int geometryPoints = in.getInt();
+            int[] geometryOffsets = geometryPoints < 0 ? null : in.getInts(m + 1);
+            int[] geometry = geometryPoints < 0 ? null : in.getInts(2 * geometryPoints);
+
+            return new CsrGraph(latitudes, longitudes, offsets, targets, weights, travelTimes,
+                    roadClasses, BitSet.valueOf(oneWay), roadTypes, geometryOffsets, geometry);
+        } catch (RuntimeException e) {
+            // Буруу хэмжээтэй эсвэл таслагдсан файл
+            System.err.println("Snapshot уншихад алдаа: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[][] encodeRoadTypes(String[] roadTypes) {
+        byte[][] encoded = new byte[roadTypes.length][];
+        for (int i = 0; i < roadTypes.length; i++) {
+            encoded[i] = roadTypes[i] == null ? null : roadTypes[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return encoded;
+    }
+
+    // Тогтмол буферээр дамжуулан бичиж, бичсэн байтаар CRC32C тооцно; finish() нь checksum-ийг нэмнэ
+    private static final class Writer {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C crc = new CRC32C();
+
+        Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void putBytes(byte[] values) throws IOException {
+            for (int i = 0; i < values.length; ) {
+                ensure(1);
+                int count = Math.min(values.length - i, buffer.remaining());
+                buffer.put(values, i, count);
+                i += count;
+            }
+        }
+
+        void putInts(int[] values) throws IOException {
+            for (int i = 0; i < values.length; ) {
+                ensure(4);
+                int count = Math.min(values.length - i, buffer.remaining() / 4);
+                buffer.asIntBuffer().put(values, i, count);
+                buffer.position(buffer.position() + count * 4);
+                i += count;
+            }
+        }
+
+        void putDoubles(double[] values) throws IOException {
+            for (int i = 0; i < values.length; ) {
+                ensure(8);
+                int count = Math.min(values.length - i, buffer.remaining() / 8);
+                buffer.asDoubleBuffer().put(values, i, count);
+                buffer.position(buffer.position() + count * 8);
+                i += count;
+            }
+        }
+
+        void finish() throws IOException {
+            flush();
+            buffer.putLong(crc.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            crc.update(buffer.array(), 0, buffer.position());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    // Файлыг WINDOW хүртэлх хэсгээр map хийн дараалан уншина; MappedByteBuffer нь int индекстэй
+    // тул нэг map 2GB-аас хэтэрч чадахгүй
+    private static final class Reader {
+        private static final long WINDOW = 1L << 30;
+
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        Reader(FileChannel channel, long size) {
+            this.channel = channel;
+            this.size = size;
+        }
+
+        void seek(long position) throws IOException {
+            if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+                map(position);
+            } else {
+                window.position((int) (position - windowStart));
+            }
+        }
+
+        long position() {
+            return windowStart + window.position();
+        }
+
+        int getInt() throws IOException {
+            ensure(4);
+            return window.getInt();
+        }
+
+        long getLong() throws IOException {
+            ensure(8);
+            return window.getLong();
+        }
+
+        byte[] getBytes(int count) throws IOException {
+            byte[] values = new byte[count];
+            for (int i = 0; i < count; ) {
+                ensure(1);
+                int chunk = Math.min(count - i, window.remaining());
+                window.get(values, i, chunk);
+                i += chunk;
+            }
+            return values;
+        }
+
+        int[] getInts(int count) throws IOException {
+            int[] values = new int[count];
+            for (int i = 0; i < count; ) {
+                ensure(4);
+                int chunk = Math.min(count - i, window.remaining() / 4);
+                window.asIntBuffer().get(values, i, chunk);
+                window.position(window.position() + chunk * 4);
+                i += chunk;
+            }
+            return values;
+        }
+
+        double[] getDoubles(int count) throws IOException {
+            double[] values = new double[count];
+            for (int i = 0; i < count; ) {
+                ensure(8);
+                int chunk = Math.min(count - i, window.remaining() / 8);
+                window.asDoubleBuffer().get(values, i, chunk);
+                window.position(window.position() + chunk * 8);
+                i += chunk;
+            }
+            return values;
+        }
+
+        // [0, end) байтын CRC32C
+        long checksum(long end) throws IOException {
+            CRC32C crc = new CRC32C();
+            for (long position = 0; position < end; ) {
+                seek(position);
+                int chunk = (int) Math.min(end - position, window.remaining());
+                crc.update(window.slice(window.position(), chunk));
+                position += chunk;
+            }
+            return crc.getValue();
+        }
+
+        // Дараагийн утга цонхны заагийг давбал тухайн байрлалаас шинэ цонх map хийнэ
+        private void ensure(int bytes) throws IOException {
+            if (window.remaining() < bytes) {
+                map(position());
+                if (window.remaining() < bytes) {
+                    throw new IllegalStateException("Snapshot таслагдсан байна");
+                }
+            }
+        }
+
+        private void map(long position) throws IOException {
+            if (position > size) {
+                throw new IllegalStateException("Snapshot таслагдсан байна");
+            }
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW, size - position));
+            window.order(ByteOrder.LITTLE_ENDIAN);
+            windowStart = position;
+        }
+    }
+}
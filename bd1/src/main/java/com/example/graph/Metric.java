@@ -0,0 +1,28 @@
+package com.example.graph;
+
+import java.util.Locale;
+
+// Хайлтын зардал: зай (км) эсвэл явах хугацаа (минут)
+public enum Metric {
+    DISTANCE,
+    TIME;
+
+    // null эсвэл хоосон бол DISTANCE
+    public static Metric parse(String value) {
+        if (value == null || value.isBlank()) {
+            return DISTANCE;
+        }
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "distance":
+                return DISTANCE;
+            case "time":
+                return TIME;
+            default:
+                throw new IllegalArgumentException("Үл мэдэгдэх metric: " + value + " (time|distance)");
+        }
+    }
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -27,12 +27,18 @@ public class Node {
     }
 
     public double distanceTo(Node other) {
+        return haversine(this.latitude, this.longitude, other.latitude, other.longitude);
+    }
+
+    // Хоёр координатын хоорондох зай (км)
+    public static double haversine(double latitude1, double longitude1,
+                                   double latitude2, double longitude2) {
         final int R = 6371;
 
-        double lat1 = Math.toRadians(this.latitude);
-        double lat2 = Math.toRadians(other.latitude);
-        double deltaLat = Math.toRadians(other.latitude - this.latitude);
-        double deltaLon = Math.toRadians(other.longitude - this.longitude);
+        double lat1 = Math.toRadians(latitude1);
+        double lat2 = Math.toRadians(latitude2);
+        double deltaLat = Math.toRadians(latitude2 - latitude1);
+        double deltaLon = Math.toRadians(longitude2 - longitude1);
 
         double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2) +
                 Math.cos(lat1) * Math.cos(lat2) *
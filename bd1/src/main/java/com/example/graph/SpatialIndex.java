@@ -0,0 +1,311 @@
+package com.example.graph;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+// Цэгүүдийг тэгш хэмтэй торын нүдэнд хуваарилсан статик индекс.
+// Нүднүүдийг цагираг хэлбэрээр тэлж хайна, эцсийн нэр дэвшигчдэд л haversine тооцно.
+public class SpatialIndex {
+    private static final double KM_PER_DEGREE = 6371 * Math.PI / 180;
+    private static final int TARGET_NODES_PER_CELL = 8;
+    // Хавтгай ойролцоололын доод хязгаарыг haversine-ээс бага байлгах нөөц
+    private static final double BOUND_SLACK = 0.99;
+
+    private final CsrGraph csr;
+    private final double minLat;
+    private final double minLon;
+    private final double cellLat;
+    private final double cellLon;
+    private final int rows;
+    private final int cols;
+    private final int[] cellStart;
+    private final int[] cellNodes;
+    private final double cellHeightKm;
+    private final double cellWidthKm;
+
+    private SpatialIndex(CsrGraph csr, double minLat, double minLon, double cellLat, double cellLon,
+                         int rows, int cols, int[] cellStart, int[] cellNodes) {
+        this.csr = csr;
+        this.minLat = minLat;
+        this.minLon = minLon;
+        this.cellLat = cellLat;
+        this.cellLon = cellLon;
+        this.rows = rows;
+        this.cols = cols;
+        this.cellStart = cellStart;
+        this.cellNodes = cellNodes;
+
+        double maxAbsLat = Math.min(90, Math.max(Math.abs(minLat), Math.abs(minLat + rows * cellLat)));
+        this.cellHeightKm = cellLat * KM_PER_DEGREE * BOUND_SLACK;
+        this.cellWidthKm = cellLon * KM_PER_DEGREE * Math.cos(Math.toRadians(maxAbsLat)) * BOUND_SLACK;
+    }
+
+    public static SpatialIndex build(CsrGraph csr) {
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        int count = 0;
+        for (int v = 0; v < csr.getNodeCount(); v++) {
+            if (!csr.contains(v)) continue;
+            minLat = Math.min(minLat, csr.getLatitude(v));
+            maxLat = Math.max(maxLat, csr.getLatitude(v));
+            minLon = Math.min(minLon, csr.getLongitude(v));
+            maxLon = Math.max(maxLon, csr.getLongitude(v));
+            count++;
+        }
+        if (count == 0) {
+            return new SpatialIndex(csr, 0, 0, 1, 1, 1, 1, new int[2], new int[0]);
+        }
+
+        // Нүднүүдийг км-ээр ойролцоогоор дөрвөлжин байлгана
+        double lonScale = Math.max(0.01, Math.cos(Math.toRadians((minLat + maxLat) / 2)));
+        double heightDeg = Math.max(maxLat - minLat, 1e-6);
+        double widthDeg = Math.max(maxLon - minLon, 1e-6);
+        int targetCells = Math.max(1, count / TARGET_NODES_PER_CELL);
+        double cellLat = Math.sqrt(heightDeg * widthDeg * lonScale / targetCells);
+        double cellLon = cellLat / lonScale;
+        int rows = (int) Math.min(4096, Math.max(1, Math.ceil(heightDeg / cellLat)));
+        int cols = (int) Math.min(4096, Math.max(1, Math.ceil(widthDeg / cellLon)));
+        cellLat = heightDeg / rows * (1 + 1e-9);
+        cellLon = widthDeg / cols * (1 + 1e-9);
+
+        int[] cellOf = new int[csr.getNodeCount()];
+        int[] cellStart = new int[rows * cols + 1];
+        for (int v = 0; v < csr.getNodeCount(); v++) {
+            if (!csr.contains(v)) continue;
+            int row = clamp((int) ((csr.getLatitude(v) - minLat) / cellLat), rows);
+            int col = clamp((int) ((csr.getLongitude(v) - minLon) / cellLon), cols);
+            cellOf[v] = row * cols + col;
+            cellStart[cellOf[v] + 1]++;
+        }
+        for (int c = 0; c < rows * cols; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] cursor = Arrays.copyOf(cellStart, rows * cols);
+        int[] cellNodes = new int[count];
+        for (int v = 0; v < csr.getNodeCount(); v++) {
+            if (!csr.contains(v)) continue;
+            cellNodes[cursor[cellOf[v]]++] = v;
+        }
+
+        return new SpatialIndex(csr, minLat, minLon, cellLat, cellLon, rows, cols, cellStart, cellNodes);
+    }
+
+    private static int clamp(int index, int size) {
+        return index < 0 ? 0 : (index >= size ? size - 1 : index);
+    }
+
+    private int rowOf(double lat) {
+        return clamp((int) Math.floor((lat - minLat) / cellLat), rows);
+    }
+
+    private int colOf(double lon) {
+        return clamp((int) Math.floor((lon - minLon) / cellLon), cols);
+    }
+
+    // ring-ээс цааших нүднүүд дэх цэгүүдийн хүрэх зайн доод хязгаар (км)
+    private double ringLowerBound(int ring) {
+        return ring * Math.min(cellHeightKm, cellWidthKm);
+    }
+
+    private boolean ringOutsideGrid(int row, int col, int ring) {
+        return row - ring < 0 && row + ring >= rows && col - ring < 0 && col + ring >= cols;
+    }
+
+    public int nearest(double lat, double lon) {
+        return nearest(lat, lon, null);
+    }
+
+    // accept-д тэнцэх хамгийн ойр цэг (null бол бүх цэг); олдохгүй бол -1
+    public int nearest(double lat, double lon, IntPredicate accept) {
+        if (cellNodes.length == 0) {
+            return -1;
+        }
+        int row = rowOf(lat);
+        int col = colOf(lon);
+
+        int best = -1;
+        double bestDistance = Double.MAX_VALUE;
+        for (int ring = 0; ; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                if (r < 0 || r >= rows) continue;
+                boolean edgeRow = r == row - ring || r == row + ring;
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int c = col - ring; c <= col + ring; c += step) {
+                    if (c < 0 || c >= cols) continue;
+                    int cell = r * cols + c;
+                    for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                        int v = cellNodes[i];
+                        if (accept != null && !accept.test(v)) continue;
+                        double d = Node.haversine(lat, lon, csr.getLatitude(v), csr.getLongitude(v));
+                        if (d < bestDistance || (d == bestDistance && v < best)) {
+                            bestDistance = d;
+                            best = v;
+                        }
+                    }
+                }
+            }
+            if ((best >= 0 && ringLowerBound(ring) > bestDistance) || ringOutsideGrid(row, col, ring)) {
+                return best;
+            }
+        }
+    }
+
+    // Хамгийн ойр k цэг, зайгаар нь өсөхөөр эрэмбэлсэн
+    public int[] kNearest(double lat, double lon, int k) {
+        k = Math.min(k, cellNodes.length);
+        if (k <= 0) {
+            return new int[0];
+        }
+        int row = rowOf(lat);
+        int col = colOf(lon);
+
+        // size хэмжээтэй max-heap: орой нь одоогийн k-р хамгийн ойр цэг
+        int[] heapNodes = new int[k];
+        double[] heapDistances = new double[k];
+        int size = 0;
+        for (int ring = 0; ; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                if (r < 0 || r >= rows) continue;
+                boolean edgeRow = r == row - ring || r == row + ring;
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int c = col - ring; c <= col + ring; c += step) {
+                    if (c < 0 || c >= cols) continue;
+                    int cell = r * cols + c;
+                    for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                        int v = cellNodes[i];
+                        double d = Node.haversine(lat, lon, csr.getLatitude(v), csr.getLongitude(v));
+                        if (size < k) {
+                            heapNodes[size] = v;
+                            heapDistances[size] = d;
+                            siftUp(heapNodes, heapDistances, size++);
+                        } else if (d < heapDistances[0]) {
+                            heapNodes[0] = v;
+                            heapDistances[0] = d;
+                            siftDown(heapNodes, heapDistances, size);
+                        }
+                    }
+                }
+            }
+            if ((size == k && ringLowerBound(ring) > heapDistances[0]) || ringOutsideGrid(row, col, ring)) {
+                break;
+            }
+        }
+
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = heapNodes[0];
+            heapNodes[0] = heapNodes[i];
+            heapDistances[0] = heapDistances[i];
+            siftDown(heapNodes, heapDistances, i);
+        }
+        return result;
+    }
+
+    // radiusKm дотор орших бүх цэг (эрэмбэгүй)
+    public int[] withinRadius(double lat, double lon, double radiusKm) {
+        if (cellNodes.length == 0 || radiusKm < 0) {
+            return new int[0];
+        }
+        double dLat = radiusKm / KM_PER_DEGREE;
+        double cosLat = Math.cos(Math.toRadians(Math.min(89, Math.abs(lat) + dLat)));
+        double dLon = cosLat > 0 ? radiusKm / (KM_PER_DEGREE * cosLat) : 360;
+
+        int fromRow = rowOf(lat - dLat), toRow = rowOf(lat + dLat);
+        int fromCol = colOf(lon - dLon), toCol = colOf(lon + dLon);
+
+        int[] result = new int[16];
+        int size = 0;
+        for (int r = fromRow; r <= toRow; r++) {
+            for (int cell = r * cols + fromCol; cell <= r * cols + toCol; cell++) {
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    int v = cellNodes[i];
+                    if (Node.haversine(lat, lon, csr.getLatitude(v), csr.getLongitude(v)) <= radiusKm) {
+                        if (size == result.length) {
+                            result = Arrays.copyOf(result, size * 2);
+                        }
+                        result[size++] = v;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    // Тэгш өнцөгт доторх цэгүүдийг visitor-д дамжуулна. Нүднүүдийг дугаарын дарааллаар
+    // гүйх тул cellNodes дахь байрлал нь тогтвортой cursor болно: cursor-оос эхэлж хамгийн
+    // ихдээ limit цэг өгөөд дараагийн cursor-ийг, дууссан бол -1-ийг буцаана.
+    public int scanBox(double minLat, double minLon, double maxLat, double maxLon,
+                       int cursor, int limit, IntConsumer visitor) {
+        if (cellNodes.length == 0 || minLat > maxLat || minLon > maxLon) {
+            return -1;
+        }
+        int fromRow = rowOf(minLat), toRow = rowOf(maxLat);
+        int fromCol = colOf(minLon), toCol = colOf(maxLon);
+
+        int emitted = 0;
+        for (int r = fromRow; r <= toRow; r++) {
+            int firstCell = r * cols + fromCol;
+            int lastCell = r * cols + toCol;
+            if (cellStart[lastCell + 1] <= cursor) continue;
+            for (int cell = firstCell; cell <= lastCell; cell++) {
+                for (int i = Math.max(cursor, cellStart[cell]); i < cellStart[cell + 1]; i++) {
+                    int v = cellNodes[i];
+                    double lat = csr.getLatitude(v);
+                    double lon = csr.getLongitude(v);
+                    if (lat < minLat || lat > maxLat || lon < minLon || lon > maxLon) continue;
+                    if (emitted == limit) {
+                        return i;
+                    }
+                    visitor.accept(v);
+                    emitted++;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static void siftUp(int[] nodes, double[] distances, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (distances[parent] >= distances[i]) break;
+            swap(nodes, distances, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] nodes, double[] distances, int size) {
+        int i = 0;
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && distances[left] > distances[largest]) largest = left;
+            if (right < size && distances[right] > distances[largest]) largest = right;
+            if (largest == i) return;
+            swap(nodes, distances, i, largest);
+            i = largest;
+        }
+    }
+
+    private static void swap(int[] nodes, double[] distances, int i, int j) {
+        int n = nodes[i];
+        nodes[i] = nodes[j];
+        nodes[j] = n;
+        double d = distances[i];
+        distances[i] = distances[j];
+        distances[j] = d;
+    }
+
+    public long estimateBytes() {
+        return 4L * cellStart.length + 4L * cellNodes.length;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+}
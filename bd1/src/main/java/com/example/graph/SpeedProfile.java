@@ -0,0 +1,97 @@
+package com.example.graph;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+// fclass бүрийн хурд (км/ц). Feature-д maxspeed > 0 байвал түүнийг давуу үзнэ.
+// -Dspeed.profile=<файл.properties> -оор "fclass=км/ц" мөрүүдээр дарж тохируулна,
+// "default" түлхүүр нь fclass-гүй эсвэл жагсаалтад байхгүй замын хурд.
+public class SpeedProfile {
+    private static final SpeedProfile DEFAULTS = new SpeedProfile(defaultSpeeds());
+
+    private final Map<String, Double> speeds;
+    private final double defaultSpeed;
+
+    public SpeedProfile(Map<String, Double> speeds) {
+        this.speeds = new TreeMap<>();
+        for (Map.Entry<String, Double> entry : speeds.entrySet()) {
+            double speed = entry.getValue();
+            if (!(speed > 0) || Double.isInfinite(speed)) {
+                throw new IllegalArgumentException("Хурд эерэг байх ёстой: " + entry.getKey() + "=" + speed);
+            }
+            this.speeds.put(entry.getKey().toLowerCase(Locale.ROOT), speed);
+        }
+        this.defaultSpeed = this.speeds.getOrDefault("default", 30.0);
+    }
+
+    public static SpeedProfile defaults() {
+        return DEFAULTS;
+    }
+
+    public static SpeedProfile load() throws IOException {
+        String path = System.getProperty("speed.profile");
+        if (path == null || path.isBlank()) {
+            return DEFAULTS;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(Paths.get(path))) {
+            properties.load(in);
+        }
+
+        Map<String, Double> speeds = defaultSpeeds();
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                speeds.put(key.toLowerCase(Locale.ROOT), Double.parseDouble(properties.getProperty(key).trim()));
+            } catch (NumberFormatException e) {
+                throw new IOException("Хурдны профайлын буруу утга: " + key + "=" + properties.getProperty(key));
+            }
+        }
+        return new SpeedProfile(speeds);
+    }
+
+    private static Map<String, Double> defaultSpeeds() {
+        Map<String, Double> speeds = new TreeMap<>();
+        speeds.put("motorway", 90.0);
+        speeds.put("trunk", 70.0);
+        speeds.put("primary", 60.0);
+        speeds.put("secondary", 50.0);
+        speeds.put("tertiary", 40.0);
+        speeds.put("unclassified", 30.0);
+        speeds.put("road", 30.0);
+        speeds.put("residential", 25.0);
+        speeds.put("service", 15.0);
+        speeds.put("track", 15.0);
+        speeds.put("living_street", 10.0);
+        speeds.put("path", 5.0);
+        speeds.put("default", 30.0);
+        return speeds;
+    }
+
+    public double speedFor(String fclass, Double maxspeed) {
+        if (maxspeed != null && maxspeed > 0 && !Double.isInfinite(maxspeed)) {
+            return maxspeed;
+        }
+        if (fclass == null) {
+            return defaultSpeed;
+        }
+        Double speed = speeds.get(fclass.toLowerCase(Locale.ROOT));
+        return speed != null ? speed : defaultSpeed;
+    }
+
+    // км -> минут
+    public double travelTime(double distanceKm, String fclass, Double maxspeed) {
+        return distanceKm / speedFor(fclass, maxspeed) * 60.0;
+    }
+
+    // Snapshot-ийн buildTag-д орох тогтвортой хураангуй
+    public String fingerprint() {
+        return Integer.toHexString(speeds.toString().hashCode());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.graph;
+
+// Web Mercator (slippy map) z/x/y хавтан ба түүний өргөрөг/уртрагийн хүрээ
+public class Tile {
+    public static final int MAX_ZOOM = 24;
+
+    private final int z;
+    private final int x;
+    private final int y;
+
+    public Tile(int z, int x, int y) {
+        if (z < 0 || z > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom буруу: " + z);
+        }
+        int size = 1 << z;
+        if (x < 0 || x >= size || y < 0 || y >= size) {
+            throw new IllegalArgumentException("Хавтан буруу: " + z + "/" + x + "/" + y);
+        }
+        this.z = z;
+        this.x = x;
+        this.y = y;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public double getMinLon() {
+        return lon(x);
+    }
+
+    public double getMaxLon() {
+        return lon(x + 1);
+    }
+
+    // y доош өсдөг тул хойд хил нь y, өмнөд хил нь y + 1
+    public double getMaxLat() {
+        return lat(y);
+    }
+
+    public double getMinLat() {
+        return lat(y + 1);
+    }
+
+    private double lon(int tileX) {
+        return tileX / (double) (1 << z) * 360.0 - 180.0;
+    }
+
+    private double lat(int tileY) {
+        double n = Math.PI - 2.0 * Math.PI * tileY / (1 << z);
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    @Override
+    public String toString() {
+        return z + "/" + x + "/" + y;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.graph;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// Замын хөдөлгөөний өөрчлөгдөхгүй хувилбар: нум бүрийн хугацааны коэффициент ба түүнийг
+// шингээсэн жингийн массивууд. Шинэчлэл бүр шинэ хувилбар үүсгэдэг (copy-on-write) тул
+// хайлт эхэндээ авсан массивуудаараа дуустал тогтвортой үр дүн гаргана.
+// Коэффициент нь зөвхөн хугацааг үржүүлнэ; хаалттай (Infinity) нум хоёр metric-ээр хүрэгдэхгүй.
+public final class TrafficOverlay {
+    public static final double CLOSED = Double.POSITIVE_INFINITY;
+
+    private final long version;
+    private final Map<Integer, Double> multipliers;
+    private final double[] weights;
+    private final double[] travelTimes;
+    private final int closedCount;
+
+    private TrafficOverlay(long version, Map<Integer, Double> multipliers,
+                           double[] weights, double[] travelTimes, int closedCount) {
+        this.version = version;
+        this.multipliers = multipliers;
+        this.weights = weights;
+        this.travelTimes = travelTimes;
+        this.closedCount = closedCount;
+    }
+
+    // Өөрчлөлтгүй төлөв: суурь массивуудыг хуулахгүй шууд заана
+    static TrafficOverlay none(long version, double[] baseWeights, double[] baseTravelTimes) {
+        return new TrafficOverlay(version, Map.of(), baseWeights, baseTravelTimes, 0);
+    }
+
+    // updates: нум -> коэффициент (1 бол өөрчлөлтийг арилгана, CLOSED бол хаана).
+    // reset бол өмнөх бүх өөрчлөлтийг хаяад зөвхөн updates-ийг хэрэглэнэ.
+    TrafficOverlay apply(Map<Integer, Double> updates, boolean reset,
+                         double[] baseWeights, double[] baseTravelTimes) {
+        for (Map.Entry<Integer, Double> update : updates.entrySet()) {
+            int edge = update.getKey();
+            double multiplier = update.getValue();
+            if (edge < 0 || edge >= baseWeights.length) {
+                throw new IllegalArgumentException("Нум буруу: " + edge);
+            }
+            // 1-ээс бага бол суурь жингээр тооцсон доод үнэлгээнүүд (A*-ийн хурд гэх мэт) хүчингүй болно
+            if (!(multiplier >= 1.0)) {
+                throw new IllegalArgumentException("Коэффициент 1-ээс багагүй байх ёстой: " + multiplier);
+            }
+        }
+
+        Map<Integer, Double> next = new HashMap<>(reset ? Map.of() : multipliers);
+        for (Map.Entry<Integer, Double> update : updates.entrySet()) {
+            if (update.getValue() == 1.0) {
+                next.remove(update.getKey());
+            } else {
+                next.put(update.getKey(), update.getValue());
+            }
+        }
+        if (next.isEmpty()) {
+            return none(version + 1, baseWeights, baseTravelTimes);
+        }
+
+        // Суурь эсвэл өмнөх хувилбарын массивыг хуулаад зөвхөн өөрчлөгдсөн нумуудыг засна
+        boolean fromBase = reset || multipliers.isEmpty();
+        double[] nextWeights = (fromBase ? baseWeights : weights).clone();
+        double[] nextTimes = (fromBase ? baseTravelTimes : travelTimes).clone();
+        for (int edge : fromBase ? next.keySet() : updates.keySet()) {
+            double multiplier = next.getOrDefault(edge, 1.0);
+            nextWeights[edge] = multiplier == CLOSED ? CLOSED : baseWeights[edge];
+            nextTimes[edge] = multiplier == CLOSED ? CLOSED : baseTravelTimes[edge] * multiplier;
+        }
+
+        int closed = 0;
+        for (double multiplier : next.values()) {
+            if (multiplier == CLOSED) closed++;
+        }
+        return new TrafficOverlay(version + 1, Collections.unmodifiableMap(next), nextWeights, nextTimes, closed);
+    }
+
+    public double[] weights(Metric metric) {
+        return metric == Metric.TIME ? travelTimes : weights;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isEmpty() {
+        return multipliers.isEmpty();
+    }
+
+    public int getOverriddenCount() {
+        return multipliers.size();
+    }
+
+    public int getClosedCount() {
+        return closedCount;
+    }
+
+    // Өөрчлөгдөөгүй нумд 1
+    public double getMultiplier(int edge) {
+        return multipliers.getOrDefault(edge, 1.0);
+    }
+
+    public Map<Integer, Double> getMultipliers() {
+        return multipliers;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Өсөх тоолуур; LongAdder нь thread бүрт тусдаа нүдтэй тул олон thread зэрэг нэмэхэд өрсөлдөхгүй
+public final class Counter {
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.metrics;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+// HdrHistogram-ийн зарчмаар хоёрын зэргээр хуваасан тогтмол сагстай хугацааны гистограм:
+// сагс i нь (2^(i-1), 2^i] микросекунд. Бичихэд түгжээгүй, санах ой нь тогтмол, харьцангуй
+// алдаа нь 2 дахин дотор. Сүүлийн сагс нь +Inf.
+public final class LatencyHistogram {
+    static final int BUCKETS = 28;
+    // Prometheus-ийн le утгууд (секунд)
+    static final String[] BOUNDS = new String[BUCKETS];
+
+    static {
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            BOUNDS[i] = BigDecimal.valueOf(1L << i).movePointLeft(6).stripTrailingZeros().toPlainString();
+        }
+        BOUNDS[BUCKETS - 1] = "+Inf";
+    }
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sumNanos = new LongAdder();
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        long micros = (nanos + 999) / 1000;
+        int index = micros <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(micros - 1);
+        buckets[Math.min(index, BUCKETS - 1)].increment();
+        sumNanos.add(nanos);
+    }
+
+    public void recordMillis(double millis) {
+        record((long) (millis * 1_000_000.0));
+    }
+
+    // Сагс бүрийн (хуримтлагдаагүй) тоо
+    long[] snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    double sumSeconds() {
+        return sumNanos.sum() / 1_000_000_000.0;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+}
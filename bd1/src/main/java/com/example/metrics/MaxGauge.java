@@ -0,0 +1,19 @@
+package com.example.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+
+// Эхэлснээс хойших хамгийн их утга (дарааллын high-water mark гэх мэт)
+public final class MaxGauge {
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    MaxGauge() {
+    }
+
+    public void update(long value) {
+        max.accumulate(value);
+    }
+
+    public long get() {
+        return max.get();
+    }
+}
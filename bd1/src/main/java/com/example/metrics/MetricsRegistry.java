@@ -0,0 +1,144 @@
+package com.example.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+
+// Нэр + label-ээр бүртгэсэн хэмжигдэхүүнүүд. Бүртгэл нь ховор тул дуудагч талд обьектоо
+// хадгалаад халуун замд зөвхөн increment/record хийнэ. /metrics-д Prometheus text
+// format (0.0.4)-аар бичнэ.
+public final class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    // labels нь нэр, утга хос: "algorithm", "dijkstra", ...
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, "counter").series.computeIfAbsent(labelText(labels), k -> new Counter());
+    }
+
+    public MaxGauge maxGauge(String name, String help, String... labels) {
+        return (MaxGauge) family(name, help, "gauge").series.computeIfAbsent(labelText(labels), k -> new MaxGauge());
+    }
+
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, "histogram").series
+                .computeIfAbsent(labelText(labels), k -> new LatencyHistogram());
+    }
+
+    // Уншихад нь тооцох утга; ижил нэр, label-ээр дахин бүртгэвэл сүүлийнх нь хүчинтэй
+    public void gauge(String name, String help, DoubleSupplier supplier, String... labels) {
+        family(name, help, "gauge").series.put(labelText(labels), supplier);
+    }
+
+    // Уншихад нь тооцох тоолуур (кэшийн hit гэх мэт гаднаас тоологддог утга)
+    public void counterFunction(String name, String help, DoubleSupplier supplier, String... labels) {
+        family(name, help, "counter").series.put(labelText(labels), supplier);
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = families.computeIfAbsent(name, k -> new Family(help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Хэмжигдэхүүн " + name + " нь " + family.type + " төрөлтэй");
+        }
+        return family;
+    }
+
+    public void writePrometheus(Writer out) throws IOException {
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            out.write("# HELP " + name + " " + family.help + "\n");
+            out.write("# TYPE " + name + " " + family.type + "\n");
+            for (Map.Entry<String, Object> series : new TreeMap<>(family.series).entrySet()) {
+                String labels = series.getKey();
+                Object metric = series.getValue();
+                if (metric instanceof LatencyHistogram histogram) {
+                    writeHistogram(out, name, labels, histogram);
+                } else {
+                    out.write(name + braces(labels) + " " + format(value(metric)) + "\n");
+                }
+            }
+        }
+    }
+
+    private static void writeHistogram(Writer out, String name, String labels, LatencyHistogram histogram)
+            throws IOException {
+        long[] counts = histogram.snapshot();
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            out.write(name + "_bucket{" + prefix + "le=\"" + LatencyHistogram.BOUNDS[i] + "\"} " + cumulative + "\n");
+        }
+        out.write(name + "_sum" + braces(labels) + " " + format(histogram.sumSeconds()) + "\n");
+        out.write(name + "_count" + braces(labels) + " " + cumulative + "\n");
+    }
+
+    private static double value(Object metric) {
+        if (metric instanceof Counter counter) {
+            return counter.get();
+        }
+        if (metric instanceof MaxGauge gauge) {
+            return gauge.get();
+        }
+        try {
+            return ((DoubleSupplier) metric).getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) return "NaN";
+        if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) return Long.toString((long) value);
+        return Double.toString(value);
+    }
+
+    private static String braces(String labels) {
+        return labels.isEmpty() ? "" : "{" + labels + "}";
+    }
+
+    private static String labelText(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Label нэр, утга хосоороо байх ёстой");
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) text.append(',');
+            text.append(labels[i]).append("=\"");
+            String value = labels[i + 1];
+            for (int c = 0; c < value.length(); c++) {
+                char ch = value.charAt(c);
+                switch (ch) {
+                    case '\\' -> text.append("\\\\");
+                    case '"' -> text.append("\\\"");
+                    case '\n' -> text.append("\\n");
+                    default -> text.append(ch);
+                }
+            }
+            text.append('"');
+        }
+        return text.toString();
+    }
+
+    private static final class Family {
+        final String help;
+        final String type;
+        final Map<String, Object> series = new ConcurrentHashMap<>();
+
+        Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+}
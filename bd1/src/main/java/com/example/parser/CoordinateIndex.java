@@ -0,0 +1,117 @@
+package com.example.parser;
+
+import java.util.Arrays;
+
+// Координат -> цэгийн ID open-addressing хүснэгт. Түлхүүр нь хоёр double-ийн IEEE битүүд
+// (эсвэл tolerance өгсөн бол тоймлосон тогтмол цэгт утга) тул хайлт, нэмэлт объект үүсгэхгүй.
+public class CoordinateIndex {
+    private static final int EMPTY = -1;
+    private static final double MAX_LOAD = 0.5;
+
+    private final double tolerance;
+    private long[] keysX;
+    private long[] keysY;
+    private int[] values;
+    private int size = 0;
+
+    public CoordinateIndex() {
+        this(0.0, 1024);
+    }
+
+    // tolerance (градус) > 0 бол нэг торын нүдэнд орсон координатууд нэг цэг болно
+    public CoordinateIndex(double tolerance, int expectedSize) {
+        if (tolerance < 0 || Double.isNaN(tolerance)) {
+            throw new IllegalArgumentException("Tolerance сөрөг байж болохгүй: " + tolerance);
+        }
+        this.tolerance = tolerance;
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / MAX_LOAD)) - 1) << 1;
+        this.keysX = new long[capacity];
+        this.keysY = new long[capacity];
+        this.values = new int[capacity];
+        Arrays.fill(values, EMPTY);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    // Координат бүртгэлтэй бол түүний ID-г, үгүй бол candidateId-г бүртгээд буцаана
+    public int getOrInsert(double x, double y, int candidateId) {
+        long kx = key(x);
+        long ky = key(y);
+        int mask = values.length - 1;
+        int slot = hash(kx, ky) & mask;
+        while (values[slot] != EMPTY) {
+            if (keysX[slot] == kx && keysY[slot] == ky) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keysX[slot] = kx;
+        keysY[slot] = ky;
+        values[slot] = candidateId;
+        if (++size > values.length * MAX_LOAD) {
+            resize();
+        }
+        return candidateId;
+    }
+
+    public int get(double x, double y) {
+        long kx = key(x);
+        long ky = key(y);
+        int mask = values.length - 1;
+        int slot = hash(kx, ky) & mask;
+        while (values[slot] != EMPTY) {
+            if (keysX[slot] == kx && keysY[slot] == ky) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    private long key(double value) {
+        if (tolerance > 0) {
+            return Math.round(value / tolerance);
+        }
+        // -0.0 ба 0.0 нь тэнцүү координат
+        return Double.doubleToLongBits(value == 0.0 ? 0.0 : value);
+    }
+
+    private static int hash(long x, long y) {
+        long h = x * 0x9E3779B97F4A7C15L + y;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private void resize() {
+        long[] oldX = keysX;
+        long[] oldY = keysY;
+        int[] oldValues = values;
+
+        int capacity = oldValues.length * 2;
+        keysX = new long[capacity];
+        keysY = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, EMPTY);
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == EMPTY) continue;
+            int slot = hash(oldX[i], oldY[i]) & mask;
+            while (values[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keysX[slot] = oldX[i];
+            keysY[slot] = oldY[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.parser;
+
+import com.example.graph.Components;
+import com.example.graph.CsrGraph;
+import com.example.graph.Graph;
+import com.example.graph.GraphSimplifier;
+import com.example.graph.GraphSnapshot;
+import com.example.graph.SpeedProfile;
+import com.example.metrics.MetricsRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Эхлээд хоёртын snapshot-оос ачаална; байхгүй эсвэл хуучирсан бол Shapefile-ээс
+// уншаад дараагийн эхлэлд зориулж snapshot бичнэ.
+public class GraphLoader {
+    // Үүнээс цөөн цэгтэй тусгаарлагдсан хэсгүүдийг хасна (0 бол хасахгүй)
+    private static final int PRUNE_BELOW = Integer.getInteger("graph.pruneBelow", 0);
+    // Хэлбэр заасан degree-2 цэгүүдийн гинжийг geometry-тэй нэг нум болгож хураана
+    private static final boolean SIMPLIFY = Boolean.getBoolean("graph.simplify");
+
+    private final String shapefilePath;
+    private final Path snapshotPath;
+
+    public GraphLoader(String shapefilePath) {
+        this(shapefilePath, defaultSnapshotPath(shapefilePath));
+    }
+
+    public GraphLoader(String shapefilePath, Path snapshotPath) {
+        this.shapefilePath = shapefilePath;
+        this.snapshotPath = snapshotPath;
+    }
+
+    private static Path defaultSnapshotPath(String shapefilePath) {
+        String override = System.getProperty("graph.snapshot");
+        if (override != null && !override.isBlank()) {
+            return Paths.get(override);
+        }
+        return Paths.get(shapefilePath.replaceAll("\\.shp$", "") + ".graph");
+    }
+
+    public Graph load() throws IOException {
+        SpeedProfile speedProfile = SpeedProfile.load();
+        ShapefileParser parser = new ShapefileParser(ShapefileParser.defaultSnapTolerance(),
+                ShapefileParser.defaultThreads(), speedProfile);
+        GraphSnapshot.Source source = currentSource(parser.getSnapTolerance(), speedProfile);
+
+        long startTime = System.nanoTime();
+        CsrGraph snapshot = GraphSnapshot.read(snapshotPath, source);
+        if (snapshot != null) {
+            double loadTime = (System.nanoTime() - startTime) / 1_000_000.0;
+            System.out.println("Snapshot-оос ачааллаа: " + snapshotPath +
+                    " (" + String.format("%.1f", loadTime) + " мс)");
+            recordLoadTime("snapshot", loadTime);
+            Graph graph = Graph.fromCsr(snapshot);
+            graph.printStats();
+            graph.getComponents().printStats();
+            return graph;
+        }
+
+        System.out.println("Snapshot олдсонгүй эсвэл хуучирсан, Shapefile-ээс уншина");
+        long parseStart = System.nanoTime();
+        Graph graph = prune(parser.parseShapefile(shapefilePath));
+        if (SIMPLIFY) {
+            graph = Graph.fromCsr(GraphSimplifier.simplify(graph.getCsr()));
+            graph.getComponents().printStats();
+        }
+        recordLoadTime("shapefile", (System.nanoTime() - parseStart) / 1_000_000.0);
+
+        try {
+            GraphSnapshot.write(graph.getCsr(), source, snapshotPath);
+            System.out.println("Snapshot хадгаллаа: " + snapshotPath);
+        } catch (IOException e) {
+            System.err.println("Snapshot хадгалж чадсангүй: " + e.getMessage());
+        }
+        return graph;
+    }
+
+    // Snapshot-д хасагдсан граф хадгалагдана
+    private static Graph prune(Graph graph) {
+        Components components = graph.getComponents();
+        components.printStats();
+        int small = components.countSmallWcc(PRUNE_BELOW);
+        if (PRUNE_BELOW <= 0 || small == 0) {
+            return graph;
+        }
+
+        CsrGraph pruned = components.prune(graph.getCsr(), PRUNE_BELOW);
+        System.out.println(PRUNE_BELOW + "-аас цөөн цэгтэй " + small + " хэсгийг хаслаа: "
+                + graph.size() + " -> " + pruned.getPresentNodeCount() + " цэг");
+        Graph result = Graph.fromCsr(pruned);
+        result.getComponents().printStats();
+        return result;
+    }
+
+    private static void recordLoadTime(String source, double millis) {
+        MetricsRegistry.getDefault().gauge("graph_load_seconds", "Граф ачаалсан хугацаа",
+                () -> millis / 1000.0, "source", source);
+    }
+
+    // Shapefile диск дээр байхгүй (resources-оос задлах) үед эх файлыг шалгах боломжгүй.
+    // Атрибутууд .dbf-д байдаг тул түүнийг мөн тооцно. Snap tolerance эсвэл хурдны профайл
+    // өөр бол граф өөр.
+    private GraphSnapshot.Source currentSource(double snapTolerance, SpeedProfile speedProfile) {
+        String buildTag = "csr;speed=" + speedProfile.fingerprint()
+                + (snapTolerance > 0 ? ";snap=" + snapTolerance : "")
+                + (PRUNE_BELOW > 0 ? ";prune=" + PRUNE_BELOW : "")
+                + (SIMPLIFY ? ";simplify" : "");
+        File shp = new File(shapefilePath);
+        if (!shp.exists()) {
+            return new GraphSnapshot.Source(-1, -1, buildTag);
+        }
+        File dbf = new File(shapefilePath.replaceAll("\\.shp$", "") + ".dbf");
+        long length = shp.length() + (dbf.exists() ? dbf.length() : 0);
+        long lastModified = Math.max(shp.lastModified(), dbf.exists() ? dbf.lastModified() : 0);
+        return new GraphSnapshot.Source(length, lastModified, buildTag);
+    }
+
+    public Path getSnapshotPath() {
+        return snapshotPath;
+    }
+}
@@ -1,8 +1,9 @@
 package com.example.parser;
 
-import com.example.graph.Edge;
+import com.example.graph.CsrGraph;
 import com.example.graph.Graph;
 import com.example.graph.Node;
+import com.example.graph.SpeedProfile;
 import org.geotools.data.FileDataStore;
 import org.geotools.data.FileDataStoreFinder;
 import org.geotools.data.simple.SimpleFeatureCollection;
@@ -20,18 +21,57 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.util.HashMap;
-import java.util.Map;
-
-
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+// Shapefile-ийг шат дараатай уншина: нэг reader feature-үүдийг багцлан уншиж, worker-ууд
+// шүүлт, координат задлалт, ирмэгийн жинг тооцоолно. ID олголт feature-ийн дарааллаар
+// нэг merge шатанд хийгддэг тул thread-ийн тооноос үл хамааран ижил граф гарна.
 public class ShapefileParser {
-    private final Graph graph;
-    private final Map<String, Long> coordinateToNodeId;
-    private long nodeIdCounter = 0;
+    private static final int BATCH_SIZE = 256;
+
+    private final CsrGraph.Builder builder;
+    private final CoordinateIndex coordinateToNodeId;
+    private final int threads;
+    private final SpeedProfile speedProfile;
+    private int nodeIdCounter = 0;
+    private int count = 0;
+    private int skipped = 0;
+    private Graph graph;
 
     public ShapefileParser() {
-        this.graph = new Graph();
-        this.coordinateToNodeId = new HashMap<>();
+        this(defaultSnapTolerance(), defaultThreads(), SpeedProfile.defaults());
+    }
+
+    // snapTolerance (градус): 0 бол яг тэнцүү координатууд л нэг цэг болно
+    public ShapefileParser(double snapTolerance) {
+        this(snapTolerance, defaultThreads(), SpeedProfile.defaults());
+    }
+
+    public ShapefileParser(double snapTolerance, int threads) {
+        this(snapTolerance, threads, SpeedProfile.defaults());
+    }
+
+    public ShapefileParser(double snapTolerance, int threads, SpeedProfile speedProfile) {
+        this.builder = new CsrGraph.Builder();
+        this.coordinateToNodeId = new CoordinateIndex(snapTolerance, 1 << 16);
+        this.threads = Math.max(1, threads);
+        this.speedProfile = speedProfile;
+    }
+
+    static double defaultSnapTolerance() {
+        return Double.parseDouble(System.getProperty("parser.snapTolerance", "0"));
+    }
+
+    static int defaultThreads() {
+        return Integer.getInteger("parser.threads", Runtime.getRuntime().availableProcessors());
     }
 
     public Graph parseShapefile(String shapefilePath) throws IOException {
@@ -51,36 +91,88 @@ public class ShapefileParser {
         SimpleFeatureSource featureSource = store.getFeatureSource();
         SimpleFeatureCollection collection = featureSource.getFeatures();
 
-        System.out.println("Нийт feature: " + collection.size());
+        System.out.println("Нийт feature: " + collection.size() + ", thread: " + threads);
 
+        ExecutorService workers = threads > 1 ? Executors.newFixedThreadPool(threads - 1) : null;
         try (SimpleFeatureIterator iterator = collection.features()) {
-            int count = 0;
-            int skipped = 0;
-            while (iterator.hasNext()) {
-                SimpleFeature feature = iterator.next();
-                boolean processed = processFeature(feature);
-                if (processed) {
-                    count++;
-                } else {
-                    skipped++;
-                }
+            // Дараалал хадгалахын тулд багцуудыг илгээсэн дарааллаар нь нэгтгэнэ
+            Deque<Future<ParsedFeature[]>> inFlight = new ArrayDeque<>();
+            int maxInFlight = threads * 4;
 
-                if ((count + skipped) % 1000 == 0) {
-                    System.out.println("Боловсруулсан: " + count + " feature, устгагдсан: " + skipped);
+            List<SimpleFeature> batch = new ArrayList<>(BATCH_SIZE);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                    List<SimpleFeature> features = batch;
+                    batch = new ArrayList<>(BATCH_SIZE);
+
+                    if (workers == null) {
+                        merge(decodeBatch(features));
+                        continue;
+                    }
+                    inFlight.add(workers.submit(() -> decodeBatch(features)));
+                    while (inFlight.size() >= maxInFlight) {
+                        merge(await(inFlight.poll()));
+                    }
                 }
             }
+            while (!inFlight.isEmpty()) {
+                merge(await(inFlight.poll()));
+            }
 
             System.out.println("Нийт боловсруулсан feature: " + count + ", устгагдсан feature: " + skipped);
+        } finally {
+            if (workers != null) {
+                workers.shutdownNow();
+            }
+            store.dispose();
         }
 
-        store.dispose();
-
         System.out.println("Shapefile уншилт дууслаа!");
+        graph = Graph.fromCsr(builder.build());
         graph.printStats();
 
         return graph;
     }
 
+    private static ParsedFeature[] await(Future<ParsedFeature[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Shapefile уншилт тасалдлаа", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Feature боловсруулахад алдаа: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Worker шат: дундын төлөв өөрчлөхгүй тул зэрэг ажиллаж болно
+    private ParsedFeature[] decodeBatch(List<SimpleFeature> features) {
+        ParsedFeature[] parsed = new ParsedFeature[features.size()];
+        for (int i = 0; i < parsed.length; i++) {
+            parsed[i] = processFeature(features.get(i));
+        }
+        return parsed;
+    }
+
+    // Merge шат: давхардсан оройг нэгтгэж, ID олгоод ирмэгүүдийг нэмнэ
+    private void merge(ParsedFeature[] parsed) {
+        for (ParsedFeature feature : parsed) {
+            if (feature != null) {
+                for (int i = 0; i < feature.lines.length; i++) {
+                    addLine(feature.lines[i], feature.weights[i], feature.times[i], feature.roadType, feature.oneWay);
+                }
+                count++;
+            } else {
+                skipped++;
+            }
+
+            if ((count + skipped) % 1000 == 0) {
+                System.out.println("Боловсруулсан: " + count + " feature, устгагдсан: " + skipped);
+            }
+        }
+    }
+
     private File extractFromResources(String resourcePath) throws IOException {
         String fileName = new File(resourcePath).getName();
         String baseName = fileName.replace(".shp", "");
@@ -118,16 +210,17 @@ public class ShapefileParser {
                 lon >= UB_MIN_LON && lon <= UB_MAX_LON;
     }
 
-    private boolean processFeature(SimpleFeature feature) {
+    // Шүүлтэд тэнцээгүй feature-ийн хувьд null буцаана
+    private ParsedFeature processFeature(SimpleFeature feature) {
         try {
             Geometry geometry = (Geometry) feature.getDefaultGeometry();
             if (geometry == null) {
-                return false;
+                return null;
             }
 
             Coordinate centroid = geometry.getCentroid().getCoordinate();
             if (!isInUlaanbaatar(centroid.y, centroid.x)) {
-                return false;
+                return null;
             }
 
             String fclass = getStringAttribute(feature, "fclass");
@@ -135,7 +228,7 @@ public class ShapefileParser {
             Double maxspeed = getDoubleAttribute(feature, "maxspeed");
 
             if (!isValidRoadType(fclass)) {
-                return false;
+                return null;
             }
 
             boolean isOneWay = "yes".equalsIgnoreCase(oneway) ||
@@ -143,56 +236,55 @@ public class ShapefileParser {
                     "B".equalsIgnoreCase(oneway);
 
 
+            // maxspeed > 0 бол түүнийг, үгүй бол fclass-ийн профайлын хурдыг авна
+            double speed = speedProfile.speedFor(fclass, maxspeed);
+
             if (geometry instanceof LineString) {
-                processLineString((LineString) geometry, fclass, isOneWay, maxspeed);
-                return true;
+                return new ParsedFeature(new LineString[]{(LineString) geometry}, fclass, isOneWay, speed);
             } else if (geometry instanceof MultiLineString) {
                 MultiLineString mls = (MultiLineString) geometry;
-                boolean any = false;
-                for (int i = 0; i < mls.getNumGeometries(); i++) {
-                    LineString ls = (LineString) mls.getGeometryN(i);
-                    processLineString(ls, fclass, isOneWay, maxspeed);
-                    any = true;
+                if (mls.getNumGeometries() == 0) {
+                    return null;
                 }
-                return any;
+                LineString[] parts = new LineString[mls.getNumGeometries()];
+                for (int i = 0; i < parts.length; i++) {
+                    parts[i] = (LineString) mls.getGeometryN(i);
+                }
+                return new ParsedFeature(parts, fclass, isOneWay, speed);
             }
 
-            return false;
+            return null;
         } catch (Exception e) {
             System.err.println("Feature боловсруулахад алдаа: " + e.getMessage());
-            return false;
+            return null;
         }
     }
 
-    private void processLineString(LineString lineString, String roadType,
-                                   boolean oneWay, Double maxspeed) {
-        Coordinate[] coords = lineString.getCoordinates();
-        if (coords.length < 2) return;
-
-        for (int i = 0; i < coords.length - 1; i++) {
-            Node fromNode = getOrCreateNode(coords[i]);
-            Node toNode = getOrCreateNode(coords[i + 1]);
-
-            double distance = fromNode.distanceTo(toNode);
-
-            Edge edge = new Edge(fromNode, toNode, distance, roadType, oneWay);
-            graph.addEdge(edge);
+    // line: [lon0, lat0, lon1, lat1, ...], weights[i]: i-р хэсгийн урт (км), times[i]: минут
+    private void addLine(double[] line, double[] weights, double[] times, String roadType, boolean oneWay) {
+        if (weights.length == 0) return;
+
+        int fromId = getOrCreateNode(line[0], line[1]);
+        for (int i = 0; i < weights.length; i++) {
+            int toId = getOrCreateNode(line[2 * i + 2], line[2 * i + 3]);
+            // Давхардсан (эсвэл tolerance-оор нийлсэн) оройнууд гогцоо үүсгэхгүй
+            if (fromId != toId) {
+                builder.addArc(fromId, toId, weights[i], times[i], roadType, oneWay);
+                if (!oneWay) {
+                    builder.addArc(toId, fromId, weights[i], times[i], roadType, false);
+                }
+            }
+            fromId = toId;
         }
     }
 
-    private Node getOrCreateNode(Coordinate coord) {
-        String key = coord.x + "," + coord.y;
-
-        if (!coordinateToNodeId.containsKey(key)) {
-            long id = nodeIdCounter++;
-            coordinateToNodeId.put(key, id);
-            Node node = new Node(id, coord.y, coord.x); // lat, lon
-            graph.addNode(node);
-            return node;
+    private int getOrCreateNode(double x, double y) {
+        int id = coordinateToNodeId.getOrInsert(x, y, nodeIdCounter);
+        if (id == nodeIdCounter) {
+            nodeIdCounter++;
+            builder.addNode(id, y, x); // lat, lon
         }
-
-        long id = coordinateToNodeId.get(key);
-        return graph.getNode(id);
+        return id;
     }
 
     private boolean isValidRoadType(String fclass) {
@@ -239,4 +331,48 @@ public class ShapefileParser {
     public Graph getGraph() {
         return graph;
     }
+
+    public double getSnapTolerance() {
+        return coordinateToNodeId.getTolerance();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    // Worker-ийн задалсан feature: координатууд, хэсэг бүрийн haversine урт ба явах хугацаа
+    private static final class ParsedFeature {
+        final double[][] lines;
+        final double[][] weights;
+        final double[][] times;
+        final String roadType;
+        final boolean oneWay;
+
+        ParsedFeature(LineString[] parts, String roadType, boolean oneWay, double speedKmh) {
+            this.lines = new double[parts.length][];
+            this.weights = new double[parts.length][];
+            this.times = new double[parts.length][];
+            this.roadType = roadType;
+            this.oneWay = oneWay;
+
+            for (int p = 0; p < parts.length; p++) {
+                Coordinate[] coords = parts[p].getCoordinates();
+                int segments = Math.max(0, coords.length - 1);
+                double[] line = new double[coords.length * 2];
+                double[] lengths = new double[segments];
+                double[] minutes = new double[segments];
+                for (int i = 0; i < coords.length; i++) {
+                    line[2 * i] = coords[i].x;
+                    line[2 * i + 1] = coords[i].y;
+                }
+                for (int i = 0; i < segments; i++) {
+                    lengths[i] = Node.haversine(coords[i].y, coords[i].x, coords[i + 1].y, coords[i + 1].x);
+                    minutes[i] = lengths[i] / speedKmh * 60.0;
+                }
+                lines[p] = line;
+                weights[p] = lengths;
+                times[p] = minutes;
+            }
+        }
+    }
 }
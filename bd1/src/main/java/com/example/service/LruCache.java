@@ -0,0 +1,158 @@
+package com.example.service;
+
+import com.example.metrics.MetricsRegistry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Хэмжээгээр хязгаарлагдсан, сонголтоор TTL-тэй LRU кэш. LinkedHashMap-ийн access-order
+// дараалал нь хамгийн удаан хандаагүй элементийг эхэнд байлгана. Уншихад ч дараалал өөрчлөгдөх
+// тул түлхүүрийн hash-аар хэсэг (segment) болгон хувааж, хэсэг бүр өөрийн lock-той;
+// иймээс LRU нь хэсэг доторх л ойролцоо дараалал. Тоолуурууд lock-гүй.
+public class LruCache<K, V> {
+    private final int capacity;
+    private final long ttlNanos;
+    private final Segment<K, V>[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    // ttlMillis <= 0 бол элемент хугацаагаар дуусахгүй
+    public LruCache(int capacity, long ttlMillis) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Кэшийн хэмжээ эерэг байх ёстой: " + capacity);
+        }
+        this.capacity = capacity;
+        this.ttlNanos = ttlMillis > 0 ? ttlMillis * 1_000_000L : 0;
+
+        // Цөм тутамд ~4 хэсэг (2-ын зэрэг), хэсэг бүрт дор хаяж 1 байр; нийт багтаамж яг capacity
+        int count = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4),
+                Integer.highestOneBit(capacity));
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Segment<K, V>[] segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(capacity / count + (i < capacity % count ? 1 : 0));
+        }
+        this.segments = segments;
+    }
+
+    public V get(K key) {
+        long now = System.nanoTime();
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+            if (entry != null && isExpired(entry, now)) {
+                segment.remove(key);
+                expirations.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, System.nanoTime());
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, entry);
+            Iterator<Map.Entry<K, Entry<V>>> it = segment.entrySet().iterator();
+            while (segment.size() > segment.capacity && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getTtlMillis() {
+        return ttlNanos / 1_000_000L;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    // Тоолуурууд нь өөрсдөө LongAdder тул /metrics уншихад л нийлбэрлэнэ
+    public void registerMetrics(MetricsRegistry registry, String name) {
+        registry.counterFunction("cache_hits_total", "Кэшийн hit", this::getHits, "cache", name);
+        registry.counterFunction("cache_misses_total", "Кэшийн miss", this::getMisses, "cache", name);
+        registry.counterFunction("cache_evictions_total", "Багтаамжаас хэтэрч хасагдсан", this::getEvictions, "cache", name);
+        registry.counterFunction("cache_expirations_total", "TTL дуусч хасагдсан", this::getExpirations, "cache", name);
+        registry.gauge("cache_size", "Кэш дэх элементийн тоо", this::size, "cache", name);
+    }
+
+    // HashMap-ийн адил дээд битүүдийг холиод доод битээр хэсгийг сонгоно
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[h & (segments.length - 1)];
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return ttlNanos > 0 && now - entry.createdAt > ttlNanos;
+    }
+
+    private static class Segment<K, V> extends LinkedHashMap<K, Entry<V>> {
+        private static final long serialVersionUID = 1L;
+
+        final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final long createdAt;
+
+        Entry(V value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+}
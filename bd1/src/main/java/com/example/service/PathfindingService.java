@@ -1,123 +1,957 @@
 package com.example.service;
 
+import com.example.algorithms.AStar;
+import com.example.algorithms.AlternativeRoutes;
 import com.example.algorithms.BFS;
+import com.example.algorithms.BidirectionalDijkstra;
+import com.example.algorithms.ContractionHierarchy;
 import com.example.algorithms.DFS;
 import com.example.algorithms.Dijkstra;
+import com.example.algorithms.Isochrone;
+import com.example.algorithms.LandmarkAStar;
+import com.example.algorithms.Landmarks;
+import com.example.graph.Components;
+import com.example.graph.CsrGraph;
 import com.example.graph.Graph;
+import com.example.graph.Metric;
 import com.example.graph.Node;
+import com.example.graph.SpatialIndex;
+import com.example.graph.Tile;
+import com.example.graph.TrafficOverlay;
+import com.example.api.AlternativesResponse;
+import com.example.api.IsochroneResponse;
+import com.example.api.MatrixResponse;
 import com.example.api.PathResponse;
+import com.example.api.TrafficResponse;
+import com.example.metrics.Counter;
+import com.example.metrics.LatencyHistogram;
+import com.example.metrics.MaxGauge;
+import com.example.metrics.MetricsRegistry;
+import com.example.tiles.TileIndex;
+import com.google.gson.Gson;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
 
 public class PathfindingService {
+    private static final int MAX_ALTERNATIVES = 10;
+    private static final int MAX_BATCH = Integer.getInteger("batch.maxPairs", 10_000);
+    private static final Set<String> ALGORITHMS = Set.of("bfs", "dfs", "dijkstra", "bidijkstra", "astar", "alt", "ch");
+    private static final long MAX_MATRIX_CELLS = Long.getLong("matrix.maxCells", 250_000L);
+    private static final int MAX_ISOCHRONE_NODES = Integer.getInteger("isochrone.maxNodes", 50_000);
+    private static final int LANDMARK_COUNT = Math.max(1, Math.min(64,
+            Integer.getInteger("alt.landmarks", Landmarks.DEFAULT_COUNT)));
+
     private final Graph graph;
     private final BFS bfs;
     private final DFS dfs;
     private final Dijkstra dijkstra;
+    private final BidirectionalDijkstra bidirectionalDijkstra;
+    private final AStar aStar;
+    private final Isochrone isochrone;
+    private final AlternativeRoutes alternativeRoutes;
+    private final SpatialIndex spatialIndex;
+    private final Components components;
+    // null бол бүх цэг рүү snap хийнэ
+    private final IntPredicate snapFilter;
+    private final Map<Metric, CompletableFuture<ContractionHierarchy>> contractionHierarchies;
+    private final Map<Metric, CompletableFuture<LandmarkAStar>> landmarkSearches;
+    private final RouteCache routeCache;
+    private final TileIndex tileIndex;
+    private final LruCache<String, byte[]> tileCache;
+    // Хос бүрт virtual thread; хайлтын төлөв SearchContext-ийн сангаас авагдах тул thread
+    // бүрт массив үүсэхгүй. Зэрэг ажиллах хайлтыг batchPermits-ээр цөмийн тоогоор хязгаарлана.
+    private final ExecutorService batchPool;
+    private final Semaphore batchPermits;
+    // ForkJoinPool cancel(true) үед interrupt хийдэггүй тул харьцуулалтад энгийн thread pool
+    private final ExecutorService comparePool;
+    private final long compareTimeoutMs;
+    private final Gson gson = new Gson();
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+    private final Map<String, QueryMetrics> queryMetrics = new HashMap<>();
 
     public PathfindingService(Graph graph) {
+        this(graph, null);
+    }
+
+    // snapshotPath өгвөл ALT тулгуурын хүснэгтүүдийг түүний хажууд хадгалж дахин ашиглана
+    public PathfindingService(Graph graph, Path snapshotPath) {
         this.graph = graph;
+        this.spatialIndex = graph.getSpatialIndex();
+        this.components = graph.getComponents();
+        // Хамгийн том SCC-д snap хийвэл эхлэл, төгсгөл хоёулаа бие биедээ хүрэх нь баталгаатай
+        this.snapFilter = Boolean.getBoolean("graph.snapLargestScc") ? components::isInLargestScc : null;
         this.bfs = new BFS(graph);
         this.dfs = new DFS(graph);
         this.dijkstra = new Dijkstra(graph);
+        this.bidirectionalDijkstra = new BidirectionalDijkstra(graph);
+        this.aStar = new AStar(graph);
+        this.isochrone = new Isochrone(graph);
+        this.alternativeRoutes = new AlternativeRoutes(graph);
+        this.contractionHierarchies = buildContractionHierarchiesAsync(graph);
+        this.landmarkSearches = buildLandmarksAsync(graph, snapshotPath);
+        this.routeCache = RouteCache.fromSystemProperties();
+        this.tileIndex = TileIndex.build(graph.getCsr());
+        this.tileCache = new LruCache<>(Integer.getInteger("tiles.cache.size", 4096), 0);
+        this.batchPool = Executors.newVirtualThreadPerTaskExecutor();
+        this.batchPermits = new Semaphore(Math.max(1, Integer.getInteger("batch.threads",
+                Runtime.getRuntime().availableProcessors())));
+        this.comparePool = Executors.newFixedThreadPool(Integer.getInteger("compare.threads", ALGORITHMS.size()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "compare");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.compareTimeoutMs = Long.getLong("compare.timeoutMs", 5_000L);
+        registerMetrics();
     }
 
-    public Node findNearestNode(double lat, double lng) {
-        Node nearest = null;
-        double minDistance = Double.MAX_VALUE;
+    private void registerMetrics() {
+        for (String algorithm : ALGORITHMS) {
+            queryMetrics.put(algorithm, new QueryMetrics(metrics, algorithm));
+        }
+        metrics.gauge("graph_nodes", "Графын цэгийн тоо", graph::size);
+        metrics.gauge("graph_edges", "Графын нумын тоо", () -> graph.getCsr().getEdgeCount());
+        metrics.gauge("graph_heap_bytes", "Граф, түүний индексүүдийн эзлэх heap (ойролцоо)",
+                graph::estimateHeapBytes);
+        Runtime runtime = Runtime.getRuntime();
+        metrics.gauge("graph_scc_count", "Хүчтэй холбоост бүрэлдэхүүний тоо", components::getSccCount);
+        metrics.gauge("graph_largest_scc_nodes", "Хамгийн том SCC-ийн цэгийн тоо", components::getLargestSccSize);
+        metrics.gauge("graph_wcc_count", "Сул холбоост бүрэлдэхүүний тоо", components::getWccCount);
+        metrics.gauge("jvm_heap_used_bytes", "JVM heap-ийн ашиглагдаж буй хэмжээ",
+                () -> runtime.totalMemory() - runtime.freeMemory());
+        metrics.gauge("jvm_heap_max_bytes", "JVM heap-ийн дээд хэмжээ", runtime::maxMemory);
+        contractionHierarchies.forEach((metric, future) -> metrics.gauge("ch_ready",
+                "CH бэлтгэл дууссан эсэх (1/0)",
+                () -> future.isDone() && !future.isCompletedExceptionally() ? 1 : 0, "metric", metric.key()));
+        landmarkSearches.forEach((metric, future) -> metrics.gauge("alt_ready",
+                "ALT тулгуурын бэлтгэл дууссан эсэх (1/0)",
+                () -> future.isDone() && !future.isCompletedExceptionally() ? 1 : 0, "metric", metric.key()));
+        CsrGraph csr = graph.getCsr();
+        metrics.gauge("traffic_version", "Замын хөдөлгөөний давхаргын хувилбар", () -> csr.getTraffic().getVersion());
+        metrics.gauge("traffic_overridden_edges", "Коэффициенттэй нумын тоо",
+                () -> csr.getTraffic().getOverriddenCount());
+        metrics.gauge("traffic_closed_edges", "Хаалттай нумын тоо", () -> csr.getTraffic().getClosedCount());
+        routeCache.registerMetrics(metrics);
+        tileCache.registerMetrics(metrics, "tiles");
+    }
+
+    // CH бэлтгэл удаан тул серверийг хүлээлгэлгүй тусдаа thread дээр metric бүрт дараалан ажиллуулна
+    private static Map<Metric, CompletableFuture<ContractionHierarchy>> buildContractionHierarchiesAsync(Graph graph) {
+        Map<Metric, CompletableFuture<ContractionHierarchy>> futures = new EnumMap<>(Metric.class);
+        for (Metric metric : Metric.values()) {
+            futures.put(metric, new CompletableFuture<>());
+        }
+
+        Thread builder = new Thread(() -> {
+            for (Metric metric : Metric.values()) {
+                CompletableFuture<ContractionHierarchy> future = futures.get(metric);
+                try {
+                    future.complete(ContractionHierarchy.build(graph, metric,
+                            Runtime.getRuntime().availableProcessors()));
+                } catch (Throwable t) {
+                    System.err.println("CH (" + metric.key() + ") бэлтгэлд алдаа: " + t.getMessage());
+                    future.completeExceptionally(t);
+                }
+            }
+        }, "ch-preprocessing");
+        builder.setDaemon(true);
+        builder.start();
+        return futures;
+    }
 
-        for (Node node : graph.getNodes()) {
-            double distance = calculateDistance(lat, lng, node.getLatitude(), node.getLongitude());
-            if (distance < minDistance) {
-                minDistance = distance;
-                nearest = node;
+    // Тулгуурын хүснэгт нь графын бүтэц, суурь жингээс хамаарна: хадгалсан файл таарвал уншина,
+    // үгүй бол зэрэгцээ байгуулаад хадгална. Тулгуур сонголт нь өмнөх модноос хамаарах тул дараалсан.
+    private static Map<Metric, CompletableFuture<LandmarkAStar>> buildLandmarksAsync(Graph graph, Path snapshotPath) {
+        Map<Metric, CompletableFuture<LandmarkAStar>> futures = new EnumMap<>(Metric.class);
+        for (Metric metric : Metric.values()) {
+            futures.put(metric, new CompletableFuture<>());
+        }
+
+        Thread builder = new Thread(() -> {
+            for (Metric metric : Metric.values()) {
+                CompletableFuture<LandmarkAStar> future = futures.get(metric);
+                try {
+                    future.complete(new LandmarkAStar(graph, loadOrBuildLandmarks(graph, snapshotPath, metric)));
+                } catch (Throwable t) {
+                    System.err.println("ALT (" + metric.key() + ") бэлтгэлд алдаа: " + t.getMessage());
+                    future.completeExceptionally(t);
+                }
+            }
+        }, "alt-preprocessing");
+        builder.setDaemon(true);
+        builder.start();
+        return futures;
+    }
+
+    private static Landmarks loadOrBuildLandmarks(Graph graph, Path snapshotPath, Metric metric) {
+        Path file = snapshotPath == null ? null : Landmarks.pathFor(snapshotPath, metric);
+        if (file != null) {
+            try {
+                Landmarks stored = Landmarks.read(file, graph.getCsr(), metric);
+                if (stored != null && stored.getRequestedCount() == LANDMARK_COUNT) {
+                    System.out.println("ALT (" + metric.key() + ") файлаас ачааллаа: " + file);
+                    return stored;
+                }
+            } catch (IOException e) {
+                System.err.println("ALT файл уншихад алдаа: " + e.getMessage());
             }
         }
 
-        return nearest;
+        Landmarks landmarks = Landmarks.build(graph, metric, LANDMARK_COUNT,
+                Runtime.getRuntime().availableProcessors());
+        if (file != null) {
+            try {
+                landmarks.write(file);
+            } catch (IOException e) {
+                // Хадгалж чадаагүй ч санах ой дахь хүснэгтээр үргэлжилнэ
+                System.err.println("ALT файл бичихэд алдаа: " + e.getMessage());
+            }
+        }
+        return landmarks;
+    }
+
+    public boolean isLandmarksReady(Metric metric) {
+        CompletableFuture<LandmarkAStar> future = landmarkSearches.get(metric);
+        return future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    public ContractionHierarchy getContractionHierarchy() {
+        return getContractionHierarchy(Metric.DISTANCE);
+    }
+
+    public ContractionHierarchy getContractionHierarchy(Metric metric) {
+        return contractionHierarchies.get(metric).join();
+    }
+
+    public boolean isContractionHierarchyReady() {
+        return isContractionHierarchyReady(Metric.DISTANCE);
+    }
+
+    public boolean isContractionHierarchyReady(Metric metric) {
+        CompletableFuture<ContractionHierarchy> future = contractionHierarchies.get(metric);
+        return future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    public Node findNearestNode(double lat, double lng) {
+        int nearest = spatialIndex.nearest(lat, lng, snapFilter);
+        return nearest < 0 ? null : graph.getNode(nearest);
+    }
+
+    public List<Node> findNearestNodes(double lat, double lng, int k) {
+        List<Node> result = new ArrayList<>();
+        for (int id : spatialIndex.kNearest(lat, lng, k)) {
+            result.add(graph.getNode(id));
+        }
+        return result;
+    }
+
+    public List<Node> findNodesWithinRadius(double lat, double lng, double radiusKm) {
+        List<Node> result = new ArrayList<>();
+        for (int id : spatialIndex.withinRadius(lat, lng, radiusKm)) {
+            result.add(graph.getNode(id));
+        }
+        return result;
+    }
+
+    // Тэгш өнцөгт доторх цэгүүдийг хуудаслан гүйнэ; дараагийн cursor эсвэл -1
+    public int scanNodes(double minLat, double minLng, double maxLat, double maxLng,
+                         int cursor, int limit, IntConsumer visitor) {
+        return spatialIndex.scanBox(minLat, minLng, maxLat, maxLng, cursor, limit, visitor);
+    }
+
+    // Mapbox Vector Tile; хавтан бүрийг нэг удаа кодлоод кэшэлнэ
+    public byte[] getTile(int z, int x, int y) {
+        Tile tile = new Tile(z, x, y);
+        String key = tile.toString();
+        byte[] bytes = tileCache.get(key);
+        if (bytes == null) {
+            bytes = tileIndex.render(tile);
+            tileCache.put(key, bytes);
+        }
+        return bytes;
+    }
+
+    public PathResponse findPathBFS(double startLat, double startLng, double endLat, double endLng,
+                                   Metric metric) {
+        return findPath("bfs", startLat, startLng, endLat, endLng, metric);
     }
 
-    public PathResponse findPathBFS(double startLat, double startLng, double endLat, double endLng) {
+    public PathResponse findPathDFS(double startLat, double startLng, double endLat, double endLng,
+                                   Metric metric) {
+        return findPath("dfs", startLat, startLng, endLat, endLng, metric);
+    }
+
+    public PathResponse findPathDijkstra(double startLat, double startLng, double endLat, double endLng,
+                                   Metric metric) {
+        return findPath("dijkstra", startLat, startLng, endLat, endLng, metric);
+    }
+
+    public PathResponse findPathBidirectional(double startLat, double startLng, double endLat, double endLng,
+                                              Metric metric) {
+        return findPath("bidijkstra", startLat, startLng, endLat, endLng, metric);
+    }
+
+    public PathResponse findPathAStar(double startLat, double startLng, double endLat, double endLng,
+                                   Metric metric) {
+        return findPath("astar", startLat, startLng, endLat, endLng, metric);
+    }
+
+    public PathResponse findPathALT(double startLat, double startLng, double endLat, double endLng,
+                                    Metric metric) {
+        return findPath("alt", startLat, startLng, endLat, endLng, metric);
+    }
+
+    public PathResponse findPathCH(double startLat, double startLng, double endLat, double endLng,
+                                   Metric metric) {
+        return findPath("ch", startLat, startLng, endLat, endLng, metric);
+    }
+
+    public PathResponse findPath(String algorithm, double startLat, double startLng,
+                                 double endLat, double endLng, Metric metric) {
+        long snapStart = System.nanoTime();
         Node startNode = findNearestNode(startLat, startLng);
         Node endNode = findNearestNode(endLat, endLng);
+        recordSnap(algorithm, System.nanoTime() - snapStart);
 
         if (startNode == null || endNode == null) {
             return new PathResponse(false, "Цэгүүд олдсонгүй");
         }
 
-        BFS.PathResult result = bfs.findPathWithStats(startNode.getId(), endNode.getId());
+        return search(algorithm, startNode.getId(), endNode.getId(), metric);
+    }
+
+    // JSON-оос бусад хэлбэрээр (polyline, бинар) кодлоход: координатыг шууд массивт авна. Кэшийг
+    // алгасна - кэш нь бэлэн JSON хадгалдаг.
+    public RouteGeometry findRouteGeometry(String algorithm, double startLat, double startLng,
+                                           double endLat, double endLng, Metric metric) {
+        long snapStart = System.nanoTime();
+        Node startNode = findNearestNode(startLat, startLng);
+        Node endNode = findNearestNode(endLat, endLng);
+        recordSnap(algorithm, System.nanoTime() - snapStart);
 
-        return PathResponse.fromNodeList(
-                result.path,
-                "BFS",
-                result.totalDistance,
-                result.executionTime
-        );
+        if (startNode == null || endNode == null) {
+            return new RouteGeometry(false, "Цэгүүд олдсонгүй", algorithm, metric.key(),
+                    new double[0], 0, 0, 0, 0, 0);
+        }
+
+        Route route = searchRoute(algorithm, startNode.getId(), endNode.getId(), metric);
+        if (route.nodes() == null) {
+            return new RouteGeometry(false, route.message() != null ? route.message() : "Зам олдсонгүй",
+                    route.algorithm(), metric.key(), new double[0], 0, 0, 0,
+                    route.executionTime(), route.settledNodes());
+        }
+        double[] coordinates = coordinates(route.nodes(), metric);
+        return new RouteGeometry(true, "Зам амжилттай олдлоо", route.algorithm(), metric.key(),
+                coordinates, coordinates.length / 2, route.totalDistance(), route.totalTime(),
+                route.executionTime(), route.settledNodes());
     }
 
-    public PathResponse findPathDFS(double startLat, double startLng, double endLat, double endLng) {
+    // Кэштэй хувилбар: hit үед хадгалсан JSON-ийг хайлтгүйгээр буцаана
+    public CachedRoute findPathCached(String algorithm, double startLat, double startLng,
+                                      double endLat, double endLng, Metric metric) {
+        long snapStart = System.nanoTime();
         Node startNode = findNearestNode(startLat, startLng);
         Node endNode = findNearestNode(endLat, endLng);
+        recordSnap(algorithm, System.nanoTime() - snapStart);
 
         if (startNode == null || endNode == null) {
-            return new PathResponse(false, "Цэгүүд олдсонгүй");
+            return new CachedRoute(gson.toJson(new PathResponse(false, "Цэгүүд олдсонгүй")), false);
+        }
+
+        // Хайлтаас өмнө уншина: хайлтын явцад хувилбар ахивал үр дүн нь хуучин түлхүүрт орж дахин олдохгүй
+        long trafficVersion = graph.getCsr().getTraffic().getVersion();
+        String json = routeCache.get(startNode.getId(), endNode.getId(), algorithm, metric, trafficVersion);
+        if (json != null) {
+            return new CachedRoute(json, true);
+        }
+
+        json = gson.toJson(search(algorithm, startNode.getId(), endNode.getId(), metric));
+        routeCache.put(startNode.getId(), endNode.getId(), algorithm, metric, trafficVersion, json);
+        return new CachedRoute(json, false);
+    }
+
+    // Бүх хосыг нэг дор snap хийгээд хайлтуудыг batchPool дээр зэрэгцээ ажиллуулна. Үр дүнг
+    // дуусах дарааллаар нь дуудсан thread дээр onResult(json, index)-д өгнө. Кэшэлсэн маршрутыг
+    // дахин тооцохгүй. onResult алдаа шидвэл үлдсэн хайлтуудыг цуцална.
+    public void routeBatch(String algorithm, List<double[]> pairs, Metric metric,
+                           ObjIntConsumer<String> onResult) throws InterruptedException {
+        if (!ALGORITHMS.contains(algorithm)) {
+            throw new IllegalArgumentException("Тодорхойгүй алгоритм: " + algorithm);
+        }
+        if (pairs == null || pairs.isEmpty()) {
+            throw new IllegalArgumentException("Хос өгөөгүй");
+        }
+        if (pairs.size() > MAX_BATCH) {
+            throw new IllegalArgumentException("Хэт олон хос: " + pairs.size() + " > " + MAX_BATCH);
+        }
+
+        List<double[]> points = new ArrayList<>(pairs.size() * 2);
+        for (int i = 0; i < pairs.size(); i++) {
+            double[] pair = pairs.get(i);
+            if (pair == null || pair.length < 4) {
+                throw new IllegalArgumentException("Хос буруу: " + i);
+            }
+            points.add(new double[]{pair[0], pair[1]});
+            points.add(new double[]{pair[2], pair[3]});
+        }
+        long snapStart = System.nanoTime();
+        long[] ids = snapAll(points);
+        // Нэг дор snap хийсэн тул хос бүрт дундаж хугацааг нь бичнэ
+        long snapPerPair = (System.nanoTime() - snapStart) / pairs.size();
+        for (int i = 0; i < pairs.size(); i++) {
+            recordSnap(algorithm, snapPerPair);
+        }
+
+        ExecutorCompletionService<Integer> completion = new ExecutorCompletionService<>(batchPool);
+        String[] results = new String[pairs.size()];
+        List<Future<Integer>> futures = new ArrayList<>(pairs.size());
+        try {
+            for (int i = 0; i < pairs.size(); i++) {
+                int index = i;
+                futures.add(completion.submit(() -> {
+                    batchPermits.acquire();
+                    try {
+                        long startId = ids[2 * index];
+                        long endId = ids[2 * index + 1];
+                        long trafficVersion = graph.getCsr().getTraffic().getVersion();
+                        String json = routeCache.get(startId, endId, algorithm, metric, trafficVersion);
+                        if (json == null) {
+                            json = gson.toJson(search(algorithm, startId, endId, metric));
+                            routeCache.put(startId, endId, algorithm, metric, trafficVersion, json);
+                        }
+                        results[index] = json;
+                        return index;
+                    } finally {
+                        batchPermits.release();
+                    }
+                }));
+            }
+            for (int i = 0; i < pairs.size(); i++) {
+                Future<Integer> done = completion.take();
+                int index;
+                try {
+                    index = done.get();
+                } catch (ExecutionException e) {
+                    // Аль хос болохыг мэдэхгүй тул бүхэлд нь зогсооно
+                    throw new IllegalStateException("Batch хайлтад алдаа: " + e.getCause().getMessage(), e.getCause());
+                }
+                onResult.accept(results[index], index);
+                results[index] = null;
+            }
+        } finally {
+            // Хүлээж буй болон ажиллаж буй хайлтуудыг interrupt-аар зогсооно
+            for (Future<Integer> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private PathResponse search(String algorithm, long startId, long endId, Metric metric) {
+        return toResponse(searchRoute(algorithm, startId, endId, metric), metric);
+    }
+
+    private PathResponse toResponse(Route route, Metric metric) {
+        PathResponse response;
+        if (route.nodes() == null && route.message() != null) {
+            response = new PathResponse(false, route.message());
+            response.setAlgorithm(route.algorithm());
+        } else {
+            List<Node> path = route.nodes() == null ? null : graph.getNodes(route.nodes());
+            response = PathResponse.fromNodeList(withGeometry(path, metric), route.algorithm(),
+                    route.totalDistance(), route.executionTime());
+            response.setSettledNodes(route.settledNodes());
+            response.setTotalTime(route.totalTime());
+        }
+        response.setMetric(metric.key());
+        return response;
+    }
+
+    // Алгоритмыг ажиллуулж хэмжигдэхүүнийг бүртгэнэ; хариуны хэлбэрээс (JSON, polyline...) хамаарахгүй
+    private Route searchRoute(String algorithm, long startId, long endId, Metric metric) {
+        if (!ALGORITHMS.contains(algorithm)) {
+            throw new IllegalArgumentException("Тодорхойгүй алгоритм: " + algorithm);
+        }
+        QueryMetrics query = queryMetrics.get(algorithm);
+        // Өөр бүрэлдэхүүнд байвал эхлэлээс хүрэх бүх хэсгийг гүйлгүйгээр шууд татгалзана
+        if (!components.mayReach(startId, endId)) {
+            query.unreachable.increment();
+            return new Route(null, algorithm, "Зам олдсонгүй: цэгүүд холбогдоогүй хэсэгт байна", 0, 0, 0, 0, 0);
+        }
+
+        Route route;
+        switch (algorithm) {
+            case "bfs" -> {
+                BFS.PathResult result = bfs.findPathWithStats(startId, endId, metric);
+                route = new Route(result.nodes, "BFS", null, result.totalDistance, result.totalTime,
+                        result.executionTime, result.settledNodes, result.reconstructionTime);
+                query.record(result.executionTime, result.reconstructionTime,
+                        result.settledNodes, result.relaxedEdges, result.maxQueueSize);
+            }
+            case "dfs" -> {
+                DFS.PathResult result = dfs.findPathWithStats(startId, endId, metric);
+                route = new Route(result.nodes, "DFS", null, result.totalDistance, result.totalTime,
+                        result.executionTime, result.settledNodes, result.reconstructionTime);
+                query.record(result.executionTime, result.reconstructionTime,
+                        result.settledNodes, result.relaxedEdges, result.maxQueueSize);
+            }
+            case "dijkstra" -> {
+                Dijkstra.PathResult result = dijkstra.findPathWithStats(startId, endId, metric);
+                route = new Route(result.nodes, "Dijkstra", null, result.totalDistance, result.totalTime,
+                        result.executionTime, result.settledNodes, result.reconstructionTime);
+                query.record(result.executionTime, result.reconstructionTime,
+                        result.settledNodes, result.relaxedEdges, result.maxQueueSize);
+            }
+            case "bidijkstra" -> route = bidirectional("Bidirectional Dijkstra", startId, endId, metric, query);
+            case "astar" -> {
+                AStar.PathResult result = aStar.findPathWithStats(startId, endId, metric);
+                route = new Route(result.nodes, "A*", null, result.totalDistance, result.totalTime,
+                        result.executionTime, result.settledNodes, result.reconstructionTime);
+                query.record(result.executionTime, result.reconstructionTime,
+                        result.settledNodes, result.relaxedEdges, result.maxQueueSize);
+            }
+            case "alt" -> {
+                if (isLandmarksReady(metric)) {
+                    LandmarkAStar.PathResult result = landmarkSearches.get(metric).join()
+                            .findPathWithStats(startId, endId);
+                    route = new Route(result.nodes, "ALT", null, result.totalDistance, result.totalTime,
+                            result.executionTime, result.settledNodes, result.reconstructionTime);
+                    query.record(result.executionTime, result.reconstructionTime,
+                            result.settledNodes, result.relaxedEdges, result.maxQueueSize);
+                } else {
+                    // Тулгуурын бэлтгэл дуусаагүй бол хүсэлтийн thread-ийг түгжихгүй
+                    route = bidirectional("ALT (Bidirectional Dijkstra)", startId, endId, metric, query);
+                }
+            }
+            case "ch" -> {
+                if (isContractionHierarchyReady(metric) && graph.getCsr().getTraffic().isEmpty()) {
+                    ContractionHierarchy.PathResult result = getContractionHierarchy(metric)
+                            .findPathWithStats(startId, endId);
+                    route = new Route(result.nodes, "CH", null, result.totalDistance, result.totalTime,
+                            result.executionTime, result.settledNodes, result.reconstructionTime);
+                    query.record(result.executionTime, result.reconstructionTime,
+                            result.settledNodes, result.relaxedEdges, result.maxQueueSize);
+                } else {
+                    // Бэлтгэл дуусаагүй, эсвэл шатлал нь суурь жингээр байгуулагдсан тул замын
+                    // хөдөлгөөн идэвхтэй үед хоёр чиглэлт Dijkstra
+                    route = bidirectional("CH (Bidirectional Dijkstra)", startId, endId, metric, query);
+                }
+            }
+            default -> throw new IllegalArgumentException("Тодорхойгүй алгоритм: " + algorithm);
+        }
+        return route;
+    }
+
+    private Route bidirectional(String name, long startId, long endId, Metric metric, QueryMetrics query) {
+        BidirectionalDijkstra.PathResult result = bidirectionalDijkstra.findPathWithStats(startId, endId, metric);
+        query.record(result.executionTime, result.reconstructionTime,
+                result.settledNodes, result.relaxedEdges, result.maxQueueSize);
+        return new Route(result.nodes, name, null, result.totalDistance, result.totalTime,
+                result.executionTime, result.settledNodes, result.reconstructionTime);
+    }
+
+    // Хураасан графд нум бүрийн завсрын цэгүүдийг (ID нь -1) оруулж замыг бүтэн зурна
+    private List<Node> withGeometry(List<Node> path, Metric metric) {
+        CsrGraph csr = graph.getCsr();
+        if (path == null || !csr.hasGeometry()) {
+            return path;
+        }
+        List<Node> full = new ArrayList<>(path.size() * 2);
+        for (int i = 0; i < path.size(); i++) {
+            if (i > 0) {
+                int edge = csr.findEdge((int) path.get(i - 1).getId(), (int) path.get(i).getId(), metric);
+                for (int j = 0; edge >= 0 && j < csr.getGeometrySize(edge); j++) {
+                    full.add(new Node(-1, csr.getGeometryLatitude(edge, j), csr.getGeometryLongitude(edge, j)));
+                }
+            }
+            full.add(path.get(i));
+        }
+        return full;
+    }
+
+    // (lat, lon) хосууд, завсрын geometry-г оруулсан; Node үүсгэлгүй CSR-ээс шууд уншина
+    private double[] coordinates(int[] nodes, Metric metric) {
+        CsrGraph csr = graph.getCsr();
+        boolean geometry = csr.hasGeometry();
+        int[] edges = new int[nodes.length];
+        int count = nodes.length;
+        for (int i = 1; i < nodes.length && geometry; i++) {
+            edges[i] = csr.findEdge(nodes[i - 1], nodes[i], metric);
+            count += edges[i] >= 0 ? csr.getGeometrySize(edges[i]) : 0;
         }
 
-        DFS.PathResult result = dfs.findPathWithStats(startNode.getId(), endNode.getId());
+        double[] coordinates = new double[2 * count];
+        int k = 0;
+        for (int i = 0; i < nodes.length; i++) {
+            if (i > 0 && geometry && edges[i] >= 0) {
+                for (int j = 0; j < csr.getGeometrySize(edges[i]); j++) {
+                    coordinates[k++] = csr.getGeometryLatitude(edges[i], j);
+                    coordinates[k++] = csr.getGeometryLongitude(edges[i], j);
+                }
+            }
+            coordinates[k++] = csr.getLatitude(nodes[i]);
+            coordinates[k++] = csr.getLongitude(nodes[i]);
+        }
+        return coordinates;
+    }
+
+    private void recordSnap(String algorithm, long nanos) {
+        QueryMetrics query = queryMetrics.get(algorithm);
+        if (query != null) {
+            query.snap.record(nanos);
+        }
+    }
+
+    // Цэг бүрийг нэг удаа snap хийгээд мөр бүрт one-to-many Dijkstra-г зэрэгцээ ажиллуулна
+    public MatrixResponse distanceMatrix(List<double[]> sources, List<double[]> targets, Metric metric) {
+        if (sources == null || sources.isEmpty()) {
+            throw new IllegalArgumentException("Эхлэлийн цэг өгөөгүй");
+        }
+        if (targets == null || targets.isEmpty()) {
+            targets = sources;
+        }
+        long cells = (long) sources.size() * targets.size();
+        if (cells > MAX_MATRIX_CELLS) {
+            throw new IllegalArgumentException("Матриц хэт том: " + cells + " > " + MAX_MATRIX_CELLS);
+        }
+
+        long startTime = System.nanoTime();
+        long[] sourceIds = snapAll(sources);
+        long[] targetIds = snapAll(targets);
 
-        return PathResponse.fromNodeList(
-                result.path,
-                "DFS",
-                result.totalDistance,
-                result.executionTime
-        );
+        double[][] costs = new double[sourceIds.length][];
+        IntStream.range(0, sourceIds.length).parallel().forEach(row -> {
+            // Өөр бүрэлдэхүүний зорилтыг хайлтаас хасна (-1 нь графт байхгүй тул хариу нь -1 хэвээр);
+            // эс бөгөөс нэг л хүрэхгүй зорилт мөрийн хайлтыг бүх бүрэлдэхүүнийг гүйлгэнэ
+            long source = sourceIds[row];
+            long[] reachable = Arrays.stream(targetIds)
+                    .map(target -> components.mayReach(source, target) ? target : -1)
+                    .toArray();
+            double[] distances = dijkstra.findDistances(source, reachable, metric);
+            for (int i = 0; i < distances.length; i++) {
+                if (Double.isInfinite(distances[i])) {
+                    distances[i] = -1;
+                }
+            }
+            costs[row] = distances;
+        });
+
+        MatrixResponse response = new MatrixResponse(true, "Матриц бэлэн");
+        response.setMetric(metric.key());
+        response.setSources(sourceIds);
+        response.setTargets(targetIds);
+        response.setCosts(costs);
+        response.setExecutionTime((System.nanoTime() - startTime) / 1_000_000.0);
+        return response;
     }
 
-    public PathResponse findPathDijkstra(double startLat, double startLng, double endLat, double endLng) {
+    // {lat, lng} хос бүрийг хамгийн ойрын цэгийн ID болгоно
+    private long[] snapAll(List<double[]> points) {
+        long[] ids = new long[points.size()];
+        for (int i = 0; i < ids.length; i++) {
+            double[] point = points.get(i);
+            if (point == null || point.length < 2) {
+                throw new IllegalArgumentException("Цэг буруу: " + i);
+            }
+            Node node = findNearestNode(point[0], point[1]);
+            if (node == null) {
+                throw new IllegalArgumentException("Цэгүүд олдсонгүй");
+            }
+            ids[i] = node.getId();
+        }
+        return ids;
+    }
+
+    // budget нь км (distance) эсвэл минут (time); polygon=true бол гүдгэр бүрхүүл нэмнэ.
+    // includeNodes=false бол цэгийн жагсаалтыг огт үүсгэхгүй; үгүй бол хамгийн ойр
+    // MAX_ISOCHRONE_NODES цэгийг буцааж, илүүг нь truncated гэж тэмдэглэнэ.
+    public IsochroneResponse isochrone(double lat, double lng, double budget, Metric metric, boolean polygon,
+                                       boolean includeNodes) {
+        if (!(budget >= 0) || Double.isInfinite(budget)) {
+            throw new IllegalArgumentException("Төсөв буруу: " + budget);
+        }
+        Node origin = findNearestNode(lat, lng);
+        if (origin == null) {
+            return new IsochroneResponse(false, "Цэгүүд олдсонгүй");
+        }
+
+        Isochrone.Result result = isochrone.compute(origin.getId(), budget, metric);
+        IsochroneResponse response = new IsochroneResponse(true, "Хүрэх цэг: " + result.nodes.length);
+        response.setMetric(metric.key());
+        response.setBudget(budget);
+        response.setOrigin(origin.getId());
+        response.setNodeCount(result.nodes.length);
+        if (includeNodes) {
+            // Цэгүүд өртгийн өсөх дарааллаар шийдэгдсэн тул эхний хэсэг нь хамгийн ойр цэгүүд
+            CsrGraph csr = graph.getCsr();
+            int count = Math.min(result.nodes.length, MAX_ISOCHRONE_NODES);
+            List<IsochroneResponse.ReachedNode> nodes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int node = result.nodes[i];
+                nodes.add(new IsochroneResponse.ReachedNode(node,
+                        csr.getLatitude(node), csr.getLongitude(node), result.costs[i]));
+            }
+            response.setNodes(nodes);
+            response.setTruncated(count < result.nodes.length);
+        }
+        if (polygon) {
+            response.setPolygon(isochrone.convexHull(result.nodes));
+        }
+        response.setExecutionTime(result.executionTime);
+        return response;
+    }
+
+    public AlternativesResponse findAlternatives(double startLat, double startLng, double endLat, double endLng,
+                                                 int k, Metric metric) {
+        if (k < 1 || k > MAX_ALTERNATIVES) {
+            throw new IllegalArgumentException("k нь 1.." + MAX_ALTERNATIVES + " байх ёстой: " + k);
+        }
         Node startNode = findNearestNode(startLat, startLng);
         Node endNode = findNearestNode(endLat, endLng);
 
         if (startNode == null || endNode == null) {
-            return new PathResponse(false, "Цэгүүд олдсонгүй");
+            return new AlternativesResponse(false, "Цэгүүд олдсонгүй");
         }
 
-        Dijkstra.PathResult result = dijkstra.findPathWithStats(startNode.getId(), endNode.getId());
+        AlternativeRoutes.Result result = alternativeRoutes.findRoutes(
+                startNode.getId(), endNode.getId(), k, metric);
+        List<PathResponse> routes = new ArrayList<>(result.paths.size());
+        for (List<Node> path : result.paths) {
+            PathResponse route = PathResponse.fromNodeList(withGeometry(path, metric), "Yen",
+                    dijkstra.calculatePathDistance(path, metric), result.executionTime);
+            route.setTotalTime(dijkstra.calculatePathTime(path, metric));
+            route.setMetric(metric.key());
+            routes.add(route);
+        }
 
-        return PathResponse.fromNodeList(
-                result.path,
-                "Dijkstra",
-                result.totalDistance,
-                result.executionTime
-        );
+        AlternativesResponse response = new AlternativesResponse(!routes.isEmpty(),
+                routes.isEmpty() ? "Зам олдсонгүй" : routes.size() + " зам олдлоо");
+        response.setMetric(metric.key());
+        response.setRoutes(routes);
+        response.setTruncated(result.truncated);
+        response.setExpansions(result.expansions);
+        response.setExecutionTime(result.executionTime);
+        return response;
     }
 
+    // Цэгүүдийг нэг л удаа snap хийгээд алгоритмуудыг comparePool дээр зэрэгцээ ажиллуулна. Хайлт
+    // бүр сангаас өөрийн SearchContext авах тул хоорондоо саадгүй. Эхэлснээсээ хойш compareTimeoutMs-д
+    // дуусаагүй хайлтыг interrupt-аар тасалж timedOut гэж тэмдэглэнэ; дараалалд хүлээсэн хугацаа
+    // тооцогдохгүй. costDelta нь Dijkstra-ийн оновчтой замаас
+    // metric-ийн өртгийн зөрүү.
     public Map<String, PathResponse> compareAlgorithms(double startLat, double startLng,
-                                                       double endLat, double endLng) {
-        Map<String, PathResponse> results = new HashMap<>();
+                                                       double endLat, double endLng, Metric metric)
+            throws InterruptedException {
+        List<String> algorithms = new ArrayList<>(List.of("bfs", "dfs", "dijkstra", "bidijkstra", "astar"));
+        if (isLandmarksReady(metric)) {
+            algorithms.add("alt");
+        }
+        if (isContractionHierarchyReady(metric)) {
+            algorithms.add("ch");
+        }
+
+        long snapStart = System.nanoTime();
+        Node startNode = findNearestNode(startLat, startLng);
+        Node endNode = findNearestNode(endLat, endLng);
+        long snapNanos = System.nanoTime() - snapStart;
+        double snapTime = snapNanos / 1_000_000.0;
 
-        results.put("bfs", findPathBFS(startLat, startLng, endLat, endLng));
-        results.put("dfs", findPathDFS(startLat, startLng, endLat, endLng));
-        results.put("dijkstra", findPathDijkstra(startLat, startLng, endLat, endLng));
+        Map<String, PathResponse> results = new LinkedHashMap<>();
+        if (startNode == null || endNode == null) {
+            for (String algorithm : algorithms) {
+                results.put(algorithm, new PathResponse(false, "Цэгүүд олдсонгүй"));
+            }
+            return results;
+        }
+        long startId = startNode.getId();
+        long endId = endNode.getId();
 
+        // Хайлт бүр comparePool дээр эхэлсэн мөчөө бичнэ (0 бол дараалалд хүлээж байна)
+        long timeout = TimeUnit.MILLISECONDS.toNanos(compareTimeoutMs);
+        AtomicLongArray started = new AtomicLongArray(algorithms.size());
+        Map<String, Future<PathResponse>> futures = new LinkedHashMap<>();
+        for (String algorithm : algorithms) {
+            recordSnap(algorithm, snapNanos);
+            int index = futures.size();
+            futures.put(algorithm, comparePool.submit(() -> {
+                started.set(index, System.nanoTime());
+                return compareSearch(algorithm, startId, endId, metric);
+            }));
+        }
+        try {
+            int index = 0;
+            for (Map.Entry<String, Future<PathResponse>> entry : futures.entrySet()) {
+                PathResponse response = null;
+                try {
+                    while (response == null) {
+                        long begin = started.get(index);
+                        long wait = begin == 0 ? timeout : begin + timeout - System.nanoTime();
+                        try {
+                            response = entry.getValue().get(Math.max(0, wait), TimeUnit.NANOSECONDS);
+                        } catch (TimeoutException e) {
+                            begin = started.get(index);
+                            if (begin != 0 && System.nanoTime() - begin >= timeout) {
+                                entry.getValue().cancel(true);
+                                response = new PathResponse(false, "Хугацаа хэтэрлээ: " + compareTimeoutMs + " мс");
+                                response.setAlgorithm(entry.getKey());
+                                response.setTimedOut(true);
+                            }
+                        }
+                    }
+                } catch (ExecutionException e) {
+                    response = new PathResponse(false, "Алдаа: " + e.getCause().getMessage());
+                    response.setAlgorithm(entry.getKey());
+                }
+                response.setMetric(metric.key());
+                response.setSnapTime(snapTime);
+                results.put(entry.getKey(), response);
+                index++;
+            }
+        } finally {
+            for (Future<PathResponse> future : futures.values()) {
+                future.cancel(true);
+            }
+        }
+
+        PathResponse optimum = results.get("dijkstra");
+        if (optimum != null && optimum.isSuccess()) {
+            double optimalCost = metric == Metric.TIME ? optimum.getTotalTime() : optimum.getTotalDistance();
+            for (PathResponse response : results.values()) {
+                if (response.isSuccess()) {
+                    double cost = metric == Metric.TIME ? response.getTotalTime() : response.getTotalDistance();
+                    response.setCostDelta(cost - optimalCost);
+                }
+            }
+        }
         return results;
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371;
+    // comparePool дээрх нэг хайлт: хайлт, замыг сэргээх, хариу бэлтгэх үе шатны хугацаатай
+    private PathResponse compareSearch(String algorithm, long startId, long endId, Metric metric) {
+        Route route = searchRoute(algorithm, startId, endId, metric);
+        long responseStart = System.nanoTime();
+        PathResponse response = toResponse(route, metric);
+        response.setReconstructionTime(route.reconstructionTime());
+        response.setResponseTime((System.nanoTime() - responseStart) / 1_000_000.0);
+        return response;
+    }
 
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
+    // multipliers: нум -> хугацааны коэффициент (1 бол арилгана, TrafficOverlay.CLOSED бол хаана).
+    // Шинэ хувилбар бүтэн бэлэн болсны дараа л нэг заагчаар солигдоно; хайлтуудыг түгжихгүй.
+    public TrafficResponse updateTraffic(Map<Integer, Double> multipliers, boolean reset) {
+        long startTime = System.nanoTime();
+        TrafficOverlay traffic = graph.getCsr().updateTraffic(multipliers, reset);
+        // Хуучин хувилбарын элементүүд дахин олдохгүй ч санах ойг шууд чөлөөлнө
+        routeCache.clear();
+        TrafficResponse response = trafficResponse(traffic, multipliers.size() + " нум шинэчлэгдлээ");
+        response.setExecutionTime((System.nanoTime() - startTime) / 1_000_000.0);
+        return response;
+    }
 
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+    public TrafficResponse getTraffic() {
+        return trafficResponse(graph.getCsr().getTraffic(), "Замын хөдөлгөөний давхарга");
+    }
 
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    private static TrafficResponse trafficResponse(TrafficOverlay traffic, String message) {
+        TrafficResponse response = new TrafficResponse(true, message);
+        response.setVersion(traffic.getVersion());
+        response.setOverriddenEdges(traffic.getOverriddenCount());
+        response.setClosedEdges(traffic.getClosedCount());
+        return response;
+    }
 
-        return R * c;
+    // from -> to чиглэлийн бүх зэрэгцээ нум
+    public int[] findArcs(long fromId, long toId) {
+        CsrGraph csr = graph.getCsr();
+        if (!csr.contains(fromId) || !csr.contains(toId)) {
+            return new int[0];
+        }
+        int from = (int) fromId;
+        return IntStream.range(csr.firstEdge(from), csr.endEdge(from))
+                .filter(e -> csr.getTarget(e) == toId)
+                .toArray();
+    }
+
+    // Prometheus text format
+    public void writeMetrics(Writer out) throws IOException {
+        metrics.writePrometheus(out);
+    }
+
+    public RouteCache getRouteCache() {
+        return routeCache;
     }
 
     public Graph getGraph() {
         return graph;
     }
-}
\ No newline at end of file
+
+    public record CachedRoute(String json, boolean hit) {
+    }
+
+    // Алгоритмын түүхий үр дүн; message нь хайлтгүй татгалзсан үед л байна
+    private record Route(int[] nodes, String algorithm, String message, double totalDistance,
+                         double totalTime, double executionTime, int settledNodes, double reconstructionTime) {
+    }
+
+    // coordinates нь (lat, lon) дараалсан хосууд; pointCount = coordinates.length / 2
+    public record RouteGeometry(boolean success, String message, String algorithm, String metric,
+                                double[] coordinates, int pointCount, double totalDistance, double totalTime,
+                                double executionTime, int settledNodes) {
+    }
+
+    // Алгоритм бүрийн үе шатны хугацааны гистограм ба хайлтын тоолуурууд. Бүртгэлийг нэг
+    // удаа хийгээд хүсэлт бүрт зөвхөн LongAdder-уудыг ахиулна.
+    private static final class QueryMetrics {
+        final LatencyHistogram snap;
+        final LatencyHistogram search;
+        final LatencyHistogram reconstruction;
+        final Counter queries;
+        final Counter unreachable;
+        final Counter settledNodes;
+        final Counter relaxedEdges;
+        final MaxGauge queueHighWater;
+
+        QueryMetrics(MetricsRegistry registry, String algorithm) {
+            String phaseHelp = "Маршрутын хүсэлтийн үе шатны хугацаа (snap, search, reconstruction)";
+            snap = registry.histogram("route_phase_seconds", phaseHelp, "algorithm", algorithm, "phase", "snap");
+            search = registry.histogram("route_phase_seconds", phaseHelp, "algorithm", algorithm, "phase", "search");
+            reconstruction = registry.histogram("route_phase_seconds", phaseHelp,
+                    "algorithm", algorithm, "phase", "reconstruction");
+            queries = registry.counter("route_queries_total", "Кэшгүй гүйцэтгэсэн хайлт", "algorithm", algorithm);
+            unreachable = registry.counter("route_unreachable_total",
+                    "Бүрэлдэхүүнээр нь хайлтгүй татгалзсан хүсэлт", "algorithm", algorithm);
+            settledNodes = registry.counter("route_settled_nodes_total", "Хайлтаар шийдсэн цэг",
+                    "algorithm", algorithm);
+            relaxedEdges = registry.counter("route_relaxed_edges_total", "Хайлтаар шалгасан ирмэг",
+                    "algorithm", algorithm);
+            queueHighWater = registry.maxGauge("route_queue_high_water", "Нэг хайлтын дарааллын хамгийн их хэмжээ",
+                    "algorithm", algorithm);
+        }
+
+        // executionTime нь зам сэргээлтийг багтаасан тул хайлтын хугацааг хасч олно (мс)
+        void record(double executionTime, double reconstructionTime, long settled, long relaxed, int maxQueue) {
+            search.recordMillis(executionTime - reconstructionTime);
+            reconstruction.recordMillis(reconstructionTime);
+            queries.increment();
+            settledNodes.add(settled);
+            relaxedEdges.add(relaxed);
+            queueHighWater.update(maxQueue);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.service;
+
+import com.example.graph.Metric;
+import com.example.metrics.MetricsRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Snap хийсэн эхлэл/төгсгөл цэг, алгоритм, metric, замын хөдөлгөөний хувилбараар
+// түлхүүрлэсэн маршрутын кэш. Утга нь цувуулсан JSON тул hit үед хайлт ч, цувуулалт ч
+// хийгдэхгүй. Хувилбар ахихад хуучин элементүүд хэзээ ч олдохгүй болно.
+public class RouteCache {
+    private final LruCache<Key, String> cache;
+
+    public RouteCache(int capacity, long ttlMillis) {
+        this.cache = new LruCache<>(capacity, ttlMillis);
+    }
+
+    // -Droute.cache.size, -Droute.cache.ttl (секунд, 0 бол хязгааргүй)
+    public static RouteCache fromSystemProperties() {
+        int capacity = Integer.getInteger("route.cache.size", 10_000);
+        long ttlSeconds = Long.getLong("route.cache.ttl", 0L);
+        return new RouteCache(capacity, ttlSeconds * 1000L);
+    }
+
+    public String get(long startId, long endId, String algorithm, Metric metric, long trafficVersion) {
+        return cache.get(new Key(startId, endId, algorithm, metric, trafficVersion));
+    }
+
+    public void put(long startId, long endId, String algorithm, Metric metric, long trafficVersion, String json) {
+        cache.put(new Key(startId, endId, algorithm, metric, trafficVersion), json);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public void registerMetrics(MetricsRegistry registry) {
+        cache.registerMetrics(registry, "route");
+    }
+
+    public Map<String, Object> getStats() {
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("capacity", cache.getCapacity());
+        stats.put("ttlSeconds", cache.getTtlMillis() / 1000);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", cache.getEvictions());
+        stats.put("expirations", cache.getExpirations());
+        stats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return stats;
+    }
+
+    private record Key(long startId, long endId, String algorithm, Metric metric, long trafficVersion) {
+    }
+}
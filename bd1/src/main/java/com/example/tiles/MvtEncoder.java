@@ -0,0 +1,202 @@
+package com.example.tiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Mapbox Vector Tile (vector_tile.proto v2)-ийн нэг давхаргыг гараар protobuf болгон бичнэ.
+// Түлхүүр, утгыг давхарга дотор нэг удаа бүртгээд feature бүр индексээр нь заана.
+public class MvtEncoder {
+    private static final int GEOM_LINESTRING = 2;
+    private static final int CMD_MOVE_TO = 1;
+    private static final int CMD_LINE_TO = 2;
+
+    private final String layerName;
+    private final int extent;
+    private final List<String> keys = new ArrayList<>();
+    private final Map<String, Integer> keyIndex = new HashMap<>();
+    private final List<Object> values = new ArrayList<>();
+    private final Map<Object, Integer> valueIndex = new HashMap<>();
+    private final Buffer features = new Buffer(1024);
+    private final Buffer scratch = new Buffer(256);
+    private int featureCount = 0;
+
+    public MvtEncoder(String layerName, int extent) {
+        this.layerName = layerName;
+        this.extent = extent;
+    }
+
+    public int getExtent() {
+        return extent;
+    }
+
+    public int getFeatureCount() {
+        return featureCount;
+    }
+
+    public int key(String key) {
+        return keyIndex.computeIfAbsent(key, k -> {
+            keys.add(k);
+            return keys.size() - 1;
+        });
+    }
+
+    // String эсвэл Boolean
+    public int value(Object value) {
+        return valueIndex.computeIfAbsent(value, v -> {
+            values.add(v);
+            return values.size() - 1;
+        });
+    }
+
+    // xy нь хавтангийн координат (0..extent) x0,y0,x1,y1,...; tags нь key,value индексийн хосууд
+    public void addLineString(long id, int[] tags, int tagCount, int[] xy, int pointCount) {
+        if (pointCount < 2) {
+            return;
+        }
+        Buffer feature = scratch;
+        feature.reset();
+        feature.varintField(1, id);
+
+        feature.tag(2, 2);
+        int tagBytes = 0;
+        for (int i = 0; i < tagCount; i++) {
+            tagBytes += Buffer.varintSize(tags[i]);
+        }
+        feature.varint(tagBytes);
+        for (int i = 0; i < tagCount; i++) {
+            feature.varint(tags[i]);
+        }
+
+        feature.varintField(3, GEOM_LINESTRING);
+
+        // Геометр: MoveTo(1) + LineTo(n-1), координат бүр өмнөхөөсөө зөрүүгээр zigzag
+        long[] commands = new long[2 + 2 * pointCount];
+        int c = 0;
+        commands[c++] = command(CMD_MOVE_TO, 1);
+        commands[c++] = zigzag(xy[0]);
+        commands[c++] = zigzag(xy[1]);
+        commands[c++] = command(CMD_LINE_TO, pointCount - 1);
+        for (int i = 1; i < pointCount; i++) {
+            commands[c++] = zigzag(xy[2 * i] - xy[2 * i - 2]);
+            commands[c++] = zigzag(xy[2 * i + 1] - xy[2 * i - 1]);
+        }
+        int geometryBytes = 0;
+        for (int i = 0; i < c; i++) {
+            geometryBytes += Buffer.varintSize(commands[i]);
+        }
+        feature.tag(4, 2);
+        feature.varint(geometryBytes);
+        for (int i = 0; i < c; i++) {
+            feature.varint(commands[i]);
+        }
+
+        features.tag(2, 2);
+        features.varint(feature.size);
+        features.bytes(feature.data, 0, feature.size);
+        featureCount++;
+    }
+
+    // Feature байхгүй бол хоосон хавтан (0 байт)
+    public byte[] encode() {
+        if (featureCount == 0) {
+            return new byte[0];
+        }
+        Buffer layer = new Buffer(features.size + 256);
+        layer.varintField(15, 2);
+        layer.stringField(1, layerName);
+        layer.bytes(features.data, 0, features.size);
+        for (String key : keys) {
+            layer.stringField(3, key);
+        }
+        Buffer value = new Buffer(32);
+        for (Object v : values) {
+            value.reset();
+            if (v instanceof Boolean b) {
+                value.varintField(7, b ? 1 : 0);
+            } else {
+                value.stringField(1, v.toString());
+            }
+            layer.tag(4, 2);
+            layer.varint(value.size);
+            layer.bytes(value.data, 0, value.size);
+        }
+        layer.varintField(5, extent);
+
+        Buffer tile = new Buffer(layer.size + 8);
+        tile.tag(3, 2);
+        tile.varint(layer.size);
+        tile.bytes(layer.data, 0, layer.size);
+        return Arrays.copyOf(tile.data, tile.size);
+    }
+
+    private static long command(int id, int count) {
+        return (id & 0x7) | ((long) count << 3);
+    }
+
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    private static class Buffer {
+        byte[] data;
+        int size;
+
+        Buffer(int capacity) {
+            this.data = new byte[capacity];
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        void ensure(int extra) {
+            if (size + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + extra));
+            }
+        }
+
+        void tag(int field, int wireType) {
+            varint(((long) field << 3) | wireType);
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        void varintField(int field, long value) {
+            tag(field, 0);
+            varint(value);
+        }
+
+        void stringField(int field, String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            tag(field, 2);
+            varint(utf8.length);
+            bytes(utf8, 0, utf8.length);
+        }
+
+        void bytes(byte[] src, int offset, int length) {
+            ensure(length);
+            System.arraycopy(src, offset, data, size, length);
+            size += length;
+        }
+
+        static int varintSize(long value) {
+            int bytes = 1;
+            while ((value & ~0x7FL) != 0) {
+                value >>>= 7;
+                bytes++;
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.tiles;
+
+import com.example.graph.CsrGraph;
+import com.example.graph.Tile;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Ирмэгүүдийг хэдэн zoom түвшний (tier) торонд урьдчилан хуваарилсан индекс. Tier бүрт
+// тухайн zoom-оос эхлэн харагдах замын ангиллууд л ордог тул бага zoom-ын хавтан жижиг
+// гудамжуудыг огт гүйхгүй. Хавтан бүр зөвхөн өөрийгөө хамрах tier-ийн нүднүүдийг уншина.
+public class TileIndex {
+    public static final String LAYER = "roads";
+    public static final int EXTENT = 4096;
+    // Хавтангийн захаар тасрахгүйн тулд хүрээг нэмж авах хэмжээ (extent-ийн нэгжээр)
+    private static final int BUFFER = 64;
+    private static final int[] TIER_ZOOMS = {8, 11, 14};
+    // Douglas–Peucker-ийн зөвшөөрөх хазайлт: 256px хавтангийн нэг пиксел (extent-ийн нэгжээр).
+    // Клиент сүүлийн tier-ийн хавтанг томруулж (overzoom) харуулдаг тул түүнээс доош zoom-д л хэрэглэнэ.
+    private static final double SIMPLIFY_TOLERANCE = EXTENT / 256.0;
+
+    private final CsrGraph csr;
+    private final int[] edgeFrom;
+    // Web Mercator-ийн [0, 1) хэвийн координат
+    private final double[] nodeX;
+    private final double[] nodeY;
+    private final Map<Long, int[]>[] tiers;
+    private final int edgeCount;
+
+    private TileIndex(CsrGraph csr, int[] edgeFrom, double[] nodeX, double[] nodeY,
+                      Map<Long, int[]>[] tiers, int edgeCount) {
+        this.csr = csr;
+        this.edgeFrom = edgeFrom;
+        this.nodeX = nodeX;
+        this.nodeY = nodeY;
+        this.tiers = tiers;
+        this.edgeCount = edgeCount;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static TileIndex build(CsrGraph csr) {
+        int n = csr.getNodeCount();
+        double[] nodeX = new double[n];
+        double[] nodeY = new double[n];
+        for (int v = 0; v < n; v++) {
+            if (!csr.contains(v)) continue;
+            nodeX[v] = mercatorX(csr.getLongitude(v));
+            nodeY[v] = mercatorY(csr.getLatitude(v));
+        }
+
+        String[] roadTypes = csr.getRoadTypes();
+        int[] classMinZoom = new int[roadTypes.length];
+        for (int i = 0; i < roadTypes.length; i++) {
+            classMinZoom[i] = minZoom(roadTypes[i]);
+        }
+
+        // Хоёр талын замын урвуу нумыг давхар зурахгүй
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] edgeFrom = new int[csr.getEdgeCount()];
+        int[] drawn = new int[csr.getEdgeCount()];
+        int drawnCount = 0;
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                edgeFrom[e] = u;
+                if (isDrawn(csr, e, u, targets[e])) {
+                    drawn[drawnCount++] = e;
+                }
+            }
+        }
+
+        double[] box = new double[4];
+        Map<Long, int[]>[] tiers = new Map[TIER_ZOOMS.length];
+        for (int t = 0; t < TIER_ZOOMS.length; t++) {
+            int zoom = TIER_ZOOMS[t];
+            double scale = 1 << zoom;
+            Map<Long, int[]> cells = new HashMap<>();
+            Map<Long, Integer> sizes = new HashMap<>();
+            for (int i = 0; i < drawnCount; i++) {
+                int e = drawn[i];
+                if (classMinZoom[csr.getRoadClass(e)] > zoom) continue;
+                bounds(csr, edgeFrom, nodeX, nodeY, e, box);
+                int x0 = cell(box[0], scale), x1 = cell(box[1], scale);
+                int y0 = cell(box[2], scale), y1 = cell(box[3], scale);
+                for (int x = x0; x <= x1; x++) {
+                    for (int y = y0; y <= y1; y++) {
+                        long key = key(x, y);
+                        int[] list = cells.get(key);
+                        int size = sizes.getOrDefault(key, 0);
+                        if (list == null || size == list.length) {
+                            list = list == null ? new int[4] : Arrays.copyOf(list, size * 2);
+                            cells.put(key, list);
+                        }
+                        list[size] = e;
+                        sizes.put(key, size + 1);
+                    }
+                }
+            }
+            cells.replaceAll((key, list) -> Arrays.copyOf(list, sizes.get(key)));
+            tiers[t] = cells;
+        }
+
+        return new TileIndex(csr, edgeFrom, nodeX, nodeY, tiers, drawnCount);
+    }
+
+    // Хоёр талын замын урвуу нумыг алгасна. Хураасан гогцоо (u == v) нумын хоёр чиглэлийг
+    // geometry-ийн эхний, сүүлийн цэгээр ялгана.
+    private static boolean isDrawn(CsrGraph csr, int e, int u, int v) {
+        if (u != v) {
+            return csr.isOneWay(e) || u < v;
+        }
+        int size = csr.getGeometrySize(e);
+        if (size == 0) {
+            return false;
+        }
+        if (csr.isOneWay(e)) {
+            return true;
+        }
+        int order = Double.compare(csr.getGeometryLatitude(e, 0), csr.getGeometryLatitude(e, size - 1));
+        if (order == 0) {
+            order = Double.compare(csr.getGeometryLongitude(e, 0), csr.getGeometryLongitude(e, size - 1));
+        }
+        return order <= 0;
+    }
+
+    // Нумын бүх цэгийн (эхлэл, завсрын, төгсгөл) Mercator координат xy-д; цэгийн тоог буцаана
+    private int points(int e, double[][] holder) {
+        int count = csr.getGeometrySize(e) + 2;
+        double[] xy = holder[0];
+        if (xy.length < 2 * count) {
+            xy = holder[0] = new double[4 * count];
+        }
+        int u = edgeFrom[e], v = csr.getTarget(e);
+        xy[0] = nodeX[u];
+        xy[1] = nodeY[u];
+        for (int i = 0; i < count - 2; i++) {
+            xy[2 * i + 2] = mercatorX(csr.getGeometryLongitude(e, i));
+            xy[2 * i + 3] = mercatorY(csr.getGeometryLatitude(e, i));
+        }
+        xy[2 * count - 2] = nodeX[v];
+        xy[2 * count - 1] = nodeY[v];
+        return count;
+    }
+
+    // box: minX, maxX, minY, maxY
+    private static void bounds(CsrGraph csr, int[] edgeFrom, double[] nodeX, double[] nodeY, int e, double[] box) {
+        int u = edgeFrom[e], v = csr.getTarget(e);
+        box[0] = Math.min(nodeX[u], nodeX[v]);
+        box[1] = Math.max(nodeX[u], nodeX[v]);
+        box[2] = Math.min(nodeY[u], nodeY[v]);
+        box[3] = Math.max(nodeY[u], nodeY[v]);
+        for (int i = 0; i < csr.getGeometrySize(e); i++) {
+            double x = mercatorX(csr.getGeometryLongitude(e, i));
+            double y = mercatorY(csr.getGeometryLatitude(e, i));
+            box[0] = Math.min(box[0], x);
+            box[1] = Math.max(box[1], x);
+            box[2] = Math.min(box[2], y);
+            box[3] = Math.max(box[3], y);
+        }
+    }
+
+    // OSM fclass-аар тухайн замыг харуулж эхлэх zoom
+    static int minZoom(String roadType) {
+        String type = roadType == null ? "" : roadType.toLowerCase(Locale.ROOT).replace("_link", "");
+        return switch (type) {
+            case "motorway", "trunk", "primary" -> TIER_ZOOMS[0];
+            case "secondary", "tertiary" -> TIER_ZOOMS[1];
+            default -> TIER_ZOOMS[2];
+        };
+    }
+
+    public byte[] render(Tile tile) {
+        int z = tile.getZ();
+        int t = 0;
+        while (t + 1 < TIER_ZOOMS.length && TIER_ZOOMS[t + 1] <= z) t++;
+        int tierZoom = TIER_ZOOMS[t];
+        Map<Long, int[]> cells = tiers[t];
+
+        double tileScale = 1 << z;
+        double buffer = (double) BUFFER / EXTENT;
+        double minX = (tile.getX() - buffer) / tileScale, maxX = (tile.getX() + 1 + buffer) / tileScale;
+        double minY = (tile.getY() - buffer) / tileScale, maxY = (tile.getY() + 1 + buffer) / tileScale;
+        double tierScale = 1 << tierZoom;
+        int qx0 = cell(minX, tierScale), qx1 = cell(maxX, tierScale);
+        int qy0 = cell(minY, tierScale), qy1 = cell(maxY, tierScale);
+
+        MvtEncoder encoder = new MvtEncoder(LAYER, EXTENT);
+        int classKey = encoder.key("class");
+        int oneWayKey = encoder.key("oneway");
+        double[] box = new double[4];
+        double[][] coords = {new double[16]};
+        int[] xy = new int[16];
+        int[] stack = new int[16];
+        boolean[] keep = new boolean[8];
+        int[] tags = new int[4];
+        boolean simplify = z < TIER_ZOOMS[TIER_ZOOMS.length - 1];
+
+        for (int cx = qx0; cx <= qx1; cx++) {
+            for (int cy = qy0; cy <= qy1; cy++) {
+                int[] list = cells.get(key(cx, cy));
+                if (list == null) continue;
+                for (int e : list) {
+                    bounds(csr, edgeFrom, nodeX, nodeY, e, box);
+                    double ex0 = box[0], ex1 = box[1];
+                    double ey0 = box[2], ey1 = box[3];
+                    if (ex1 < minX || ex0 > maxX || ey1 < minY || ey0 > maxY) continue;
+                    // Олон нүдэнд орсон ирмэгийг зөвхөн хүсэлтийн хүрээн дэх эхний нүднээс нь зурна
+                    if (Math.max(cell(ex0, tierScale), qx0) != cx || Math.max(cell(ey0, tierScale), qy0) != cy) continue;
+
+                    int count = points(e, coords);
+                    if (xy.length < 2 * count) {
+                        xy = new int[4 * count];
+                    }
+                    // Энэ zoom-д давхцсан дараалсан цэгүүдийг хасна; нэг цэг болж хураагдвал хаяна
+                    int pointCount = 0;
+                    for (int i = 0; i < count; i++) {
+                        int px = project(coords[0][2 * i], tile.getX(), tileScale);
+                        int py = project(coords[0][2 * i + 1], tile.getY(), tileScale);
+                        if (pointCount > 0 && xy[2 * pointCount - 2] == px && xy[2 * pointCount - 1] == py) continue;
+                        xy[2 * pointCount] = px;
+                        xy[2 * pointCount + 1] = py;
+                        pointCount++;
+                    }
+                    if (pointCount < 2) continue;
+                    if (simplify && pointCount > 2) {
+                        if (keep.length < pointCount) {
+                            stack = new int[4 * pointCount];
+                            keep = new boolean[2 * pointCount];
+                        }
+                        pointCount = simplify(xy, pointCount, SIMPLIFY_TOLERANCE, stack, keep);
+                    }
+
+                    int tagCount = 0;
+                    tags[tagCount++] = oneWayKey;
+                    tags[tagCount++] = encoder.value(csr.isOneWay(e));
+                    String roadType = csr.getRoadType(e);
+                    if (roadType != null) {
+                        tags[tagCount++] = classKey;
+                        tags[tagCount++] = encoder.value(roadType);
+                    }
+                    encoder.addLineString(e, tags, tagCount, xy, pointCount);
+                }
+            }
+        }
+        return encoder.encode();
+    }
+
+    // xy-ийн эхний count цэгийг Douglas–Peucker-ээр байранд нь хялбарчилж, үлдсэн цэгийн тоог буцаана.
+    // stack нь 2*count, keep нь count-оос багагүй урттай байх ёстой.
+    static int simplify(int[] xy, int count, double tolerance, int[] stack, boolean[] keep) {
+        Arrays.fill(keep, 0, count, false);
+        keep[0] = true;
+        keep[count - 1] = true;
+        double limit = tolerance * tolerance;
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = count - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            double worst = -1;
+            int index = -1;
+            for (int i = first + 1; i < last; i++) {
+                double d = segmentDistanceSquared(xy, i, first, last);
+                if (d > worst) {
+                    worst = d;
+                    index = i;
+                }
+            }
+            if (index >= 0 && worst > limit) {
+                keep[index] = true;
+                stack[top++] = first;
+                stack[top++] = index;
+                stack[top++] = index;
+                stack[top++] = last;
+            }
+        }
+
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (keep[i]) {
+                xy[2 * kept] = xy[2 * i];
+                xy[2 * kept + 1] = xy[2 * i + 1];
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    // p цэгээс [a, b] хэрчим хүртэлх зайн квадрат
+    private static double segmentDistanceSquared(int[] xy, int p, int a, int b) {
+        double ax = xy[2 * a], ay = xy[2 * a + 1];
+        double dx = xy[2 * b] - ax, dy = xy[2 * b + 1] - ay;
+        double px = xy[2 * p] - ax, py = xy[2 * p + 1] - ay;
+        double length = dx * dx + dy * dy;
+        double t = length == 0 ? 0 : Math.max(0, Math.min(1, (px * dx + py * dy) / length));
+        double ex = px - t * dx, ey = py - t * dy;
+        return ex * ex + ey * ey;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    private static int project(double normalized, int tileCoord, double tileScale) {
+        return (int) Math.round((normalized * tileScale - tileCoord) * EXTENT);
+    }
+
+    private static int cell(double normalized, double scale) {
+        int max = (int) scale - 1;
+        int c = (int) Math.floor(normalized * scale);
+        return c < 0 ? 0 : (c > max ? max : c);
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    static double mercatorX(double lon) {
+        return (lon + 180.0) / 360.0;
+    }
+
+    static double mercatorY(double lat) {
+        double clamped = Math.max(-85.05112878, Math.min(85.05112878, lat));
+        double sin = Math.sin(Math.toRadians(clamped));
+        return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+}
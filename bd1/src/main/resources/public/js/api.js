@@ -4,31 +4,60 @@ const API_BASE_URL = 'http://localhost:8080/api';
 
 const API = {
 
-    async findPathBFS(startLat, startLng, endLat, endLng) {
+    async findPathBFS(startLat, startLng, endLat, endLng, metric = 'distance') {
         return await this.request('/path/bfs', {
-            startLat, startLng, endLat, endLng
+            startLat, startLng, endLat, endLng, metric
         });
     },
 
 
-    async findPathDFS(startLat, startLng, endLat, endLng) {
+    async findPathDFS(startLat, startLng, endLat, endLng, metric = 'distance') {
         return await this.request('/path/dfs', {
-            startLat, startLng, endLat, endLng
+            startLat, startLng, endLat, endLng, metric
         });
     },
 
-    async findPathDijkstra(startLat, startLng, endLat, endLng) {
+    async findPathDijkstra(startLat, startLng, endLat, endLng, metric = 'distance') {
         return await this.request('/path/dijkstra', {
-            startLat, startLng, endLat, endLng
+            startLat, startLng, endLat, endLng, metric
         });
     },
 
-    async compareAlgorithms(startLat, startLng, endLat, endLng) {
+    async findPathBidirectional(startLat, startLng, endLat, endLng, metric = 'distance') {
+        return await this.request('/path/bidirectional', {
+            startLat, startLng, endLat, endLng, metric
+        });
+    },
+
+    async findAlternatives(startLat, startLng, endLat, endLng, k = 3, metric = 'distance') {
+        return await this.request(`/path/alternatives?k=${k}`, {
+            startLat, startLng, endLat, endLng, metric
+        });
+    },
+
+    async findPathAStar(startLat, startLng, endLat, endLng, metric = 'distance') {
+        return await this.request('/path/astar', {
+            startLat, startLng, endLat, endLng, metric
+        });
+    },
+
+    async findPathALT(startLat, startLng, endLat, endLng, metric = 'distance') {
+        return await this.request('/path/alt', {
+            startLat, startLng, endLat, endLng, metric
+        });
+    },
+
+    async compareAlgorithms(startLat, startLng, endLat, endLng, metric = 'distance') {
         return await this.request('/path/compare', {
-            startLat, startLng, endLat, endLng
+            startLat, startLng, endLat, endLng, metric
         });
     },
 
+    // updates: [{ edge, multiplier } | { from, to, closed: true }]; reset=true бол өмнөхийг арилгана
+    async updateTraffic(updates, reset = false) {
+        return await this.request('/traffic', { updates, reset });
+    },
+
     async getGraphStats() {
         try {
             const response = await fetch(`${API_BASE_URL}/graph/stats`);
@@ -39,9 +68,13 @@ const API = {
         }
     },
 
-    async getAllNodes() {
+    // bbox: "minLng,minLat,maxLng,maxLat"; хариуны nextCursor-оор дараагийн хуудсыг авна
+    async getAllNodes(bbox = null, cursor = null, limit = 5000) {
         try {
-            const response = await fetch(`${API_BASE_URL}/graph/nodes`);
+            const params = new URLSearchParams({ limit });
+            if (bbox) params.set('bbox', bbox);
+            if (cursor) params.set('cursor', cursor);
+            const response = await fetch(`${API_BASE_URL}/graph/nodes?${params}`);
             return await response.json();
         } catch (error) {
             console.error('Node-ууд авахад алдаа:', error);
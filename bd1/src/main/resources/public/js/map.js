@@ -35,16 +35,19 @@ function initEventListeners() {
     document.getElementById('btn-bfs').addEventListener('click', () => selectAlgorithm('bfs'));
     document.getElementById('btn-dfs').addEventListener('click', () => selectAlgorithm('dfs'));
     document.getElementById('btn-dijkstra').addEventListener('click', () => selectAlgorithm('dijkstra'));
+    document.getElementById('btn-astar').addEventListener('click', () => selectAlgorithm('astar'));
     document.getElementById('btn-compare').addEventListener('click', compareAllAlgorithms);
 
     document.getElementById('btn-clear').addEventListener('click', clearAll);
     document.getElementById('btn-reset').addEventListener('click', resetPoints);
 
     document.getElementById('btn-show-nodes').addEventListener('click', toggleShowAllNodes);
+    document.getElementById('btn-show-roads').addEventListener('click', toggleRoadNetwork);
 }
 
 
 let nodesVisible = false;
+const MAX_VISIBLE_NODES = 20000;
 async function toggleShowAllNodes() {
     const btn = document.getElementById('btn-show-nodes');
 
@@ -57,13 +60,17 @@ async function toggleShowAllNodes() {
         showLoading(true);
 
         try {
-            const response = await API.getAllNodes();
-
-            if (response && response.success && response.nodes) {
-                const nodes = response.nodes;
-                console.log(`Нийт ${nodes.length} цэг олдлоо`);
-
-                nodes.forEach(node => {
+            // Зөвхөн харагдаж буй хэсгийн цэгүүдийг хуудаслан ачаална
+            const bbox = map.getBounds().toBBoxString();
+            let cursor = null;
+            let total = 0;
+            do {
+                const response = await API.getAllNodes(bbox, cursor);
+                if (!response || !response.success || !response.nodes) {
+                    throw new Error('Цэгүүд ачаалж чадсангүй');
+                }
+
+                response.nodes.forEach(node => {
                     const marker = L.circleMarker([node.lat, node.lng], {
                         radius: 2,
                         fillColor: '#3388ff',
@@ -76,15 +83,16 @@ async function toggleShowAllNodes() {
 
                     nodeMarkersLayer.addLayer(marker);
                 });
+                total += response.count;
+                cursor = response.nextCursor;
+            } while (cursor && total < MAX_VISIBLE_NODES);
+            console.log(`Нийт ${total} цэг олдлоо`);
 
-                nodesVisible = true;
-                btn.textContent = '🔴 Цэгүүдийг нуух';
-                btn.classList.add('active');
+            nodesVisible = true;
+            btn.textContent = '🔴 Цэгүүдийг нуух';
+            btn.classList.add('active');
 
-                alert(`${nodes.length} цэг харуулав. Газрын зураг дээр цэг дээр дарж дэлгэрэнгүй мэдээлэл авна уу.`);
-            } else {
-                alert('Цэгүүд ачаалж чадсангүй');
-            }
+            alert(`${total} цэг харуулав. Газрын зураг дээр цэг дээр дарж дэлгэрэнгүй мэдээлэл авна уу.`);
         } catch (error) {
             console.error('Node-ууд ачаалахад алдаа:', error);
             alert('Алдаа гарлаа: ' + error.message);
@@ -94,6 +102,39 @@ async function toggleShowAllNodes() {
     }
 }
 
+// Замын сүлжээг серверийн /tiles/{z}/{x}/{y}.mvt вектор хавтангаар зурна
+const ROAD_COLORS = {
+    motorway: '#e8590c', trunk: '#e8590c', primary: '#f08c00',
+    secondary: '#fab005', tertiary: '#fab005'
+};
+let roadNetworkLayer = null;
+
+function toggleRoadNetwork() {
+    const btn = document.getElementById('btn-show-roads');
+
+    if (roadNetworkLayer) {
+        map.removeLayer(roadNetworkLayer);
+        roadNetworkLayer = null;
+        btn.classList.remove('active');
+        return;
+    }
+
+    roadNetworkLayer = L.vectorGrid.protobuf('/tiles/{z}/{x}/{y}.mvt', {
+        maxNativeZoom: 16,
+        vectorTileLayerStyles: {
+            roads: (properties, zoom) => {
+                const roadClass = (properties.class || '').replace('_link', '');
+                return {
+                    color: ROAD_COLORS[roadClass] || '#495057',
+                    weight: ROAD_COLORS[roadClass] ? 2 : 1,
+                    opacity: 0.8
+                };
+            }
+        }
+    }).addTo(map);
+    btn.classList.add('active');
+}
+
 function onMapClick(e) {
     const lat = e.latlng.lat;
     const lng = e.latlng.lng;
@@ -178,19 +219,29 @@ async function findPath(algorithm) {
             case 'bfs':
                 result = await API.findPathBFS(
                     startCoords.lat, startCoords.lng,
-                    endCoords.lat, endCoords.lng
+                    endCoords.lat, endCoords.lng,
+                    getSelectedMetric()
                 );
                 break;
             case 'dfs':
                 result = await API.findPathDFS(
                     startCoords.lat, startCoords.lng,
-                    endCoords.lat, endCoords.lng
+                    endCoords.lat, endCoords.lng,
+                    getSelectedMetric()
                 );
                 break;
             case 'dijkstra':
                 result = await API.findPathDijkstra(
                     startCoords.lat, startCoords.lng,
-                    endCoords.lat, endCoords.lng
+                    endCoords.lat, endCoords.lng,
+                    getSelectedMetric()
+                );
+                break;
+            case 'astar':
+                result = await API.findPathAStar(
+                    startCoords.lat, startCoords.lng,
+                    endCoords.lat, endCoords.lng,
+                    getSelectedMetric()
                 );
                 break;
         }
@@ -221,14 +272,20 @@ async function compareAllAlgorithms() {
     try {
         const results = await API.compareAlgorithms(
             startCoords.lat, startCoords.lng,
-            endCoords.lat, endCoords.lng
+            endCoords.lat, endCoords.lng,
+            getSelectedMetric()
         );
 
         const resultArray = [
             { ...results.bfs, color: getAlgorithmColor('bfs') },
             { ...results.dfs, color: getAlgorithmColor('dfs') },
-            { ...results.dijkstra, color: getAlgorithmColor('dijkstra') }
+            { ...results.dijkstra, color: getAlgorithmColor('dijkstra') },
+            { ...results.bidijkstra, color: getAlgorithmColor('bidijkstra') },
+            { ...results.astar, color: getAlgorithmColor('astar') }
         ];
+        if (results.ch) {
+            resultArray.push({ ...results.ch, color: getAlgorithmColor('ch') });
+        }
 
         resultArray.forEach(result => {
             if (result.success && result.path) {
@@ -287,6 +344,10 @@ function displayResults(results) {
                         <span class="stat-value">${result.totalDistance.toFixed(2)}</span>
                         <span class="stat-label">км</span>
                     </div>
+                    <div class="stat">
+                        <span class="stat-value">${(result.totalTime || 0).toFixed(1)}</span>
+                        <span class="stat-label">мин</span>
+                    </div>
                     <div class="stat">
                         <span class="stat-value">${result.executionTime.toFixed(2)}</span>
                         <span class="stat-label">мс</span>
@@ -301,11 +362,19 @@ function displayResults(results) {
     resultsPanel.classList.remove('hidden');
 }
 
+function getSelectedMetric() {
+    const select = document.getElementById('metric-select');
+    return select ? select.value : 'distance';
+}
+
 function getAlgorithmColor(algorithm) {
     const colors = {
         'bfs': '#007bff',
         'dfs': '#28a745',
-        'dijkstra': '#dc3545'
+        'dijkstra': '#dc3545',
+        'astar': '#fd7e14',
+        'bidijkstra': '#e83e8c',
+        'ch': '#6f42c1'
     };
     return colors[algorithm] || '#6c757d';
 }
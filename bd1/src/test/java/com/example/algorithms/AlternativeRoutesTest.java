@@ -0,0 +1,168 @@
+package com.example.algorithms;
+
+import com.example.graph.CsrGraph;
+import com.example.graph.Graph;
+import com.example.graph.Metric;
+import com.example.graph.Node;
+import com.example.graph.TestGraphs;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AlternativeRoutesTest {
+
+    @Test
+    public void routesAreOptimalLooplessDistinctAndSorted() {
+        for (long seed = 1; seed <= 3; seed++) {
+            Graph graph = Graph.fromCsr(TestGraphs.grid(15, 15, seed));
+            CsrGraph csr = graph.getCsr();
+            AlternativeRoutes alternatives = new AlternativeRoutes(graph);
+            Dijkstra dijkstra = new Dijkstra(graph);
+            Random random = new Random(seed);
+            for (Metric metric : Metric.values()) {
+                for (int query = 0; query < 10; query++) {
+                    int start = random.nextInt(csr.getNodeCount());
+                    int end = random.nextInt(csr.getNodeCount());
+                    AlternativeRoutes.Result result = alternatives.findRoutes(start, end, 5, metric);
+                    assertFalse(result.truncated);
+
+                    double optimal = dijkstra.findDistances(start, new long[]{end}, metric)[0];
+                    if (optimal == Double.POSITIVE_INFINITY) {
+                        assertTrue(result.paths.isEmpty());
+                        continue;
+                    }
+                    assertFalse(result.paths.isEmpty());
+                    assertEquals(optimal, result.costs[0], 1e-9);
+                    assertValidRoutes(csr, result, start, end, metric);
+                }
+            }
+        }
+    }
+
+    // Жижиг графт бүх давталтгүй замыг тоолж k хамгийн хямдтай харьцуулна
+    @Test
+    public void costsMatchBruteForceEnumeration() {
+        for (long seed = 1; seed <= 5; seed++) {
+            Graph graph = Graph.fromCsr(TestGraphs.grid(4, 4, seed));
+            CsrGraph csr = graph.getCsr();
+            for (Metric metric : Metric.values()) {
+                List<Double> all = new ArrayList<>();
+                enumerate(csr, metric, 0, 15, new boolean[csr.getNodeCount()], 0.0, all);
+                all.sort(Double::compare);
+
+                AlternativeRoutes.Result result = new AlternativeRoutes(graph).findRoutes(0, 15, 8, metric);
+                assertEquals(Math.min(8, all.size()), result.paths.size());
+                for (int i = 0; i < result.costs.length; i++) {
+                    assertEquals(all.get(i), result.costs[i], 1e-9);
+                }
+                assertValidRoutes(csr, result, 0, 15, metric);
+            }
+        }
+    }
+
+    @Test
+    public void truncatedWhenLimitsAreHit() {
+        Graph graph = Graph.fromCsr(TestGraphs.grid(30, 30, 9));
+        int end = 30 * 30 - 1;
+
+        AlternativeRoutes.Result unlimited = new AlternativeRoutes(graph).findRoutes(0, end, 5, Metric.DISTANCE);
+        assertFalse(unlimited.truncated);
+        assertEquals(5, unlimited.paths.size());
+
+        // Шийдсэн цэгийн хязгаар: эхний зам олдсон ч хувилбаруудыг дуусгаж амжихгүй
+        AlternativeRoutes.Result expansions = new AlternativeRoutes(graph, AlternativeRoutes.DEFAULT_MAX_DEPTH,
+                AlternativeRoutes.DEFAULT_TIME_LIMIT_MS, 2_000).findRoutes(0, end, 5, Metric.DISTANCE);
+        assertTrue(expansions.truncated);
+        assertTrue(expansions.paths.size() < 5);
+        assertTrue(expansions.expansions <= 2_000);
+
+        AlternativeRoutes.Result time = new AlternativeRoutes(graph, AlternativeRoutes.DEFAULT_MAX_DEPTH, 0,
+                AlternativeRoutes.DEFAULT_MAX_EXPANSIONS).findRoutes(0, end, 5, Metric.DISTANCE);
+        assertTrue(time.truncated);
+
+        // Хамгийн богино зам нь гүнээс урт
+        AlternativeRoutes.Result depth = new AlternativeRoutes(graph, 10, AlternativeRoutes.DEFAULT_TIME_LIMIT_MS,
+                AlternativeRoutes.DEFAULT_MAX_EXPANSIONS).findRoutes(0, end, 5, Metric.DISTANCE);
+        assertTrue(depth.truncated);
+        assertTrue(depth.paths.isEmpty());
+
+        for (AlternativeRoutes.Result result : List.of(expansions, time, depth)) {
+            for (int i = 0; i < result.costs.length; i++) {
+                assertEquals(unlimited.costs[i], result.costs[i], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void reverseTreeDoesNotUseSpurBudget() {
+        // Урвуу мод 900 цэг шийднэ; spur хайлтын 500-ийн хязгаарт тооцогдвол нэг ч зам олдохгүй
+        Graph graph = Graph.fromCsr(TestGraphs.grid(30, 30, 9));
+        Dijkstra dijkstra = new Dijkstra(graph);
+        for (int end = 1; end < 30 * 30; end += 97) {
+            double[] cost = dijkstra.findDistances(0, new long[]{end}, Metric.DISTANCE);
+            AlternativeRoutes.Result result = new AlternativeRoutes(graph, AlternativeRoutes.DEFAULT_MAX_DEPTH,
+                    AlternativeRoutes.DEFAULT_TIME_LIMIT_MS, 500).findRoutes(0, end, 1, Metric.DISTANCE);
+            if (cost[0] == Double.POSITIVE_INFINITY) {
+                assertTrue(result.paths.isEmpty());
+                continue;
+            }
+            assertFalse(result.truncated);
+            assertEquals(1, result.paths.size());
+            assertEquals(cost[0], result.costs[0], 1e-9);
+            assertTrue(result.expansions <= 500);
+        }
+    }
+
+    private static void assertValidRoutes(CsrGraph csr, AlternativeRoutes.Result result, int start, int end,
+                                          Metric metric) {
+        Set<List<Long>> distinct = new HashSet<>();
+        for (int i = 0; i < result.paths.size(); i++) {
+            List<Node> path = result.paths.get(i);
+            ContractionHierarchyTest.assertPath(csr, path, start, end, metric);
+            List<Long> ids = path.stream().map(Node::getId).toList();
+            assertEquals(ids.size(), new HashSet<>(ids).size(), "давталттай зам " + ids);
+            assertTrue(distinct.add(ids), "давхардсан зам " + ids);
+
+            double cost = 0.0;
+            for (int j = 0; j + 1 < path.size(); j++) {
+                int edge = csr.findEdge((int) path.get(j).getId(), (int) path.get(j + 1).getId(), metric);
+                cost += csr.weights(metric)[edge];
+            }
+            assertEquals(cost, result.costs[i], 1e-9);
+            if (i > 0) {
+                assertTrue(result.costs[i - 1] <= result.costs[i], Arrays.toString(result.costs));
+            }
+        }
+    }
+
+    private static void enumerate(CsrGraph csr, Metric metric, int v, int end, boolean[] onPath, double cost,
+                                  List<Double> costs) {
+        if (v == end) {
+            costs.add(cost);
+            return;
+        }
+        onPath[v] = true;
+        double[] weights = csr.weights(metric);
+        // Зэрэгцээ нумуудаас хамгийн хямдыг нь л авна
+        double[] best = new double[csr.getNodeCount()];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        for (int e = csr.firstEdge(v); e < csr.endEdge(v); e++) {
+            best[csr.getTarget(e)] = Math.min(best[csr.getTarget(e)], weights[e]);
+        }
+        for (int w = 0; w < best.length; w++) {
+            if (best[w] != Double.POSITIVE_INFINITY && !onPath[w]) {
+                enumerate(csr, metric, w, end, onPath, cost + best[w], costs);
+            }
+        }
+        onPath[v] = false;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.algorithms;
+
+import com.example.graph.CsrGraph;
+import com.example.graph.Graph;
+import com.example.graph.Metric;
+import com.example.graph.Node;
+import com.example.graph.TestGraphs;
+import com.example.graph.TrafficOverlay;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClosedArcTest {
+
+    // 0 -> 1 -> 3 ба 0 -> 2 -> 3; 0 -> 1 хаалттай бол 2-оор тойрно
+    @Test
+    public void uninformedSearchesAvoidClosedArc() {
+        CsrGraph csr = new CsrGraph.Builder()
+                .addNode(0, 47.90, 106.90)
+                .addNode(1, 47.91, 106.90)
+                .addNode(2, 47.90, 106.91)
+                .addNode(3, 47.91, 106.91)
+                .addArc(0, 1, 1.2, "primary", true)
+                .addArc(1, 3, 1.2, "primary", true)
+                .addArc(0, 2, 1.2, "primary", true)
+                .addArc(2, 3, 1.2, "primary", true)
+                .build();
+        Graph graph = Graph.fromCsr(csr);
+        csr.updateTraffic(Map.of(csr.findEdge(0, 1), TrafficOverlay.CLOSED), false);
+
+        for (Metric metric : Metric.values()) {
+            BFS.PathResult bfs = new BFS(graph).findPathWithStats(0, 3, metric);
+            DFS.PathResult dfs = new DFS(graph).findPathWithStats(0, 3, metric);
+            assertEquals(List.of(0L, 2L, 3L), ids(bfs.path));
+            assertEquals(List.of(0L, 2L, 3L), ids(dfs.path));
+            assertTrue(Double.isFinite(bfs.totalDistance) && Double.isFinite(bfs.totalTime));
+            assertTrue(Double.isFinite(dfs.totalDistance) && Double.isFinite(dfs.totalTime));
+        }
+
+        csr.updateTraffic(Map.of(csr.findEdge(2, 3), TrafficOverlay.CLOSED), false);
+        assertNull(new BFS(graph).findPath(0, 3));
+        assertNull(new DFS(graph).findPath(0, 3));
+    }
+
+    // Нумуудын хагасыг хаахад хүрэх эсэх нь Dijkstra-тай ижил, зам нь хаалттай нумгүй
+    @Test
+    public void reachabilityMatchesDijkstraWithHalfTheArcsClosed() {
+        CsrGraph csr = TestGraphs.grid(10, 10, 3);
+        Graph graph = Graph.fromCsr(csr);
+        Random random = new Random(4);
+        Map<Integer, Double> closures = new HashMap<>();
+        for (int e = 0; e < csr.getEdgeCount(); e++) {
+            if (random.nextBoolean()) {
+                closures.put(e, TrafficOverlay.CLOSED);
+            }
+        }
+        csr.updateTraffic(closures, false);
+
+        Dijkstra dijkstra = new Dijkstra(graph);
+        BFS bfs = new BFS(graph);
+        DFS dfs = new DFS(graph);
+        for (int s = 0; s < csr.getNodeCount(); s += 7) {
+            for (int t = 0; t < csr.getNodeCount(); t += 3) {
+                boolean reachable = dijkstra.findPath(s, t) != null;
+                BFS.PathResult bfsResult = bfs.findPathWithStats(s, t, Metric.DISTANCE);
+                DFS.PathResult dfsResult = dfs.findPathWithStats(s, t, Metric.DISTANCE);
+                assertEquals(reachable, bfsResult.path != null);
+                assertEquals(reachable, dfsResult.path != null);
+                if (reachable) {
+                    assertOpen(csr, bfsResult.path);
+                    assertOpen(csr, dfsResult.path);
+                    assertTrue(Double.isFinite(bfsResult.totalDistance));
+                    assertTrue(Double.isFinite(dfsResult.totalDistance));
+                }
+            }
+        }
+    }
+
+    private static void assertOpen(CsrGraph csr, List<Node> path) {
+        assertNotNull(path);
+        for (int i = 0; i + 1 < path.size(); i++) {
+            int edge = csr.findEdge((int) path.get(i).getId(), (int) path.get(i + 1).getId(), Metric.DISTANCE);
+            assertTrue(edge >= 0 && Double.isFinite(csr.weights(Metric.DISTANCE)[edge]));
+        }
+    }
+
+    private static List<Long> ids(List<Node> path) {
+        assertNotNull(path);
+        return path.stream().map(Node::getId).toList();
+    }
+}
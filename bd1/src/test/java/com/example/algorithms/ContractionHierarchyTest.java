@@ -0,0 +1,75 @@
+package com.example.algorithms;
+
+import com.example.graph.CsrGraph;
+import com.example.graph.Graph;
+import com.example.graph.Metric;
+import com.example.graph.Node;
+import com.example.graph.TestGraphs;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ContractionHierarchyTest {
+
+    @Test
+    public void costsMatchDijkstraSingleThreaded() {
+        for (long seed = 1; seed <= 3; seed++) {
+            Graph graph = Graph.fromCsr(TestGraphs.grid(20, 20, seed));
+            for (Metric metric : Metric.values()) {
+                assertMatchesDijkstra(graph, ContractionHierarchy.build(graph, metric, 1), metric, seed);
+            }
+        }
+    }
+
+    // Зэрэгцээ witness хайлт ба багц хураалтын уралдааныг илрүүлэх зорилготой
+    @Test
+    public void costsMatchDijkstraMultiThreaded() {
+        for (long seed = 4; seed <= 6; seed++) {
+            Graph graph = Graph.fromCsr(TestGraphs.grid(30, 30, seed));
+            for (Metric metric : Metric.values()) {
+                assertMatchesDijkstra(graph, ContractionHierarchy.build(graph, metric, 4), metric, seed);
+            }
+        }
+    }
+
+    private static void assertMatchesDijkstra(Graph graph, ContractionHierarchy ch, Metric metric, long seed) {
+        CsrGraph csr = graph.getCsr();
+        int n = csr.getNodeCount();
+        long[] targets = new long[n];
+        for (int v = 0; v < n; v++) {
+            targets[v] = v;
+        }
+        Dijkstra dijkstra = new Dijkstra(graph);
+        Random random = new Random(seed);
+        for (int query = 0; query < 20; query++) {
+            int start = random.nextInt(n);
+            double[] expected = dijkstra.findDistances(start, targets, metric);
+            for (int sample = 0; sample < 20; sample++) {
+                int end = random.nextInt(n);
+                ContractionHierarchy.PathResult result = ch.findPathWithStats(start, end);
+                if (expected[end] == Double.POSITIVE_INFINITY) {
+                    assertNull(result.path, start + " -> " + end);
+                    continue;
+                }
+                assertPath(csr, result.path, start, end, metric);
+                double cost = metric == Metric.TIME ? result.totalTime : result.totalDistance;
+                assertEquals(expected[end], cost, 1e-9 * Math.max(1.0, expected[end]), start + " -> " + end);
+            }
+        }
+    }
+
+    // Shortcut-уудыг бүрэн задалсан эсэх: дараалсан цэг бүрийн хооронд жинхэнэ нум байна
+    static void assertPath(CsrGraph csr, List<Node> path, int start, int end, Metric metric) {
+        assertTrue(path != null && !path.isEmpty(), start + " -> " + end);
+        assertEquals(start, path.get(0).getId());
+        assertEquals(end, path.get(path.size() - 1).getId());
+        for (int i = 0; i + 1 < path.size(); i++) {
+            assertTrue(csr.findEdge((int) path.get(i).getId(), (int) path.get(i + 1).getId(), metric) >= 0);
+        }
+    }
+}
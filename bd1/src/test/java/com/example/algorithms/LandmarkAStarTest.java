@@ -0,0 +1,154 @@
+package com.example.algorithms;
+
+import com.example.graph.CsrGraph;
+import com.example.graph.Graph;
+import com.example.graph.Metric;
+import com.example.graph.TestGraphs;
+import com.example.graph.TrafficOverlay;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LandmarkAStarTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void costsMatchDijkstra() {
+        for (long seed = 1; seed <= 3; seed++) {
+            Graph graph = Graph.fromCsr(TestGraphs.grid(25, 25, seed));
+            for (Metric metric : Metric.values()) {
+                LandmarkAStar alt = new LandmarkAStar(graph, Landmarks.build(graph, metric, 8, 2));
+                assertMatchesDijkstra(graph, alt, metric, seed);
+            }
+        }
+    }
+
+    // Замын хөдөлгөөн зөвхөн жинг ихэсгэх тул суурь жингийн тулгуурууд хүчинтэй хэвээр
+    @Test
+    public void costsMatchDijkstraUnderTraffic() {
+        CsrGraph csr = TestGraphs.grid(25, 25, 7);
+        Graph graph = Graph.fromCsr(csr);
+        Landmarks landmarks = Landmarks.build(graph, Metric.TIME, 8, 2);
+        Random random = new Random(8);
+        Map<Integer, Double> multipliers = new HashMap<>();
+        for (int e = 0; e < csr.getEdgeCount(); e++) {
+            if (random.nextInt(5) == 0) {
+                multipliers.put(e, random.nextInt(10) == 0 ? TrafficOverlay.CLOSED : 1 + 3 * random.nextDouble());
+            }
+        }
+        csr.updateTraffic(multipliers, false);
+        assertMatchesDijkstra(graph, new LandmarkAStar(graph, landmarks), Metric.TIME, 9);
+    }
+
+    // float зайн бөөрөнхийлөлтийг slack нөхөж, доод хязгаар бодит зайнаас хэтрэхгүй
+    @Test
+    public void lowerBoundsAreAdmissible() {
+        Graph graph = Graph.fromCsr(TestGraphs.grid(20, 20, 11));
+        CsrGraph csr = graph.getCsr();
+        int n = csr.getNodeCount();
+        long[] all = new long[n];
+        for (int v = 0; v < n; v++) {
+            all[v] = v;
+        }
+        for (Metric metric : Metric.values()) {
+            Landmarks landmarks = Landmarks.build(graph, metric, 8, 1);
+            Dijkstra dijkstra = new Dijkstra(graph);
+            Random random = new Random(12);
+            for (int query = 0; query < 10; query++) {
+                int source = random.nextInt(n);
+                double[] exact = dijkstra.findDistances(source, all, metric);
+                for (int target = 0; target < n; target++) {
+                    for (int i = 0; i < landmarks.getCount(); i++) {
+                        double bound = landmarks.lowerBound(source, i,
+                                landmarks.forward(target, i), landmarks.backward(target, i));
+                        assertTrue(bound <= exact[target], source + " -> " + target + " landmark " + i);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void writeReadRoundTrip() throws Exception {
+        Graph graph = Graph.fromCsr(TestGraphs.grid(15, 15, 21));
+        CsrGraph csr = graph.getCsr();
+        Landmarks landmarks = Landmarks.build(graph, Metric.DISTANCE, 6, 2);
+        Path file = Landmarks.pathFor(tempDir.resolve("graph.bin"), Metric.DISTANCE);
+        landmarks.write(file);
+
+        Landmarks read = Landmarks.read(file, csr, Metric.DISTANCE);
+        assertNotNull(read);
+        assertTrue(read.matches(csr));
+        assertEquals(Metric.DISTANCE, read.getMetric());
+        assertEquals(landmarks.getRequestedCount(), read.getRequestedCount());
+        assertArrayEquals(landmarks.getLandmarks(), read.getLandmarks());
+        for (int v = 0; v < csr.getNodeCount(); v++) {
+            for (int i = 0; i < landmarks.getCount(); i++) {
+                assertEquals(landmarks.forward(v, i), read.forward(v, i));
+                assertEquals(landmarks.backward(v, i), read.backward(v, i));
+            }
+        }
+        assertMatchesDijkstra(graph, new LandmarkAStar(graph, read), Metric.DISTANCE, 22);
+    }
+
+    @Test
+    public void readRejectsStaleOrCorruptFiles() throws Exception {
+        Graph graph = Graph.fromCsr(TestGraphs.grid(15, 15, 31));
+        CsrGraph csr = graph.getCsr();
+        Path file = tempDir.resolve("graph.bin.distance.alt");
+        Landmarks.build(graph, Metric.DISTANCE, 4, 1).write(file);
+
+        // Өөр metric, ижил хэмжээтэй өөр граф
+        assertNull(Landmarks.read(file, csr, Metric.TIME));
+        CsrGraph other = TestGraphs.grid(15, 15, 32);
+        assertNull(Landmarks.read(file, other, Metric.DISTANCE));
+        assertFalse(Landmarks.read(file, csr, Metric.DISTANCE).matches(other));
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        assertNull(Landmarks.read(file, csr, Metric.DISTANCE));
+
+        assertNull(Landmarks.read(tempDir.resolve("missing.alt"), csr, Metric.DISTANCE));
+    }
+
+    private static void assertMatchesDijkstra(Graph graph, LandmarkAStar alt, Metric metric, long seed) {
+        CsrGraph csr = graph.getCsr();
+        int n = csr.getNodeCount();
+        long[] all = new long[n];
+        for (int v = 0; v < n; v++) {
+            all[v] = v;
+        }
+        Dijkstra dijkstra = new Dijkstra(graph);
+        Random random = new Random(seed);
+        for (int query = 0; query < 20; query++) {
+            int start = random.nextInt(n);
+            double[] expected = dijkstra.findDistances(start, all, metric);
+            for (int sample = 0; sample < 20; sample++) {
+                int end = random.nextInt(n);
+                LandmarkAStar.PathResult result = alt.findPathWithStats(start, end);
+                if (expected[end] == Double.POSITIVE_INFINITY) {
+                    assertNull(result.path, start + " -> " + end);
+                    continue;
+                }
+                ContractionHierarchyTest.assertPath(csr, result.path, start, end, metric);
+                double cost = metric == Metric.TIME ? result.totalTime : result.totalDistance;
+                assertEquals(expected[end], cost, 1e-9 * Math.max(1.0, expected[end]), start + " -> " + end);
+            }
+        }
+    }
+}
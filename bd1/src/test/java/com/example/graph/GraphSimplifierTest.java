@@ -0,0 +1,215 @@
+package com.example.graph;
+
+import com.example.algorithms.Dijkstra;
+import com.example.api.PathResponse;
+import com.example.service.PathfindingService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GraphSimplifierTest {
+    private static final String[] ROAD_TYPES = {"primary", "residential", null};
+    private static final int RING_SIZE = 8;
+
+    @Test
+    public void costsBetweenKeptNodesAreUnchanged() {
+        Network network = new Network(1);
+        CsrGraph original = network.builder.build();
+        CsrGraph simplified = GraphSimplifier.simplify(original);
+        assertTrue(simplified.getPresentNodeCount() < original.getPresentNodeCount() / 2);
+
+        int[] kept = presentNodes(simplified);
+        long[] targets = new long[kept.length];
+        for (int i = 0; i < kept.length; i++) {
+            targets[i] = kept[i];
+        }
+        Dijkstra before = new Dijkstra(Graph.fromCsr(original));
+        Dijkstra after = new Dijkstra(Graph.fromCsr(simplified));
+        Random random = new Random(2);
+        for (Metric metric : Metric.values()) {
+            for (int query = 0; query < 30; query++) {
+                int start = kept[random.nextInt(kept.length)];
+                double[] expected = before.findDistances(start, targets, metric);
+                double[] actual = after.findDistances(start, targets, metric);
+                for (int i = 0; i < targets.length; i++) {
+                    assertEquals(expected[i], actual[i], 1e-9 * Math.max(1.0, expected[i]), start + " -> " + targets[i]);
+                }
+            }
+        }
+    }
+
+    // Ангилал эсвэл нэг чиглэлийн тэмдэг солигдох цэг хураагдахгүй
+    @Test
+    public void classAndOneWayBoundariesAreKept() {
+        Network network = new Network(3);
+        CsrGraph simplified = GraphSimplifier.simplify(network.builder.build());
+        assertTrue(network.boundaries.size() > 10);
+        for (int node : network.boundaries) {
+            assertTrue(simplified.contains(node), "хил дээрх цэг хураагдсан: " + node);
+        }
+    }
+
+    // Бүхэлдээ хэлбэрийн цэгээс тогтсон тойрогт нэг цэг үлдэж, хоёр чиглэлийн гогцоо болно
+    @Test
+    public void isolatedRingKeepsOneNode() {
+        Network network = new Network(4);
+        CsrGraph original = network.builder.build();
+        CsrGraph simplified = GraphSimplifier.simplify(original);
+
+        int keptCount = 0;
+        int kept = -1;
+        for (int i = 0; i < RING_SIZE; i++) {
+            if (simplified.contains(network.ring + i)) {
+                keptCount++;
+                kept = network.ring + i;
+            }
+        }
+        assertEquals(1, keptCount);
+        assertEquals(2, simplified.endEdge(kept) - simplified.firstEdge(kept));
+
+        double ringLength = 0.0;
+        for (int i = 0; i < RING_SIZE; i++) {
+            ringLength += original.getWeight(original.findEdge(network.ring + i, network.ring + (i + 1) % RING_SIZE));
+        }
+        for (int e = simplified.firstEdge(kept); e < simplified.endEdge(kept); e++) {
+            assertEquals(kept, simplified.getTarget(e));
+            assertEquals(RING_SIZE - 1, simplified.getGeometrySize(e));
+            assertEquals(ringLength, simplified.getWeight(e), 1e-9);
+        }
+
+        CsrGraph twice = GraphSimplifier.simplify(simplified);
+        assertEquals(simplified.getPresentNodeCount(), twice.getPresentNodeCount());
+        assertEquals(simplified.getEdgeCount(), twice.getEdgeCount());
+    }
+
+    // Хураасан графын хариу дахь зам нь анхны графын замын бүх цэгийг дарааллаар нь агуулна
+    @Test
+    public void routeGeometryReproducesOriginalPolyline() {
+        Network network = new Network(5);
+        CsrGraph original = network.builder.build();
+        CsrGraph simplified = GraphSimplifier.simplify(original);
+        Dijkstra before = new Dijkstra(Graph.fromCsr(original));
+        PathfindingService service = new PathfindingService(Graph.fromCsr(simplified));
+
+        int[] kept = presentNodes(simplified);
+        Random random = new Random(6);
+        int compared = 0;
+        for (int query = 0; query < 40; query++) {
+            int start = kept[random.nextInt(kept.length)];
+            int end = kept[random.nextInt(kept.length)];
+            List<Node> expected = before.findPath(start, end, Metric.DISTANCE);
+            double startLat = simplified.getLatitude(start);
+            double startLng = simplified.getLongitude(start);
+            double endLat = simplified.getLatitude(end);
+            double endLng = simplified.getLongitude(end);
+
+            PathfindingService.RouteGeometry geometry = service.findRouteGeometry("dijkstra",
+                    startLat, startLng, endLat, endLng, Metric.DISTANCE);
+            PathResponse response = service.findPath("dijkstra", startLat, startLng, endLat, endLng, Metric.DISTANCE);
+            if (expected == null) {
+                assertTrue(!geometry.success() && !response.isSuccess());
+                continue;
+            }
+            assertEquals(expected.size(), geometry.pointCount());
+            assertEquals(expected.size(), response.getPath().size());
+            for (int i = 0; i < expected.size(); i++) {
+                Node node = expected.get(i);
+                assertEquals(node.getLatitude(), geometry.coordinates()[2 * i], 1e-7);
+                assertEquals(node.getLongitude(), geometry.coordinates()[2 * i + 1], 1e-7);
+                assertEquals(node.getLatitude(), response.getPath().get(i).getLat(), 1e-7);
+                assertEquals(node.getLongitude(), response.getPath().get(i).getLng(), 1e-7);
+            }
+            compared++;
+        }
+        assertTrue(compared > 20);
+    }
+
+    private static int[] presentNodes(CsrGraph csr) {
+        List<Integer> nodes = new ArrayList<>();
+        for (int v = 0; v < csr.getNodeCount(); v++) {
+            if (csr.contains(v)) nodes.add(v);
+        }
+        return nodes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // Уулзварын тор; уулзвар хоорондын зам бүр 0..4 хэлбэрийн цэгтэй. Зарим замын хагаст
+    // ангилал эсвэл нэг чиглэлийн тэмдэг солигдоно. Тусгаарлагдсан тойрог нэмнэ.
+    private static final class Network {
+        final CsrGraph.Builder builder = new CsrGraph.Builder();
+        final List<Integer> boundaries = new ArrayList<>();
+        final int ring;
+        private final Random random;
+        private int next;
+
+        Network(long seed) {
+            random = new Random(seed);
+            int width = 12;
+            for (int y = 0; y < width; y++) {
+                for (int x = 0; x < width; x++) {
+                    node(47.9 + y * 0.002 + random.nextDouble() * 1e-4, 106.9 + x * 0.002 + random.nextDouble() * 1e-4);
+                }
+            }
+            for (int y = 0; y < width; y++) {
+                for (int x = 0; x < width; x++) {
+                    int u = y * width + x;
+                    if (x + 1 < width && random.nextDouble() < 0.85) road(u, u + 1);
+                    if (y + 1 < width && random.nextDouble() < 0.85) road(u, u + width);
+                }
+            }
+            ring = next;
+            for (int i = 0; i < RING_SIZE; i++) {
+                node(48.1 + Math.sin(i) * 1e-3, 107.1 + Math.cos(i) * 1e-3);
+            }
+            for (int i = 0; i < RING_SIZE; i++) {
+                arc(ring + i, ring + (i + 1) % RING_SIZE, "service", false);
+            }
+        }
+
+        private int node(double lat, double lon) {
+            builder.addNode(next, lat, lon);
+            return next++;
+        }
+
+        private void road(int u, int v) {
+            int points = random.nextInt(5);
+            String roadType = ROAD_TYPES[random.nextInt(ROAD_TYPES.length)];
+            boolean oneWay = random.nextInt(5) == 0;
+            // Хоёр дахь хагаст өөр ангилал эсвэл өөр нэг чиглэлийн тэмдэг
+            int change = points > 0 && random.nextInt(3) == 0 ? 1 + random.nextInt(points) : -1;
+            int prev = u;
+            for (int i = 1; i <= points + 1; i++) {
+                int current = i == points + 1 ? v : node(
+                        lerp(builder.getLatitude(u), builder.getLatitude(v), i, points) + random.nextDouble() * 2e-5,
+                        lerp(builder.getLongitude(u), builder.getLongitude(v), i, points) + random.nextDouble() * 2e-5);
+                if (i - 1 == change) {
+                    boundaries.add(prev);
+                    if (random.nextBoolean()) {
+                        roadType = roadType == null ? "primary" : null;
+                    } else {
+                        oneWay = !oneWay;
+                    }
+                }
+                arc(prev, current, roadType, oneWay);
+                prev = current;
+            }
+        }
+
+        private static double lerp(double a, double b, int i, int points) {
+            return a + (b - a) * i / (points + 1);
+        }
+
+        private void arc(int u, int v, String roadType, boolean oneWay) {
+            double weight = Node.haversine(builder.getLatitude(u), builder.getLongitude(u),
+                    builder.getLatitude(v), builder.getLongitude(v)) * (1 + random.nextDouble() * 0.1);
+            builder.addArc(u, v, weight, roadType, oneWay);
+            if (!oneWay) {
+                builder.addArc(v, u, weight, roadType, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.graph;
+
+import java.util.Random;
+
+// Тестийн графууд: seed-ээр тогтмол, нэг чиглэлт ба зэрэгцээ нумтай
+public final class TestGraphs {
+    private static final String[] ROAD_TYPES = {"primary", "residential", null};
+
+    private TestGraphs() {
+    }
+
+    // width x height тор: хөршийн холбоосын ~10% нь байхгүй, ~20% нь нэг чиглэлт, ~5% нь
+    // илүү урт зэрэгцээ нумтай. Жин нь haversine-ээс багагүй тул A*-ийн эвристик хүчинтэй.
+    public static CsrGraph grid(int width, int height, long seed) {
+        Random random = new Random(seed);
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                builder.addNode(y * width + x, 47.9 + y * 0.001 + random.nextDouble() * 0.0003,
+                        106.9 + x * 0.001 + random.nextDouble() * 0.0003);
+            }
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int u = y * width + x;
+                if (x + 1 < width && random.nextDouble() < 0.9) {
+                    link(builder, random, u, u + 1);
+                }
+                if (y + 1 < height && random.nextDouble() < 0.9) {
+                    link(builder, random, u, u + width);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static void link(CsrGraph.Builder builder, Random random, int u, int v) {
+        double distance = Node.haversine(builder.getLatitude(u), builder.getLongitude(u),
+                builder.getLatitude(v), builder.getLongitude(v));
+        double weight = distance * (1 + random.nextDouble());
+        String roadType = ROAD_TYPES[random.nextInt(ROAD_TYPES.length)];
+        if (random.nextDouble() < 0.2) {
+            if (random.nextBoolean()) {
+                builder.addArc(u, v, weight, roadType, true);
+            } else {
+                builder.addArc(v, u, weight, roadType, true);
+            }
+        } else {
+            builder.addArc(u, v, weight, roadType, false);
+            builder.addArc(v, u, weight, roadType, false);
+        }
+        if (random.nextDouble() < 0.05) {
+            builder.addArc(u, v, weight * 1.5, roadType, true);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.parser;
+
+import com.example.graph.CsrGraph;
+import org.geotools.data.DefaultTransaction;
+import org.geotools.data.Transaction;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.geotools.data.shapefile.ShapefileDataStore;
+import org.geotools.data.shapefile.ShapefileDataStoreFactory;
+import org.geotools.data.simple.SimpleFeatureStore;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+
+import java.io.File;
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShapefileParserTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Гараар бүтээсэн fixture; хүлээгдэх цэг, нумууд нь зэрэгцээ болохоос өмнөх (дараалсан)
+    // parser-ийн гаралт. Нумууд эх цэгээрээ бүлэглэгдэж, нэмсэн дарааллаа хадгална.
+    @Test
+    public void parseMatchesGoldenFixture() throws Exception {
+        SimpleFeatureType type = roadsType();
+        GeometryFactory geometryFactory = new GeometryFactory();
+        Coordinate a = new Coordinate(106.900, 47.900);
+        Coordinate b = new Coordinate(106.901, 47.900);
+        Coordinate c = new Coordinate(106.901, 47.901);
+        Coordinate d = new Coordinate(106.902, 47.901);
+        Coordinate e = new Coordinate(106.902, 47.902);
+        List<SimpleFeature> features = List.of(
+                road(type, geometryFactory, "primary", "no", new Coordinate[][]{{a, b, c}}),
+                // Шүүгдэх төрөл, bbox-оос гадуур: цэг үүсгэхгүй
+                road(type, geometryFactory, "footway", "no", new Coordinate[][]{{c, new Coordinate(106.95, 47.95)}}),
+                road(type, geometryFactory, "primary", "no",
+                        new Coordinate[][]{{new Coordinate(105.0, 47.9), new Coordinate(105.001, 47.9)}}),
+                // Хоёр хэсэгтэй нэг чиглэлт; давхардсан орой гогцоо үүсгэхгүй
+                road(type, geometryFactory, "residential", "yes", new Coordinate[][]{{c, d}, {e, e, a}}),
+                road(type, geometryFactory, "service", "no", new Coordinate[][]{{d, b}})
+        );
+        File shapefile = write(tempDir.resolve("golden.shp").toFile(), type, features);
+
+        double[][] nodes = {{47.900, 106.900}, {47.900, 106.901}, {47.901, 106.901}, {47.901, 106.902},
+                {47.902, 106.902}};
+        int[] offsets = {0, 1, 4, 6, 7, 8};
+        int[] targets = {1, 0, 2, 3, 1, 3, 1, 0};
+        double[] weights = {0.07454803871445886, 0.07454803871445886, 0.11119492664508966, 0.1338716341902373,
+                0.11119492664508966, 0.07454659873860439, 0.1338716341902373, 0.2677424665014028};
+        String[] roadTypes = {"primary", "primary", "primary", "service", "primary", "residential", "service",
+                "residential"};
+        boolean[] oneWay = {false, false, false, false, false, true, false, true};
+
+        for (int threads : new int[]{1, 2, 4}) {
+            CsrGraph graph = new ShapefileParser(0.0, threads).parseShapefile(shapefile.getPath()).getCsr();
+            assertEquals(nodes.length, graph.getNodeCount());
+            for (int v = 0; v < nodes.length; v++) {
+                assertEquals(nodes[v][0], graph.getLatitude(v));
+                assertEquals(nodes[v][1], graph.getLongitude(v));
+            }
+            assertArrayEquals(offsets, graph.getOffsets());
+            assertArrayEquals(targets, graph.getTargets());
+            assertArrayEquals(weights, graph.getWeights(), 1e-12);
+            for (int arc = 0; arc < targets.length; arc++) {
+                assertEquals(roadTypes[arc], graph.getRoadType(arc));
+                assertEquals(oneWay[arc], graph.isOneWay(arc));
+                // maxspeed = 60 км/ц тул минут нь км-тэй тэнцүү
+                assertEquals(weights[arc], graph.getTravelTime(arc), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void parallelParseMatchesSerialParse() throws Exception {
+        File shapefile = writeRoads(tempDir.resolve("roads.shp").toFile(), 3000, 42);
+
+        CsrGraph serial = new ShapefileParser(0.0, 1).parseShapefile(shapefile.getPath()).getCsr();
+        assertTrue(serial.getEdgeCount() > 0);
+
+        for (int threads : new int[]{2, 4, 8}) {
+            CsrGraph parallel = new ShapefileParser(0.0, threads).parseShapefile(shapefile.getPath()).getCsr();
+            assertSameGraph(serial, parallel);
+        }
+    }
+
+    @Test
+    public void parallelParseWithSnapToleranceMatchesSerialParse() throws Exception {
+        File shapefile = writeRoads(tempDir.resolve("snapped.shp").toFile(), 1500, 7);
+
+        CsrGraph exact = new ShapefileParser(0.0, 1).parseShapefile(shapefile.getPath()).getCsr();
+        CsrGraph serial = new ShapefileParser(1e-4, 1).parseShapefile(shapefile.getPath()).getCsr();
+        CsrGraph parallel = new ShapefileParser(1e-4, 4).parseShapefile(shapefile.getPath()).getCsr();
+
+        assertTrue(serial.getNodeCount() < exact.getNodeCount());
+        assertSameGraph(serial, parallel);
+    }
+
+    private static void assertSameGraph(CsrGraph expected, CsrGraph actual) {
+        assertEquals(expected.getNodeCount(), actual.getNodeCount());
+        assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+        for (int v = 0; v < expected.getNodeCount(); v++) {
+            assertEquals(expected.getLatitude(v), actual.getLatitude(v));
+            assertEquals(expected.getLongitude(v), actual.getLongitude(v));
+        }
+        assertArrayEquals(expected.getOffsets(), actual.getOffsets());
+        assertArrayEquals(expected.getTargets(), actual.getTargets());
+        assertArrayEquals(expected.getWeights(), actual.getWeights());
+        assertArrayEquals(expected.getTravelTimes(), actual.getTravelTimes());
+        for (int e = 0; e < expected.getEdgeCount(); e++) {
+            assertEquals(expected.getRoadType(e), actual.getRoadType(e));
+            assertEquals(expected.isOneWay(e), actual.isOneWay(e));
+        }
+    }
+
+    // Улаанбаатарын bbox доторх торон дээр санамсаргүй зам үүсгэнэ. Оройнууд тор дээр
+    // давхцах тул dedup ажиллана; зарим feature bbox-оос гадуур эсвэл шүүгдэх төрөлтэй.
+    private static File writeRoads(File file, int featureCount, long seed) throws Exception {
+        SimpleFeatureType type = roadsType();
+
+        String[] classes = {"primary", "secondary", "residential", "service", "footway"};
+        GeometryFactory geometryFactory = new GeometryFactory();
+        SimpleFeatureBuilder featureBuilder = new SimpleFeatureBuilder(type);
+        Random random = new Random(seed);
+        List<SimpleFeature> features = new ArrayList<>();
+
+        for (int f = 0; f < featureCount; f++) {
+            double originLon = random.nextInt(20) == 0 ? 105.0 : 106.8;
+            int x = random.nextInt(200);
+            int y = random.nextInt(200);
+            LineString[] parts = new LineString[1 + random.nextInt(2)];
+            for (int p = 0; p < parts.length; p++) {
+                Coordinate[] coords = new Coordinate[2 + random.nextInt(5)];
+                for (int i = 0; i < coords.length; i++) {
+                    // Tolerance-ийн тестэд зориулж бага зэрэг шилжүүлсэн оройнууд
+                    double jitter = random.nextInt(4) == 0 ? 1e-6 : 0.0;
+                    coords[i] = new Coordinate(originLon + x * 0.001 + jitter, 47.8 + y * 0.001);
+                    x += random.nextInt(3) - 1;
+                    y += random.nextInt(3) - 1;
+                }
+                parts[p] = geometryFactory.createLineString(coords);
+            }
+
+            featureBuilder.add(geometryFactory.createMultiLineString(parts));
+            featureBuilder.add(classes[random.nextInt(classes.length)]);
+            featureBuilder.add(random.nextBoolean() ? "yes" : "no");
+            featureBuilder.add(random.nextBoolean() ? 60 : 0);
+            features.add(featureBuilder.buildFeature(null));
+        }
+        return write(file, type, features);
+    }
+
+    private static SimpleFeatureType roadsType() {
+        SimpleFeatureTypeBuilder typeBuilder = new SimpleFeatureTypeBuilder();
+        typeBuilder.setName("roads");
+        typeBuilder.setCRS(DefaultGeographicCRS.WGS84);
+        typeBuilder.add("the_geom", MultiLineString.class);
+        typeBuilder.add("fclass", String.class);
+        typeBuilder.add("oneway", String.class);
+        typeBuilder.add("maxspeed", Integer.class);
+        return typeBuilder.buildFeatureType();
+    }
+
+    private static SimpleFeature road(SimpleFeatureType type, GeometryFactory geometryFactory, String fclass,
+                                      String oneway, Coordinate[][] parts) {
+        LineString[] lines = new LineString[parts.length];
+        for (int p = 0; p < parts.length; p++) {
+            lines[p] = geometryFactory.createLineString(parts[p]);
+        }
+        SimpleFeatureBuilder featureBuilder = new SimpleFeatureBuilder(type);
+        featureBuilder.add(geometryFactory.createMultiLineString(lines));
+        featureBuilder.add(fclass);
+        featureBuilder.add(oneway);
+        featureBuilder.add(60);
+        return featureBuilder.buildFeature(null);
+    }
+
+    private static File write(File file, SimpleFeatureType type, List<SimpleFeature> features) throws Exception {
+        Map<String, Serializable> params = new HashMap<>();
+        params.put("url", file.toURI().toURL());
+        params.put("create spatial index", Boolean.FALSE);
+        ShapefileDataStore dataStore = (ShapefileDataStore) new ShapefileDataStoreFactory().createNewDataStore(params);
+        dataStore.createSchema(type);
+
+        try (Transaction transaction = new DefaultTransaction("create")) {
+            SimpleFeatureStore store = (SimpleFeatureStore) dataStore.getFeatureSource(dataStore.getTypeNames()[0]);
+            store.setTransaction(transaction);
+            store.addFeatures(new ListFeatureCollection(type, features));
+            transaction.commit();
+        } finally {
+            dataStore.dispose();
+        }
+        return file;
+    }
+}
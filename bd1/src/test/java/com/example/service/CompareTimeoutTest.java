@@ -0,0 +1,63 @@
+package com.example.service;
+
+import com.example.api.PathResponse;
+import com.example.graph.CsrGraph;
+import com.example.graph.Graph;
+import com.example.graph.Metric;
+import com.example.graph.TestGraphs;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompareTimeoutTest {
+    @Test
+    public void queuedSearchesDoNotTimeOut() throws Exception {
+        int width = 150;
+        CsrGraph csr = TestGraphs.grid(width, width, 3);
+        // Нэг thread-тэй pool: хоёр харьцуулалтын ~12 хайлт дараалж ажиллана. Нэг хайлт 400 мс-ээс
+        // хамаагүй богино ч нийлбэр нь түүнээс урт тул дараалалд хүлээсэн хугацааг тооцвол унана.
+        System.setProperty("compare.threads", "1");
+        System.setProperty("compare.timeoutMs", "400");
+        PathfindingService service;
+        try {
+            service = new PathfindingService(Graph.fromCsr(csr));
+        } finally {
+            System.clearProperty("compare.threads");
+            System.clearProperty("compare.timeoutMs");
+        }
+
+        int end = width * width - 1;
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Map<String, PathResponse>>> compares = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                compares.add(callers.submit(() -> service.compareAlgorithms(csr.getLatitude(0), csr.getLongitude(0),
+                        csr.getLatitude(end), csr.getLongitude(end), Metric.DISTANCE)));
+            }
+            for (Future<Map<String, PathResponse>> compare : compares) {
+                Map<String, PathResponse> results = compare.get();
+                assertTrue(results.size() >= 5);
+                for (Map.Entry<String, PathResponse> entry : results.entrySet()) {
+                    PathResponse response = entry.getValue();
+                    assertNotEquals(Boolean.TRUE, response.getTimedOut(), entry.getKey());
+                    assertTrue(response.isSuccess(), entry.getKey());
+                    // BFS, DFS нь оновчтой биш
+                    if (!entry.getKey().equals("bfs") && !entry.getKey().equals("dfs")) {
+                        assertEquals(0.0, response.getCostDelta(), 1e-9, entry.getKey());
+                    }
+                }
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
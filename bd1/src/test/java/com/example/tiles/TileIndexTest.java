@@ -0,0 +1,259 @@
+package com.example.tiles;
+
+import com.example.graph.CsrGraph;
+import com.example.graph.Tile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TileIndexTest {
+    @Test
+    public void simplifyKeepsEndpointsAndStaysWithinTolerance() {
+        double tolerance = 16;
+        Random random = new Random(3);
+        for (int iteration = 0; iteration < 2000; iteration++) {
+            int count = 2 + random.nextInt(60);
+            int[] xy = new int[2 * count];
+            for (int i = 0; i < xy.length; i++) {
+                xy[i] = random.nextInt(TileIndex.EXTENT);
+            }
+            int[] original = xy.clone();
+            boolean[] keep = new boolean[count];
+            int kept = TileIndex.simplify(xy, count, tolerance, new int[2 * count], keep);
+
+            assertTrue(keep[0] && keep[count - 1]);
+            // Үлдсэн цэгүүд нь keep-ээр тэмдэглэсэн анхны цэгүүд, дарааллаараа
+            int k = 0;
+            int previous = 0;
+            for (int i = 0; i < count; i++) {
+                if (!keep[i]) continue;
+                assertEquals(original[2 * i], xy[2 * k]);
+                assertEquals(original[2 * i + 1], xy[2 * k + 1]);
+                k++;
+                // Хасагдсан цэг бүр хоёр талын үлдсэн цэгийн хэрчмээс tolerance-оос ойр
+                for (int j = previous + 1; j < i; j++) {
+                    double distance = Math.sqrt(distanceSquared(original, j, previous, i));
+                    assertTrue(distance <= tolerance, distance + " > " + tolerance);
+                }
+                previous = i;
+            }
+            assertEquals(k, kept);
+        }
+    }
+
+    @Test
+    public void simplifyKeepsSpike() {
+        int[] xy = {0, 0, 10, 1, 20, -1, 30, 0, 40, 50, 50, 0, 60, 0};
+        int kept = TileIndex.simplify(xy, 7, 16, new int[14], new boolean[7]);
+        assertArrayEquals(new int[] {0, 0, 30, 0, 40, 50, 60, 0}, Arrays.copyOf(xy, 2 * kept));
+    }
+
+    @Test
+    public void renderedTileDecodesToEdges() {
+        int zoom = 14;
+        Tile tile = tileOf(47.9, 106.9, zoom);
+        double lat = (tile.getMinLat() + tile.getMaxLat()) / 2;
+        double lon = (tile.getMinLon() + tile.getMaxLon()) / 2;
+        double step = (tile.getMaxLon() - tile.getMinLon()) / 8;
+
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addNode(0, lat, lon);
+        builder.addNode(1, lat + step, lon + step);
+        builder.addNode(2, lat - step, lon + 2 * step);
+        builder.addArc(0, 1, 100, "primary", false);
+        builder.addArc(1, 0, 100, "primary", false);
+        builder.addArc(1, 2, 100, "residential", true);
+        builder.addArc(2, 0, 100, null, true);
+        CsrGraph csr = builder.build();
+
+        // Хоёр талын замыг нэг удаа (u < v чиглэлээр), нэг чиглэлтийг бүгдийг нь
+        Map<Long, String> expected = new HashMap<>();
+        for (int u = 0; u < csr.getNodeCount(); u++) {
+            for (int e = csr.firstEdge(u); e < csr.endEdge(u); e++) {
+                int v = csr.getTarget(e);
+                if (csr.isOneWay(e) || u < v) {
+                    expected.put((long) e, csr.getRoadType(e) + " " + csr.isOneWay(e) + " "
+                            + Arrays.toString(project(csr, tile, u, v)));
+                }
+            }
+        }
+        assertEquals(3, expected.size());
+
+        Layer layer = decode(TileIndex.build(csr).render(tile));
+        assertEquals(TileIndex.LAYER, layer.name);
+        assertEquals(TileIndex.EXTENT, layer.extent);
+        Map<Long, String> actual = new HashMap<>();
+        for (Feature feature : layer.features) {
+            assertEquals(2, feature.type);
+            Map<String, Object> tags = new HashMap<>();
+            for (int i = 0; i < feature.tags.size(); i += 2) {
+                tags.put(layer.keys.get(feature.tags.get(i)), layer.values.get(feature.tags.get(i + 1)));
+            }
+            actual.put(feature.id, tags.get("class") + " " + tags.get("oneway") + " "
+                    + Arrays.toString(feature.points));
+        }
+        assertEquals(expected, actual);
+
+        assertEquals(0, TileIndex.build(csr).render(new Tile(zoom, tile.getX() + 2, tile.getY())).length);
+    }
+
+    private static Tile tileOf(double lat, double lon, int zoom) {
+        int scale = 1 << zoom;
+        return new Tile(zoom, (int) (TileIndex.mercatorX(lon) * scale), (int) (TileIndex.mercatorY(lat) * scale));
+    }
+
+    private static int[] project(CsrGraph csr, Tile tile, int u, int v) {
+        double scale = 1 << tile.getZ();
+        return new int[] {
+                (int) Math.round((TileIndex.mercatorX(csr.getLongitude(u)) * scale - tile.getX()) * TileIndex.EXTENT),
+                (int) Math.round((TileIndex.mercatorY(csr.getLatitude(u)) * scale - tile.getY()) * TileIndex.EXTENT),
+                (int) Math.round((TileIndex.mercatorX(csr.getLongitude(v)) * scale - tile.getX()) * TileIndex.EXTENT),
+                (int) Math.round((TileIndex.mercatorY(csr.getLatitude(v)) * scale - tile.getY()) * TileIndex.EXTENT)};
+    }
+
+    private static double distanceSquared(int[] xy, int p, int a, int b) {
+        double ax = xy[2 * a], ay = xy[2 * a + 1];
+        double dx = xy[2 * b] - ax, dy = xy[2 * b + 1] - ay;
+        double px = xy[2 * p] - ax, py = xy[2 * p + 1] - ay;
+        double length = dx * dx + dy * dy;
+        double t = length == 0 ? 0 : Math.max(0, Math.min(1, (px * dx + py * dy) / length));
+        double ex = px - t * dx, ey = py - t * dy;
+        return ex * ex + ey * ey;
+    }
+
+    // vector_tile.proto-ийн зөвхөн MvtEncoder бичдэг талбаруудыг уншина
+    private static Layer decode(byte[] bytes) {
+        Reader tile = new Reader(bytes, 0, bytes.length);
+        Layer layer = null;
+        while (tile.hasMore()) {
+            int tag = (int) tile.varint();
+            assertEquals(3 << 3 | 2, tag);
+            assertEquals(null, layer);
+            layer = new Layer();
+            Reader reader = tile.message();
+            while (reader.hasMore()) {
+                int field = (int) reader.varint();
+                switch (field >>> 3) {
+                    case 15 -> assertEquals(2, reader.varint());
+                    case 1 -> layer.name = reader.string();
+                    case 2 -> layer.features.add(feature(reader.message()));
+                    case 3 -> layer.keys.add(reader.string());
+                    case 4 -> {
+                        Reader value = reader.message();
+                        int valueField = (int) value.varint();
+                        layer.values.add(valueField >>> 3 == 7 ? (Object) (value.varint() != 0) : value.string());
+                    }
+                    case 5 -> layer.extent = (int) reader.varint();
+                    default -> throw new AssertionError("Тодорхойгүй талбар: " + (field >>> 3));
+                }
+            }
+        }
+        return layer;
+    }
+
+    private static Feature feature(Reader reader) {
+        Feature feature = new Feature();
+        while (reader.hasMore()) {
+            int field = (int) reader.varint();
+            switch (field >>> 3) {
+                case 1 -> feature.id = reader.varint();
+                case 2 -> {
+                    Reader tags = reader.message();
+                    while (tags.hasMore()) {
+                        feature.tags.add((int) tags.varint());
+                    }
+                }
+                case 3 -> feature.type = (int) reader.varint();
+                case 4 -> feature.points = geometry(reader.message());
+                default -> throw new AssertionError("Тодорхойгүй талбар: " + (field >>> 3));
+            }
+        }
+        return feature;
+    }
+
+    // MoveTo/LineTo командуудыг үнэмлэхүй координат болгоно
+    private static int[] geometry(Reader reader) {
+        List<Integer> points = new ArrayList<>();
+        int x = 0, y = 0;
+        while (reader.hasMore()) {
+            long command = reader.varint();
+            for (int i = 0; i < command >>> 3; i++) {
+                x += unzigzag(reader.varint());
+                y += unzigzag(reader.varint());
+                points.add(x);
+                points.add(y);
+            }
+        }
+        return points.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int unzigzag(long value) {
+        return (int) (value >>> 1) ^ -(int) (value & 1);
+    }
+
+    private static class Layer {
+        String name;
+        int extent;
+        final List<Feature> features = new ArrayList<>();
+        final List<String> keys = new ArrayList<>();
+        final List<Object> values = new ArrayList<>();
+    }
+
+    private static class Feature {
+        long id;
+        int type;
+        final List<Integer> tags = new ArrayList<>();
+        int[] points;
+    }
+
+    private static class Reader {
+        private final byte[] data;
+        private int position;
+        private final int end;
+
+        Reader(byte[] data, int position, int end) {
+            this.data = data;
+            this.position = position;
+            this.end = end;
+        }
+
+        boolean hasMore() {
+            return position < end;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        Reader message() {
+            int length = (int) varint();
+            Reader reader = new Reader(data, position, position + length);
+            position += length;
+            return reader;
+        }
+
+        String string() {
+            int length = (int) varint();
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}